@@ -4,3 +4,5 @@ LOCALREPO=/tmp/m2e-flexmojos.localrepo
 
 mvn -f m2e-flexmojos-runtime/pom.xml clean install -Dmaven.repo.local=$LOCALREPO
 mvn clean install -Dmaven.repo.local=$LOCALREPO
+mvn -f net.flexmojos.m2e.headless/pom.xml clean install -Dmaven.repo.local=$LOCALREPO
+mvn -f net.flexmojos.m2e.benchmarks/pom.xml clean package -Dmaven.repo.local=$LOCALREPO
@@ -0,0 +1,24 @@
+package net.flexmojos.m2e;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks of the connector, reporting their throughput and their allocation rate per operation.
+ *
+ * The arguments are the ones of the JMH command line, for instance <code>java -jar target/benchmarks.jar
+ * ConfigurationBenchmark -p parameters=200</code> to only run a benchmark with a given parameter.
+ *
+ * @author Sylvain Lecoy (sylvain.lecoy@gmail.com)
+ */
+public class Benchmarks
+{
+    public static void main( final String[] args )
+        throws Exception
+    {
+        final CommandLineOptions options = new CommandLineOptions( args );
+        new Runner( new OptionsBuilder().parent( options ).addProfiler( GCProfiler.class ).build() ).run();
+    }
+}
@@ -0,0 +1,82 @@
+package net.flexmojos.m2e;
+
+import java.util.concurrent.TimeUnit;
+
+import net.flexmojos.m2e.maven.ArtifactIndex;
+import net.flexmojos.m2e.maven.ICompilerMojo;
+import net.flexmojos.m2e.project.ConfigurationContext;
+
+import org.apache.maven.project.MavenProject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+
+/**
+ * Cost of a configuration request to the injector: an injector created for each request, as
+ * FlashBuilderProjectConfigurator did, or the long-lived injector of the bundle entering the context of the request.
+ * Both get the artifact index and the compiler adapter of a project, and read its target player.
+ *
+ * @author Sylvain Lecoy (sylvain.lecoy@gmail.com)
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class InjectorBenchmark
+{
+    @Param( { "10", "300" } )
+    private int dependencies;
+
+    private MavenProject project;
+
+    private Injector injector;
+
+    @Setup
+    public void setUp()
+    {
+        project = Reactor.createProject( dependencies );
+        injector = Guice.createInjector( new StandInModule() );
+    }
+
+    @Benchmark
+    public void createInjectorPerRequest( final Blackhole blackhole )
+    {
+        configure( Guice.createInjector( new StandInModule() ), blackhole );
+    }
+
+    @Benchmark
+    public void enterLongLivedInjector( final Blackhole blackhole )
+    {
+        configure( injector, blackhole );
+    }
+
+    private void configure( final Injector injector, final Blackhole blackhole )
+    {
+        final ConfigurationContext context = Reactor.createContext( project, 0 );
+        final ConfigurationContext previous = context.enter();
+        try
+        {
+            blackhole.consume( injector.getInstance( ArtifactIndex.class ) );
+            blackhole.consume( injector.getInstance( ICompilerMojo.class ).getTargetPlayerVersion() );
+        }
+        finally
+        {
+            ConfigurationContext.exit( previous );
+            context.release();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package net.flexmojos.m2e;
+
+import java.util.concurrent.TimeUnit;
+
+import net.flexmojos.m2e.maven.ICompilerMojo;
+import net.flexmojos.m2e.maven.IGeneratorMojo;
+import net.flexmojos.m2e.maven.ISignAirMojo;
+import net.flexmojos.m2e.project.ConfigurationContext;
+
+import org.apache.maven.project.MavenProject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+
+/**
+ * Mojo adapters built for a project executing the compile, generate and sign-air goals, per project type.
+ *
+ * The eager benchmark replays the former field injection of MavenFlexPlugin, where every adapter built its
+ * configuration and its expression evaluator when the plug-in was created: it builds the three adapters and reads a
+ * value of each. The lazy benchmark only builds the adapters the configurator of the type reads: every configurator
+ * reads the compiler and the generator, through the source path, and only the AIR configurators read sign-air,
+ * through the certificate path.
+ *
+ * @author Sylvain Lecoy (sylvain.lecoy@gmail.com)
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class MojoAdaptersBenchmark
+{
+    @Param( { "FlexLibraryProject", "FlexProject", "ApolloProject" } )
+    private String projectType;
+
+    @Param( { "10", "50" } )
+    private int parameters;
+
+    private MavenProject project;
+
+    private Injector injector;
+
+    private boolean signed;
+
+    @Setup
+    public void setUp()
+    {
+        project = Reactor.createProject( 10 );
+        injector = Guice.createInjector( new StandInModule() );
+        signed = projectType.startsWith( "Apollo" );
+    }
+
+    @Benchmark
+    public void eager( final Blackhole blackhole )
+    {
+        configure( true, blackhole );
+    }
+
+    @Benchmark
+    public void lazy( final Blackhole blackhole )
+    {
+        configure( signed, blackhole );
+    }
+
+    private void configure( final boolean signAir, final Blackhole blackhole )
+    {
+        final ConfigurationContext context = Reactor.createContext( project, parameters );
+        final ConfigurationContext previous = context.enter();
+        try
+        {
+            blackhole.consume( injector.getInstance( ICompilerMojo.class ).getTargetPlayerVersion() );
+            blackhole.consume( injector.getInstance( IGeneratorMojo.class ).getOutputDirectory() );
+            if ( signAir )
+                blackhole.consume( injector.getInstance( ISignAirMojo.class ).getKeystore() );
+        }
+        finally
+        {
+            ConfigurationContext.exit( previous );
+            context.release();
+        }
+    }
+}
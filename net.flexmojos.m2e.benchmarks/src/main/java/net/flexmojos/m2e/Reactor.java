@@ -0,0 +1,183 @@
+package net.flexmojos.m2e;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import net.flexmojos.m2e.maven.internal.MojoExecutions;
+import net.flexmojos.m2e.project.ConfigurationContext;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.artifact.versioning.VersionRange;
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.DefaultMavenExecutionResult;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+
+/**
+ * Synthetic module of a reactor, as m2e would hand it to the connector: a Maven project depending on the Flex framework
+ * and on SWC libraries, its session and the executions of the Maven Flex Plug-in.
+ *
+ * Nothing is read from the disk, the artifacts point to files of a local repository which does not exist.
+ *
+ * @author Sylvain Lecoy (sylvain.lecoy@gmail.com)
+ */
+public class Reactor
+{
+    public static final String FLEX_VERSION = "4.6.b.23201";
+
+    /**
+     * Scopes of the SWC libraries, given in turn to the dependencies.
+     */
+    private static final String[] SCOPES = { "merged", "rsl", "caching", "external", "internal", "compile" };
+
+    private static final File REPOSITORY = new File( "/nonexistent/repository" );
+
+    private Reactor()
+    {
+
+    }
+
+    /**
+     * Creates the resolved artifacts of a module: the Flex framework and its common framework, then the SWC libraries.
+     *
+     * @param dependencies the number of SWC libraries.
+     * @return
+     */
+    public static Set<Artifact> createArtifacts( final int dependencies )
+    {
+        final Set<Artifact> artifacts = new LinkedHashSet<Artifact>();
+        artifacts.add( createArtifact( "com.adobe.flex.framework", "flex-framework", FLEX_VERSION, "compile", "pom" ) );
+        artifacts.add( createArtifact( "com.adobe.flex.framework", "common-framework", FLEX_VERSION, "compile",
+                                       "pom" ) );
+        for ( int i = 0; i < dependencies; i++ )
+        {
+            artifacts.add( createArtifact( "com.example.libraries", "library" + i, "1.0." + i,
+                                           SCOPES[i % SCOPES.length], "swc" ) );
+        }
+        return artifacts;
+    }
+
+    private static Artifact createArtifact( final String groupId, final String artifactId, final String version,
+                                            final String scope, final String type )
+    {
+        final Artifact artifact =
+            new DefaultArtifact( groupId, artifactId, VersionRange.createFromVersion( version ), scope, type, null,
+                                 new DefaultArtifactHandler( type ) );
+        artifact.setFile( new File( REPOSITORY, groupId.replace( '.', '/' ) + '/' + artifactId + '/' + version + '/'
+            + artifactId + '-' + version + '.' + type ) );
+        return artifact;
+    }
+
+    /**
+     * Creates the Maven project of a module.
+     *
+     * @param dependencies the number of SWC libraries.
+     * @return
+     */
+    public static MavenProject createProject( final int dependencies )
+    {
+        final Model model = new Model();
+        model.setGroupId( "com.example" );
+        model.setArtifactId( "application" );
+        model.setVersion( "1.0-SNAPSHOT" );
+        model.setPackaging( "swf" );
+        model.setBuild( new Build() );
+        model.getBuild().setDirectory( new File( REPOSITORY, "application/target" ).getAbsolutePath() );
+
+        final MavenProject project = new MavenProject( model );
+        project.setFile( new File( REPOSITORY, "application/pom.xml" ) );
+        project.setArtifacts( createArtifacts( dependencies ) );
+        return project;
+    }
+
+    /**
+     * Creates the session building a module, without container.
+     *
+     * @param project
+     * @return
+     */
+    public static MavenSession createSession( final MavenProject project )
+    {
+        return new MavenSession( null, new DefaultMavenExecutionRequest(), new DefaultMavenExecutionResult(), project );
+    }
+
+    /**
+     * Creates an execution of the Maven Flex Plug-in configured with a number of parameters: a quarter are constants,
+     * the others are expressions on the project, some of them shared by several parameters, and every fifth parameter
+     * is only given a default value.
+     *
+     * @param goal
+     * @param parameters the number of configured parameters, named <tt>parameter0</tt>, <tt>parameter1</tt>, ...
+     * @return
+     */
+    public static MojoExecution createExecution( final String goal, final int parameters )
+    {
+        final Xpp3Dom configuration = new Xpp3Dom( "configuration" );
+        for ( int i = 0; i < parameters; i++ )
+        {
+            final Xpp3Dom parameter = new Xpp3Dom( "parameter" + i );
+            if ( i % 5 == 4 )
+                parameter.setAttribute( "default-value", "${project.build.directory}/default" + i );
+            else if ( i % 4 == 0 )
+                parameter.setValue( "value" + i );
+            else if ( i % 4 == 1 )
+                parameter.setValue( "${project.build.directory}" );
+            else
+                parameter.setValue( "${basedir}/src/main/flex/parameter" + i );
+            configuration.addChild( parameter );
+        }
+
+        final Plugin plugin = new Plugin();
+        plugin.setGroupId( "net.flexmojos.oss" );
+        plugin.setArtifactId( "flexmojos-maven-plugin" );
+        plugin.setVersion( "6.0.1" );
+        plugin.setConfiguration( configuration );
+
+        final MojoExecution mojoExecution = new MojoExecution( plugin, goal, "default-" + goal );
+        mojoExecution.setConfiguration( configuration );
+        return mojoExecution;
+    }
+
+    /**
+     * Creates the context of the configuration of a module executing the compile, generate and sign-air goals, each
+     * configured with the parameters read by its adapter and a number of other parameters.
+     *
+     * @param project
+     * @param parameters the number of other parameters of each execution.
+     * @return the context seeded with the session, the project and the executions of the plug-in.
+     */
+    public static ConfigurationContext createContext( final MavenProject project, final int parameters )
+    {
+        final MojoExecution compiler = createExecution( "compile-swf", parameters );
+        configure( compiler, "targetPlayer", "11.1" );
+        configure( compiler, "outputDirectory", "${project.build.directory}" );
+
+        final MojoExecution generator = createExecution( "generate", parameters );
+        configure( generator, "outputDirectory", "${project.build.directory}/generated-sources/flexmojos" );
+        configure( generator, "baseOutputDirectory", "${project.build.directory}/generated-sources/base" );
+
+        final MojoExecution signAir = createExecution( "sign-air", parameters );
+        configure( signAir, "keystore", "${basedir}/src/main/resources/sign.p12" );
+
+        return new ConfigurationContext().seed( MavenSession.class, createSession( project ) )
+                                         .seed( MavenProject.class, project )
+                                         .seed( MojoExecutions.class,
+                                                new MojoExecutions( Arrays.asList( compiler, generator, signAir ) ) );
+    }
+
+    private static void configure( final MojoExecution mojoExecution, final String name, final String value )
+    {
+        final Xpp3Dom parameter = new Xpp3Dom( name );
+        parameter.setValue( value );
+        mojoExecution.getConfiguration().addChild( parameter );
+    }
+}
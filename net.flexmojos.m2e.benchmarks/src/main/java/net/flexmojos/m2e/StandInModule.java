@@ -0,0 +1,120 @@
+package net.flexmojos.m2e;
+
+import java.lang.annotation.Annotation;
+import java.util.List;
+
+import net.flexmojos.m2e.flex.FlexSDKRegistry;
+import net.flexmojos.m2e.flex.SwcCatalogIndex;
+import net.flexmojos.m2e.maven.ArtifactIndex;
+import net.flexmojos.m2e.maven.ICompilerMojo;
+import net.flexmojos.m2e.maven.IGeneratorMojo;
+import net.flexmojos.m2e.maven.ISignAirMojo;
+import net.flexmojos.m2e.maven.internal.EvaluationCache;
+import net.flexmojos.m2e.maven.internal.MojoExecutions;
+import net.flexmojos.m2e.maven.internal.fm6.CompilerMojo;
+import net.flexmojos.m2e.maven.internal.fm6.GeneratorMojo;
+import net.flexmojos.m2e.maven.internal.fm6.SignAirMojo;
+import net.flexmojos.m2e.maven.internal.fm6.adapters.Flexmojos6CompilerMojo;
+import net.flexmojos.m2e.maven.internal.fm6.adapters.Flexmojos6GeneratorMojo;
+import net.flexmojos.m2e.maven.internal.fm6.adapters.Flexmojos6SignAirMojo;
+import net.flexmojos.m2e.project.ConfigurationContext;
+import net.flexmojos.m2e.project.ConfigurationMetrics;
+import net.flexmojos.m2e.project.ConfigurationScope;
+import net.flexmojos.m2e.project.ConfigurationScoped;
+
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.project.MavenProject;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Provider;
+import com.google.inject.Provides;
+import com.google.inject.Singleton;
+import com.google.inject.TypeLiteral;
+
+/**
+ * Configuration graph of FlashBuilderAbstractModule, MavenFlexModule and Flexmojos6Module, without Flash Builder nor
+ * m2e: the Maven project and the executions of the plug-in, which m2e gives through the IMavenProjectFacade, are
+ * seeded in the {@link ConfigurationContext} with the Maven session.
+ *
+ * @author Sylvain Lecoy (sylvain.lecoy@gmail.com)
+ */
+public class StandInModule
+    extends AbstractModule
+{
+    @Override
+    protected void configure()
+    {
+        // Workspace wide services.
+        bind( ConfigurationMetrics.class ).in( Singleton.class );
+        bind( SwcCatalogIndex.class ).in( Singleton.class );
+        bind( FlexSDKRegistry.class ).in( Singleton.class );
+
+        // Values of the configuration request.
+        bindScope( ConfigurationScoped.class, new ConfigurationScope() );
+        bindSeeded( MavenSession.class );
+        bindSeeded( MavenProject.class );
+        bindSeeded( MojoExecutions.class );
+        bindSeeded( ConfigurationContext.class );
+
+        bind( EvaluationCache.class ).in( ConfigurationScoped.class );
+
+        bindMojoExecution( ISignAirMojo.class, Flexmojos6SignAirMojo.class, SignAirMojo.class, "sign-air" );
+        bindMojoExecution( IGeneratorMojo.class, Flexmojos6GeneratorMojo.class, GeneratorMojo.class, "generate" );
+        bindMojoExecution( ICompilerMojo.class, Flexmojos6CompilerMojo.class, CompilerMojo.class, "compile-swc",
+                           "compile-swf" );
+    }
+
+    private <T> void bindSeeded( final Class<T> type )
+    {
+        bind( type ).toProvider( ConfigurationScope.seeded( type ) ).in( ConfigurationScoped.class );
+    }
+
+    @Provides @ConfigurationScoped
+    ArtifactIndex getArtifactIndex( final MavenProject project )
+    {
+        return new ArtifactIndex( project.getArtifacts() );
+    }
+
+    /**
+     * Same bindings as MavenFlexModule.bindMojoExecution: the adapter is built when it is requested, and is
+     * <tt>null</tt> when the project does not execute the goals.
+     */
+    private <T> void bindMojoExecution( final Class<T> clazz, final Class<? extends T> implementation,
+                                        final Class<? extends Annotation> annotation, final String... goals )
+    {
+        final Provider<MojoExecutions> executions = getProvider( MojoExecutions.class );
+        final Provider<? extends T> adapter = getProvider( implementation );
+
+        bind( new TypeLiteral<List<MojoExecution>>() {} )
+            .annotatedWith( annotation )
+            .toProvider( new Provider<List<MojoExecution>>()
+            {
+                @Override
+                public List<MojoExecution> get()
+                {
+                    return executions.get().get( goals );
+                }
+            } );
+        bind( MojoExecution.class )
+            .annotatedWith( annotation )
+            .toProvider( new Provider<MojoExecution>()
+            {
+                @Override
+                public MojoExecution get()
+                {
+                    final List<MojoExecution> goalsExecutions = executions.get().get( goals );
+                    return goalsExecutions.isEmpty() ? null : goalsExecutions.get( 0 );
+                }
+            } );
+        bind( clazz )
+            .toProvider( new Provider<T>()
+            {
+                @Override
+                public T get()
+                {
+                    return executions.get().get( goals ).isEmpty() ? null : adapter.get();
+                }
+            } );
+    }
+}
@@ -0,0 +1,71 @@
+package net.flexmojos.m2e.flex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Building of the additional compiler arguments of a project, as ActionScriptProjectConfigurator does: the source
+ * path, the compiled locales and the compiler options set in the pom.
+ *
+ * @author Sylvain Lecoy (sylvain.lecoy@gmail.com)
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class FlexCompilerArgumentsBenchmark
+{
+    /**
+     * Number of source path elements and of compiled locales.
+     */
+    @Param( { "1", "10", "50" } )
+    private int elements;
+
+    private List<String> sourcePath;
+
+    private List<String> locales;
+
+    private CompilerOptions options;
+
+    @Setup
+    public void setUp()
+    {
+        sourcePath = new ArrayList<String>();
+        locales = new ArrayList<String>();
+        for ( int i = 0; i < elements; i++ )
+        {
+            sourcePath.add( "/workspace/application/src/main/locales/{locale}/bundle" + i );
+            locales.add( "locale" + i );
+        }
+
+        options = new CompilerOptions();
+        options.setIncremental( Boolean.TRUE );
+        options.setOptimize( Boolean.FALSE );
+        options.setOmitTraceStatements( Boolean.FALSE );
+    }
+
+    @Benchmark
+    public String toArguments()
+    {
+        final FlexCompilerArguments arguments = new FlexCompilerArguments();
+        arguments.setSourcePath( sourcePath );
+        arguments.setLocalesCompiled( locales );
+        arguments.setCompilerOptions( options );
+        return arguments.toString();
+    }
+}
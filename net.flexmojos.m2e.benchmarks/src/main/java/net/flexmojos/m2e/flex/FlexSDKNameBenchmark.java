@@ -0,0 +1,55 @@
+package net.flexmojos.m2e.flex;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Naming of the SDK of a framework version: parsed by {@link FlexFrameworkHelper} on every call, or answered by the
+ * {@link FlexSDKRegistry} which resolves each version once. No SDK is installed, so the registry falls back to the
+ * helper.
+ *
+ * @author Sylvain Lecoy (sylvain.lecoy@gmail.com)
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class FlexSDKNameBenchmark
+{
+    @Param( { "4.6.b.23201", "4.10.0.20130801", "3.6.0.16995" } )
+    private String flexVersion;
+
+    private FlexSDKRegistry registry;
+
+    @Setup
+    public void setUp()
+    {
+        registry = new FlexSDKRegistry();
+        registry.getFlexSDKName( flexVersion );
+    }
+
+    @Benchmark
+    public String getFlexSDKName()
+    {
+        return FlexFrameworkHelper.getFlexSDKName( flexVersion );
+    }
+
+    @Benchmark
+    public String getRegisteredFlexSDKName()
+    {
+        return registry.getFlexSDKName( flexVersion );
+    }
+}
@@ -0,0 +1,147 @@
+package net.flexmojos.m2e.flex;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Reading of the SWC archives of a project by the {@link SwcCatalogIndex}, emptied before each operation: in parallel
+ * on the workers of the index, as {@link FlexLinkage} does before linking the libraries, or one archive after the
+ * other on the calling thread.
+ *
+ * The archives are written in a temporary directory, each with a catalog of a hundred definitions and components and a
+ * library.swf of 64 KB.
+ *
+ * @author Sylvain Lecoy (sylvain.lecoy@gmail.com)
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class SwcCatalogIndexBenchmark
+{
+    private static final int DEFINITIONS = 100;
+
+    private static final int LIBRARY_SIZE = 64 * 1024;
+
+    @Param( { "30", "300" } )
+    private int swcs;
+
+    private File directory;
+
+    private List<File> archives;
+
+    private SwcCatalogIndex index;
+
+    @Setup
+    public void setUp()
+        throws IOException
+    {
+        directory = File.createTempFile( "swcs", "" );
+        if ( !directory.delete() || !directory.mkdir() )
+            throw new IOException( "Could not create " + directory );
+
+        final Random random = new Random( 0 );
+        archives = new ArrayList<File>( swcs );
+        for ( int i = 0; i < swcs; i++ )
+        {
+            archives.add( writeArchive( new File( directory, "library" + i + ".swc" ), i, random ) );
+        }
+
+        index = new SwcCatalogIndex();
+    }
+
+    private static File writeArchive( final File file, final int number, final Random random )
+        throws IOException
+    {
+        final StringBuilder catalog = new StringBuilder( "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<swc>\n" );
+        catalog.append( "  <components>\n" );
+        for ( int i = 0; i < DEFINITIONS; i++ )
+        {
+            catalog.append( "    <component className=\"library" ).append( number ).append( ":Component" ).append( i );
+            catalog.append( "\" name=\"Component" ).append( i ).append( "\" uri=\"http://library" ).append( number );
+            catalog.append( ".example.com\"/>\n" );
+        }
+        catalog.append( "  </components>\n  <libraries>\n    <library path=\"library.swf\">\n" );
+        for ( int i = 0; i < DEFINITIONS; i++ )
+        {
+            catalog.append( "      <script name=\"library" ).append( number ).append( "/Component" ).append( i );
+            catalog.append( "\">\n        <def id=\"library" ).append( number ).append( ":Component" ).append( i );
+            catalog.append( "\"/>\n      </script>\n" );
+        }
+        catalog.append( "      <digests>\n        <digest type=\"SHA-256\" signed=\"false\" value=\"" );
+        catalog.append( Integer.toHexString( number ) ).append( "\"/>\n      </digests>\n" );
+        catalog.append( "    </library>\n  </libraries>\n</swc>\n" );
+
+        final byte[] library = new byte[LIBRARY_SIZE];
+        random.nextBytes( library );
+
+        final ZipOutputStream zip = new ZipOutputStream( new FileOutputStream( file ) );
+        try
+        {
+            zip.putNextEntry( new ZipEntry( "catalog.xml" ) );
+            zip.write( catalog.toString().getBytes( "UTF-8" ) );
+            zip.closeEntry();
+            zip.putNextEntry( new ZipEntry( "library.swf" ) );
+            zip.write( library );
+            zip.closeEntry();
+        }
+        finally
+        {
+            zip.close();
+        }
+        return file;
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        index.dispose();
+        for ( final File archive : archives )
+        {
+            archive.delete();
+        }
+        directory.delete();
+    }
+
+    @Benchmark
+    public boolean loadInParallel()
+    {
+        index.clear();
+        index.load( archives );
+        return index.hasLibrary( archives.get( 0 ) );
+    }
+
+    @Benchmark
+    public boolean loadSequentially()
+    {
+        index.clear();
+        boolean libraries = true;
+        for ( final File archive : archives )
+        {
+            libraries &= index.hasLibrary( archive );
+        }
+        return libraries;
+    }
+}
@@ -0,0 +1,64 @@
+package net.flexmojos.m2e.maven;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import net.flexmojos.m2e.Reactor;
+
+import org.apache.maven.artifact.Artifact;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Classification of the resolved artifacts of a project.
+ *
+ * Flexmojos6Plugin.getDependencies answers the libraries of the index of the project, which m2e and Flash Builder
+ * are not needed to measure: the first benchmark indexes the artifacts and gets the libraries, as a project
+ * configuration does once, the second one only gets the libraries of an existing index.
+ *
+ * @author Sylvain Lecoy (sylvain.lecoy@gmail.com)
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class ArtifactIndexBenchmark
+{
+    @Param( { "10", "100", "300", "2000" } )
+    private int dependencies;
+
+    private Set<Artifact> artifacts;
+
+    private ArtifactIndex index;
+
+    @Setup
+    public void setUp()
+    {
+        artifacts = Reactor.createArtifacts( dependencies );
+        index = new ArtifactIndex( artifacts );
+    }
+
+    @Benchmark
+    public Map<String, Artifact> getDependencies()
+    {
+        return new ArtifactIndex( artifacts ).getLibraries();
+    }
+
+    @Benchmark
+    public Map<String, Artifact> getIndexedDependencies()
+    {
+        return index.getLibraries();
+    }
+}
@@ -0,0 +1,85 @@
+package net.flexmojos.m2e.maven.internal;
+
+import java.util.concurrent.TimeUnit;
+
+import net.flexmojos.m2e.Reactor;
+
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.MojoExecution;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Evaluation of the parameters of a mojo execution through {@link Configuration}, with the Maven expression evaluator.
+ *
+ * The first benchmark is a configuration pass of a project, with a new cache and configuration as every project
+ * update gets, the second one the values read again from the memo of the configuration.
+ *
+ * @author Sylvain Lecoy (sylvain.lecoy@gmail.com)
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class ConfigurationBenchmark
+{
+    @Param( { "10", "50", "200" } )
+    private int parameters;
+
+    private MavenSession session;
+
+    private MojoExecution mojoExecution;
+
+    private String[] names;
+
+    private Configuration memoized;
+
+    @Setup
+    public void setUp()
+    {
+        session = Reactor.createSession( Reactor.createProject( 0 ) );
+        mojoExecution = Reactor.createExecution( "compile-swf", parameters );
+        names = new String[parameters];
+        for ( int i = 0; i < parameters; i++ )
+        {
+            names[i] = "parameter" + i;
+        }
+
+        memoized = new Configuration( new EvaluationCache( session ), mojoExecution );
+        evaluate( memoized, null );
+    }
+
+    @Benchmark
+    public void evaluate( final Blackhole blackhole )
+    {
+        evaluate( new Configuration( new EvaluationCache( session ), mojoExecution ), blackhole );
+    }
+
+    @Benchmark
+    public void evaluateMemoized( final Blackhole blackhole )
+    {
+        evaluate( memoized, blackhole );
+    }
+
+    private void evaluate( final Configuration configuration, final Blackhole blackhole )
+    {
+        for ( final String name : names )
+        {
+            final String value = configuration.evaluate( name );
+            if ( blackhole != null )
+                blackhole.consume( value );
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package net.flexmojos.m2e;
+
+import static net.flexmojos.oss.plugin.common.FlexExtension.AIR;
+import static net.flexmojos.oss.plugin.common.FlexExtension.SWC;
+import static net.flexmojos.oss.plugin.common.FlexExtension.SWF;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import net.flexmojos.m2e.flex.FlexSDKRegistry;
+import net.flexmojos.m2e.flex.SwcCatalogIndex;
+import net.flexmojos.m2e.maven.ArtifactIndex;
+import net.flexmojos.m2e.maven.internal.headless.PomFlexPlugin;
+import net.flexmojos.m2e.maven.internal.headless.PomReader;
+import net.flexmojos.m2e.project.internal.headless.HeadlessProjectConfigurator;
+
+import org.apache.maven.model.Model;
+
+/**
+ * Configures the Flex modules of a reactor from the command line, without Eclipse nor Flash Builder:
+ *
+ * <pre>
+ * java net.flexmojos.m2e.HeadlessRunner &lt;reactor root&gt; [local repository]
+ * </pre>
+ *
+ * Every directory below the root holding a pom.xml is a module, "target" and hidden directories excepted. The modules
+ * with a SWF, SWC or AIR packaging are configured in parallel, one thread per processor, and their descriptors are
+ * written next to their pom. The dependencies have to be in the local repository, which defaults to the one of
+ * Maven, so the runner is meant to be called after a Maven build. The SDKs are looked up from the
+ * {@link FlexSDKRegistry#SDKS_PROPERTY} system property.
+ *
+ * The runner is built by the net.flexmojos.m2e.headless module, from the classes of the bundle which depend neither on
+ * Flash Builder nor on the platform: its jar and its Maven dependencies have to be on the class path.
+ *
+ * @author Sylvain Lecoy (sylvain.lecoy@gmail.com)
+ */
+public class HeadlessRunner
+{
+    private final PomReader reader;
+
+    private final FlexSDKRegistry sdks = new FlexSDKRegistry();
+
+    private final SwcCatalogIndex catalogs = new SwcCatalogIndex();
+
+    public HeadlessRunner( final File localRepository )
+    {
+        this.reader = new PomReader( localRepository );
+    }
+
+    public static void main( final String[] args )
+        throws InterruptedException
+    {
+        if ( args.length < 1 || args.length > 2 )
+        {
+            System.err.println( "Usage: HeadlessRunner <reactor root> [local repository]" );
+            System.exit( 2 );
+        }
+
+        final File localRepository =
+            args.length > 1 ? new File( args[1] ) : new File( System.getProperty( "maven.repo.local",
+                                                                                  System.getProperty( "user.home" )
+                                                                                      + "/.m2/repository" ) );
+
+        final int failures = new HeadlessRunner( localRepository ).configure( new File( args[0] ) );
+        System.exit( failures == 0 ? 0 : 1 );
+    }
+
+    /**
+     * Configures every module below a reactor root, and reports the outcome of each one on the standard output.
+     *
+     * @param root
+     * @return the number of modules which could not be configured.
+     * @throws InterruptedException
+     */
+    public int configure( final File root )
+        throws InterruptedException
+    {
+        final List<File> modules = new ArrayList<File>();
+        collect( root.getAbsoluteFile(), modules );
+
+        final ExecutorService executor = Executors.newFixedThreadPool( Runtime.getRuntime().availableProcessors() );
+        try
+        {
+            final List<Future<String>> results = new ArrayList<Future<String>>( modules.size() );
+            for ( final File module : modules )
+            {
+                results.add( executor.submit( new Callable<String>()
+                {
+                    @Override
+                    public String call()
+                    {
+                        return configureModule( module );
+                    }
+                } ) );
+            }
+
+            int failures = 0;
+            for ( int i = 0; i < modules.size(); i++ )
+            {
+                String outcome;
+                try
+                {
+                    outcome = results.get( i ).get();
+                }
+                catch ( final ExecutionException e )
+                {
+                    outcome = "failed: " + e.getCause();
+                    failures++;
+                }
+                System.out.println( modules.get( i ) + ": " + outcome );
+            }
+            return failures;
+        }
+        finally
+        {
+            executor.shutdownNow();
+            catalogs.dispose();
+        }
+    }
+
+    /**
+     * Configures a module.
+     *
+     * @param module the directory of the module.
+     * @return the outcome of the configuration.
+     */
+    protected String configureModule( final File module )
+    {
+        final Model model = reader.read( new File( module, "pom.xml" ) );
+        final String packaging = model.getPackaging();
+        if ( !SWF.equals( packaging ) && !SWC.equals( packaging ) && !AIR.equals( packaging ) )
+            return "skipped";
+
+        final ArtifactIndex artifacts = new ArtifactIndex( reader.resolve( model ) );
+        final PomFlexPlugin plugin = new PomFlexPlugin( module, model, artifacts );
+        final HeadlessProjectConfigurator configurator =
+            new HeadlessProjectConfigurator( plugin, module, model.getArtifactId(), packaging, artifacts, sdks,
+                                             catalogs );
+        return configurator.configure() ? "configured" : "up to date";
+    }
+
+    private static void collect( final File directory, final List<File> modules )
+    {
+        if ( new File( directory, "pom.xml" ).isFile() )
+            modules.add( directory );
+
+        final File[] children = directory.listFiles();
+        if ( children == null )
+            return;
+
+        for ( final File child : children )
+        {
+            if ( child.isDirectory() && !child.getName().startsWith( "." ) && !"target".equals( child.getName() ) )
+                collect( child, modules );
+        }
+    }
+}
@@ -0,0 +1,386 @@
+package net.flexmojos.m2e.maven.internal.headless;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import net.flexmojos.m2e.flex.CompilerOptions;
+import net.flexmojos.m2e.maven.ArtifactIndex;
+import net.flexmojos.m2e.maven.IMavenFlexPlugin;
+import net.flexmojos.m2e.maven.internal.Fingerprint;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.PluginExecution;
+import org.apache.maven.model.Resource;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+
+/**
+ * Implementation of the Maven Flex Plug-in reading the configuration of Flexmojos from the effective model of a pom,
+ * without Maven session nor workspace.
+ *
+ * The configuration of the plug-in is merged into the one of each execution, as Maven does before executing a mojo. A
+ * parameter which is not configured takes the value the descriptor of the goal gives it, as in the Eclipse
+ * implementation: its <tt>flex.</tt> property for the parameters backed by one, or its default value. Unlike the
+ * Eclipse implementation, the output folder is not discovered from the other modules of the reactor, and the
+ * name-spaces without manifest are left out.
+ *
+ * @author Sylvain Lecoy (sylvain.lecoy@gmail.com)
+ */
+public class PomFlexPlugin implements IMavenFlexPlugin
+{
+    private static final String[] PLUGIN_KEYS = { "net.flexmojos.oss:flexmojos-maven-plugin",
+        "org.sonatype.flexmojos:flexmojos-maven-plugin" };
+
+    /**
+     * Parameters of the compile goals read by the configurators and backed by a <tt>flex.</tt> property.
+     */
+    private static final Set<String> PROPERTY_PARAMETERS =
+        new HashSet<String>( Arrays.asList( "contextRoot", "sourceFile", "incremental", "optimize", "debug",
+                                            "omitTraceStatements", "staticLinkRuntimeSharedLibraries",
+                                            "keepGeneratedActionscript" ) );
+
+    private final File basedir;
+
+    private final Model model;
+
+    private final ArtifactIndex artifacts;
+
+    /**
+     * Configurations of the compile executions, the default one first.
+     */
+    private final List<Xpp3Dom> compilers = new ArrayList<Xpp3Dom>();
+
+    private Xpp3Dom generator;
+
+    private Xpp3Dom signAir;
+
+    public PomFlexPlugin( final File basedir, final Model model, final ArtifactIndex artifacts )
+    {
+        this.basedir = basedir;
+        this.model = model;
+        this.artifacts = artifacts;
+
+        final Map<String, Plugin> plugins = model.getBuild().getPluginsAsMap();
+        Plugin plugin = null;
+        for ( int i = 0; plugin == null && i < PLUGIN_KEYS.length; i++ )
+        {
+            plugin = plugins.get( PLUGIN_KEYS[i] );
+        }
+        if ( plugin == null )
+        {
+            throw new RuntimeException( "Maven Flex Plug-in not found in project build artifacts." );
+        }
+
+        // The packaging binds the compile goal to a default execution, configured at the plug-in level.
+        final Xpp3Dom configuration = (Xpp3Dom) plugin.getConfiguration();
+        compilers.add( configuration );
+        for ( final PluginExecution execution : plugin.getExecutions() )
+        {
+            final Xpp3Dom merged = merge( (Xpp3Dom) execution.getConfiguration(), configuration );
+            final List<String> goals = execution.getGoals();
+            if ( goals.contains( "compile-swf" ) || goals.contains( "compile-swc" ) )
+            {
+                if ( execution.getId().startsWith( "default-" ) )
+                    compilers.set( 0, merged );
+                else
+                    compilers.add( merged );
+            }
+            if ( goals.contains( "generate" ) )
+                generator = merged;
+            if ( goals.contains( "sign-air" ) )
+                signAir = merged;
+        }
+    }
+
+    private static Xpp3Dom merge( final Xpp3Dom dominant, final Xpp3Dom recessive )
+    {
+        if ( dominant == null )
+            return recessive;
+
+        return Xpp3Dom.mergeXpp3Dom( new Xpp3Dom( dominant ), recessive );
+    }
+
+    /**
+     * Gets the value of a parameter.
+     *
+     * @return the trimmed value, or <tt>null</tt> if the parameter is not configured.
+     */
+    private static String getValue( final Xpp3Dom configuration, final String name )
+    {
+        final Xpp3Dom child = configuration == null ? null : configuration.getChild( name );
+        final String value = child == null ? null : child.getValue();
+        return value == null || value.trim().length() == 0 ? null : value.trim();
+    }
+
+    /**
+     * Gets the value of a parameter of a compile goal, from its <tt>flex.</tt> property when it is not configured and
+     * backed by one. A system property overrides the one of the pom, as on the command line of Maven.
+     *
+     * @return the trimmed value, or <tt>null</tt> if the parameter is neither configured nor set by its property.
+     */
+    private String getCompilerValue( final Xpp3Dom compiler, final String name )
+    {
+        final String value = getValue( compiler, name );
+        if ( value != null || !PROPERTY_PARAMETERS.contains( name ) )
+            return value;
+
+        final String property =
+            System.getProperty( "flex." + name, model.getProperties().getProperty( "flex." + name ) );
+        return property == null || property.trim().length() == 0 ? null : property.trim();
+    }
+
+    private Boolean getBoolean( final Xpp3Dom compiler, final String name )
+    {
+        final String value = getCompilerValue( compiler, name );
+        return value == null ? null : Boolean.valueOf( value );
+    }
+
+    /**
+     * Gets a path relative to the project, or absolute when it is outside of the project.
+     */
+    private IPath getProjectRelativePath( final String path )
+    {
+        if ( path == null )
+            return null;
+
+        final IPath location = new Path( new File( path ).isAbsolute() ? path : new File( basedir, path ).getPath() );
+        final IPath base = new Path( basedir.getAbsolutePath() );
+        return base.isPrefixOf( location ) ? location.removeFirstSegments( base.segmentCount() ).setDevice( null )
+                        : location;
+    }
+
+    private Build getBuild()
+    {
+        return model.getBuild();
+    }
+
+    @Override
+    public IPath getMainSourceFolder()
+    {
+        return getProjectRelativePath( getBuild().getSourceDirectory() );
+    }
+
+    @Override
+    public Artifact getFlexFramework()
+    {
+        final Artifact flexFramework = artifacts.getFlexFramework();
+        if ( flexFramework != null )
+            return flexFramework;
+
+        throw new RuntimeException( "Flex Framework not found in project's artifacts." );
+    }
+
+    @Override
+    public IPath[] getSourcePath()
+    {
+        final List<IPath> classPath = new ArrayList<IPath>();
+        for ( final Resource resource : getBuild().getResources() )
+        {
+            classPath.add( getProjectRelativePath( resource.getDirectory() ) );
+        }
+
+        final String testSources = model.getProperties().getProperty( TEST_SOURCES_PROPERTY );
+        if ( !"separate".equals( testSources ) && new File( getBuild().getTestSourceDirectory() ).exists() )
+        {
+            classPath.add( getProjectRelativePath( getBuild().getTestSourceDirectory() ) );
+        }
+
+        if ( generator != null )
+        {
+            // Same defaults as the "generate" goal.
+            final String outputDirectory = getValue( generator, "outputDirectory" );
+            final String baseOutputDirectory = getValue( generator, "baseOutputDirectory" );
+            classPath.add( getProjectRelativePath( outputDirectory != null ? outputDirectory
+                            : getBuild().getDirectory() + "/generated-sources/flexmojos" ) );
+            classPath.add( getProjectRelativePath( baseOutputDirectory != null ? baseOutputDirectory
+                            : getBuild().getSourceDirectory() ) );
+        }
+
+        return classPath.toArray( new IPath[classPath.size()] );
+    }
+
+    @Override
+    public IPath[] getApplicationPaths()
+    {
+        final Set<IPath> applicationPaths = new LinkedHashSet<IPath>();
+        for ( final Xpp3Dom compiler : compilers )
+        {
+            final String sourceFile = getCompilerValue( compiler, "sourceFile" );
+            if ( sourceFile != null )
+                applicationPaths.add( new Path( sourceFile ) );
+        }
+        return applicationPaths.toArray( new IPath[applicationPaths.size()] );
+    }
+
+    @Override
+    public IPath getCertificatePath()
+    {
+        return getProjectRelativePath( getValue( signAir, "keystore" ) );
+    }
+
+    @Override
+    public Map<String, Artifact> getDependencies()
+    {
+        return artifacts.getLibraries();
+    }
+
+    @Override
+    public IPath getLocalesSourcePath()
+    {
+        final IPath path = getProjectRelativePath( getValue( compilers.get( 0 ), "localesSourcePath" ) );
+        if ( path == null )
+            return null;
+
+        // Checks the base path (without the placeholder {locale}) exists.
+        final IPath base = path.removeLastSegments( 1 );
+        return ( base.isAbsolute() ? base.toFile() : new File( basedir, base.toString() ) ).exists() ? path : null;
+    }
+
+    /**
+     * Gets the values of a list parameter.
+     *
+     * @return the trimmed values, or an empty array if the parameter is not configured.
+     */
+    private static String[] getValues( final Xpp3Dom configuration, final String name )
+    {
+        final Xpp3Dom list = configuration == null ? null : configuration.getChild( name );
+        if ( list == null )
+            return new String[0];
+
+        final List<String> values = new ArrayList<String>();
+        for ( final Xpp3Dom value : list.getChildren() )
+        {
+            if ( value.getValue() != null )
+                values.add( value.getValue().trim() );
+        }
+        return values.toArray( new String[values.size()] );
+    }
+
+    @Override
+    public String[] getLocalesCompiled()
+    {
+        return getValues( compilers.get( 0 ), "localesCompiled" );
+    }
+
+    @Override
+    public Map<String, IPath> getXMLNamespaceManifestPath()
+    {
+        final Map<String, IPath> namespaces = new LinkedHashMap<String, IPath>();
+        final Xpp3Dom compiler = compilers.get( 0 );
+        final Xpp3Dom children = compiler == null ? null : compiler.getChild( "namespaces" );
+        if ( children == null )
+            return namespaces;
+
+        for ( final Xpp3Dom namespace : children.getChildren() )
+        {
+            final String uri = getValue( namespace, "uri" );
+            final IPath manifest = getProjectRelativePath( getValue( namespace, "manifest" ) );
+            if ( uri != null && manifest != null )
+                namespaces.put( uri, manifest );
+        }
+        return namespaces;
+    }
+
+    @Override
+    public Map<IPath, String> getGeneratedManifests()
+    {
+        return Collections.emptyMap();
+    }
+
+    @Override
+    public String[] getRslUrls()
+    {
+        return getValues( compilers.get( 0 ), "rslUrls" );
+    }
+
+    @Override
+    public String[] getPolicyFileUrls()
+    {
+        return getValues( compilers.get( 0 ), "policyFileUrls" );
+    }
+
+    @Override
+    public String getContextRoot()
+    {
+        return getCompilerValue( compilers.get( 0 ), "contextRoot" );
+    }
+
+    @Override
+    public String getTargetPlayerVersion()
+    {
+        return getValue( compilers.get( 0 ), "targetPlayer" );
+    }
+
+    @Override
+    public IPath getMainApplicationPath()
+    {
+        final String sourceFile = getCompilerValue( compilers.get( 0 ), "sourceFile" );
+        return sourceFile == null ? null : new Path( sourceFile );
+    }
+
+    @Override
+    public boolean hasOutputFolderPath()
+    {
+        return getValue( compilers.get( 0 ), "outputDirectory" ) != null;
+    }
+
+    @Override
+    public IPath getOutputFolderPath()
+    {
+        final String outputDirectory = getValue( compilers.get( 0 ), "outputDirectory" );
+        return getProjectRelativePath( outputDirectory != null ? outputDirectory : getBuild().getOutputDirectory() );
+    }
+
+    @Override
+    public CompilerOptions getCompilerOptions()
+    {
+        final Xpp3Dom compiler = compilers.get( 0 );
+        final CompilerOptions options = new CompilerOptions();
+        options.setIncremental( getBoolean( compiler, "incremental" ) );
+        options.setOptimize( getBoolean( compiler, "optimize" ) );
+        options.setDebug( getBoolean( compiler, "debug" ) );
+        options.setOmitTraceStatements( getBoolean( compiler, "omitTraceStatements" ) );
+        options.setStaticLinkRuntimeSharedLibraries( getBoolean( compiler, "staticLinkRuntimeSharedLibraries" ) );
+        options.setKeepGeneratedActionscript( getBoolean( compiler, "keepGeneratedActionscript" ) );
+        options.setLinkReport( getBoolean( compiler, "linkReport" ) );
+        return options;
+    }
+
+    @Override
+    public boolean isFastDev()
+    {
+        return CompilerOptions.isFastDev( model.getProperties() );
+    }
+
+    @Override
+    public String getFingerprint()
+    {
+        final Fingerprint fingerprint = new Fingerprint();
+        fingerprint.add( model.getPackaging() );
+        fingerprint.add( isFastDev() );
+        for ( final Artifact artifact : artifacts.getLibraries().values() )
+        {
+            fingerprint.add( artifact.getId() );
+            fingerprint.add( artifact.getScope() );
+        }
+        for ( final Xpp3Dom compiler : compilers )
+        {
+            fingerprint.add( compiler );
+        }
+        fingerprint.add( generator );
+        fingerprint.add( signAir );
+        return fingerprint.toString();
+    }
+}
@@ -0,0 +1,284 @@
+package net.flexmojos.m2e.maven.internal.headless;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.artifact.versioning.VersionRange;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Exclusion;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Parent;
+import org.apache.maven.model.Repository;
+import org.apache.maven.model.building.DefaultModelBuilderFactory;
+import org.apache.maven.model.building.DefaultModelBuildingRequest;
+import org.apache.maven.model.building.FileModelSource;
+import org.apache.maven.model.building.ModelBuilder;
+import org.apache.maven.model.building.ModelBuildingException;
+import org.apache.maven.model.building.ModelBuildingRequest;
+import org.apache.maven.model.building.ModelSource;
+import org.apache.maven.model.resolution.InvalidRepositoryException;
+import org.apache.maven.model.resolution.ModelResolver;
+import org.apache.maven.model.resolution.UnresolvableModelException;
+
+/**
+ * Reads Maven projects without a Maven session, from their pom and a local repository.
+ *
+ * The effective model is built by the model builder of Maven, so inheritance, interpolation and management sections
+ * behave as in a regular build. Dependencies are resolved transitively from the poms found in the local repository,
+ * nearest first: version ranges, remote repositories and profiles activated by the session are not supported, and the
+ * artifacts have to be downloaded by a previous Maven build.
+ *
+ * A reader is safe to share between threads, the poms of the local repository are built once.
+ *
+ * @author Sylvain Lecoy (sylvain.lecoy@gmail.com)
+ */
+public class PomReader
+{
+    private final ModelBuilder builder = new DefaultModelBuilderFactory().newInstance();
+
+    private final File localRepository;
+
+    /**
+     * Effective models of the poms of the local repository, keyed by "groupId:artifactId:version".
+     */
+    private final ConcurrentMap<String, Model> models = new ConcurrentHashMap<String, Model>();
+
+    public PomReader( final File localRepository )
+    {
+        this.localRepository = localRepository;
+    }
+
+    /**
+     * Reads the effective model of a project.
+     *
+     * @param pom
+     * @return
+     */
+    public Model read( final File pom )
+    {
+        try
+        {
+            return build( pom );
+        }
+        catch ( final ModelBuildingException e )
+        {
+            throw new RuntimeException( e );
+        }
+    }
+
+    private Model build( final File pom )
+        throws ModelBuildingException
+    {
+        final ModelBuildingRequest request = new DefaultModelBuildingRequest();
+        request.setPomFile( pom );
+        request.setModelResolver( new LocalModelResolver() );
+        request.setValidationLevel( ModelBuildingRequest.VALIDATION_LEVEL_MINIMAL );
+        // Lifecycle bindings need a Maven runtime, the plug-ins are read as declared.
+        request.setProcessPlugins( false );
+        request.setSystemProperties( System.getProperties() );
+        return builder.build( request ).getEffectiveModel();
+    }
+
+    /**
+     * Gets the model of a pom of the local repository.
+     *
+     * @return the model, or <tt>null</tt> if the pom is not in the local repository.
+     */
+    private Model getModel( final String groupId, final String artifactId, final String version )
+    {
+        final String key = groupId + ":" + artifactId + ":" + version;
+        Model model = models.get( key );
+        if ( model == null )
+        {
+            final File pom = getFile( groupId, artifactId, version, "pom", null );
+            if ( !pom.isFile() )
+                return null;
+
+            try
+            {
+                model = build( pom );
+            }
+            catch ( final ModelBuildingException e )
+            {
+                // Same as a missing pom, the artifact is kept without its dependencies.
+                return null;
+            }
+            models.putIfAbsent( key, model );
+        }
+        return model;
+    }
+
+    /**
+     * Resolves the dependencies of a project, the direct ones first and the transitive ones breadth first.
+     *
+     * @param model
+     * @return the artifacts, with their file in the local repository.
+     */
+    public List<Artifact> resolve( final Model model )
+    {
+        final Map<String, Artifact> artifacts = new LinkedHashMap<String, Artifact>();
+        final LinkedList<Node> queue = new LinkedList<Node>();
+        for ( final Dependency dependency : model.getDependencies() )
+        {
+            queue.add( new Node( dependency, dependency.getScope(), Collections.<String> emptySet() ) );
+        }
+
+        final Set<String> visited = new HashSet<String>();
+        while ( !queue.isEmpty() )
+        {
+            final Node node = queue.removeFirst();
+            final Dependency dependency = node.dependency;
+            final String version = dependency.getVersion();
+            // The nearest declaration wins, as with Maven.
+            if ( !visited.add( dependency.getManagementKey() ) || version == null || version.startsWith( "[" )
+                || version.startsWith( "(" ) )
+                continue;
+
+            // Like Maven, keeps the pom dependencies such as the Flex framework, which the index recognizes.
+            final String scope = node.scope == null ? Artifact.SCOPE_COMPILE : node.scope;
+            final String type = dependency.getType();
+            final Artifact artifact =
+                new DefaultArtifact( dependency.getGroupId(), dependency.getArtifactId(),
+                                     VersionRange.createFromVersion( version ), scope, type,
+                                     dependency.getClassifier(), new DefaultArtifactHandler( type ) );
+            artifact.setFile( getFile( dependency.getGroupId(), dependency.getArtifactId(), version, type,
+                                       dependency.getClassifier() ) );
+            artifacts.put( dependency.getManagementKey(), artifact );
+
+            final Model dependencyModel = getModel( dependency.getGroupId(), dependency.getArtifactId(), version );
+            if ( dependencyModel == null )
+                continue;
+
+            final Set<String> exclusions = new HashSet<String>( node.exclusions );
+            for ( final Exclusion exclusion : dependency.getExclusions() )
+            {
+                exclusions.add( exclusion.getGroupId() + ":" + exclusion.getArtifactId() );
+            }
+
+            for ( final Dependency transitive : dependencyModel.getDependencies() )
+            {
+                final String key = transitive.getGroupId() + ":" + transitive.getArtifactId();
+                if ( transitive.isOptional() || exclusions.contains( key )
+                    || Artifact.SCOPE_TEST.equals( transitive.getScope() )
+                    || Artifact.SCOPE_PROVIDED.equals( transitive.getScope() )
+                    || Artifact.SCOPE_SYSTEM.equals( transitive.getScope() ) )
+                    continue;
+
+                queue.add( new Node( transitive, getTransitiveScope( scope, transitive.getScope() ), exclusions ) );
+            }
+        }
+        return new ArrayList<Artifact>( artifacts.values() );
+    }
+
+    /**
+     * Gets the scope of a transitive dependency. The Flex scopes, such as the ones declared by the framework poms, are
+     * kept as declared, unless the dependency is only used by the tests.
+     */
+    private static String getTransitiveScope( final String scope, final String transitiveScope )
+    {
+        if ( Artifact.SCOPE_TEST.equals( scope ) )
+            return Artifact.SCOPE_TEST;
+        if ( transitiveScope == null || Artifact.SCOPE_COMPILE.equals( transitiveScope ) )
+            return scope;
+        return transitiveScope;
+    }
+
+    /**
+     * Gets the file of an artifact in the local repository.
+     */
+    public File getFile( final String groupId, final String artifactId, final String version, final String type,
+                         final String classifier )
+    {
+        final StringBuilder path = new StringBuilder( groupId.replace( '.', '/' ) );
+        path.append( '/' ).append( artifactId ).append( '/' ).append( version ).append( '/' );
+        path.append( artifactId ).append( '-' ).append( version );
+        if ( classifier != null && classifier.length() > 0 )
+            path.append( '-' ).append( classifier );
+        path.append( '.' ).append( type );
+        return new File( localRepository, path.toString() );
+    }
+
+    /**
+     * A dependency to resolve, with the scope and the exclusions inherited from the path leading to it.
+     */
+    private static class Node
+    {
+        private final Dependency dependency;
+
+        private final String scope;
+
+        private final Set<String> exclusions;
+
+        Node( final Dependency dependency, final String scope, final Set<String> exclusions )
+        {
+            this.dependency = dependency;
+            this.scope = scope;
+            this.exclusions = exclusions;
+        }
+    }
+
+    /**
+     * Resolves the parents and imported poms from the local repository.
+     */
+    private class LocalModelResolver implements ModelResolver
+    {
+        @Override
+        public ModelSource resolveModel( final String groupId, final String artifactId, final String version )
+            throws UnresolvableModelException
+        {
+            final File pom = getFile( groupId, artifactId, version, "pom", null );
+            if ( !pom.isFile() )
+            {
+                throw new UnresolvableModelException( "Not found in local repository: " + pom, groupId, artifactId,
+                                                      version );
+            }
+            return new FileModelSource( pom );
+        }
+
+        // Declared by the resolvers of later Maven versions.
+        public ModelSource resolveModel( final Parent parent )
+            throws UnresolvableModelException
+        {
+            return resolveModel( parent.getGroupId(), parent.getArtifactId(), parent.getVersion() );
+        }
+
+        // Same as above.
+        public ModelSource resolveModel( final Dependency dependency )
+            throws UnresolvableModelException
+        {
+            return resolveModel( dependency.getGroupId(), dependency.getArtifactId(), dependency.getVersion() );
+        }
+
+        @Override
+        public void addRepository( final Repository repository )
+            throws InvalidRepositoryException
+        {
+            // Only the local repository is read.
+        }
+
+        // Same as above.
+        public void addRepository( final Repository repository, final boolean replace )
+            throws InvalidRepositoryException
+        {
+            // Only the local repository is read.
+        }
+
+        @Override
+        public ModelResolver newCopy()
+        {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package net.flexmojos.m2e.project.internal.headless;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.xml.sax.SAXException;
+
+/**
+ * Streams a project descriptor with a StAX writer, indented the way Eclipse and Flash Builder write theirs.
+ *
+ * The document is written in memory, then saved only when its bytes differ from the file on disk, so an unchanged
+ * description does not touch the file and does not trigger a workspace refresh or a Flash Builder rebuild. Parts of an
+ * existing descriptor, read with {@link #parse(File)}, can be copied into the new one.
+ *
+ * @author Sylvain Lecoy (sylvain.lecoy@gmail.com)
+ */
+public class DescriptorWriter
+{
+    private static final String INDENT = "\t";
+
+    private static final String LINE_SEPARATOR = "\n";
+
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+    private final XMLStreamWriter writer;
+
+    private int depth;
+
+    /**
+     * Whether or not the element being written has no child yet.
+     */
+    private boolean leaf;
+
+    public DescriptorWriter()
+    {
+        try
+        {
+            writer = XMLOutputFactory.newInstance().createXMLStreamWriter( bytes, "UTF-8" );
+            writer.writeStartDocument( "UTF-8", "1.0" );
+        }
+        catch ( final XMLStreamException e )
+        {
+            throw new RuntimeException( e );
+        }
+    }
+
+    /**
+     * Starts an element, closed by {@link #endElement()}.
+     *
+     * @param name
+     * @return this writer.
+     */
+    public DescriptorWriter startElement( final String name )
+    {
+        try
+        {
+            indent();
+            writer.writeStartElement( name );
+            depth++;
+            leaf = true;
+        }
+        catch ( final XMLStreamException e )
+        {
+            throw new RuntimeException( e );
+        }
+        return this;
+    }
+
+    /**
+     * Writes an element without content, its attributes follow.
+     *
+     * @param name
+     * @return this writer.
+     */
+    public DescriptorWriter emptyElement( final String name )
+    {
+        try
+        {
+            indent();
+            writer.writeEmptyElement( name );
+            leaf = false;
+        }
+        catch ( final XMLStreamException e )
+        {
+            throw new RuntimeException( e );
+        }
+        return this;
+    }
+
+    /**
+     * Writes an element holding a text, on a single line.
+     *
+     * @param name
+     * @param text
+     * @return this writer.
+     */
+    public DescriptorWriter textElement( final String name, final String text )
+    {
+        try
+        {
+            indent();
+            writer.writeStartElement( name );
+            writer.writeCharacters( text );
+            writer.writeEndElement();
+            leaf = false;
+        }
+        catch ( final XMLStreamException e )
+        {
+            throw new RuntimeException( e );
+        }
+        return this;
+    }
+
+    /**
+     * Writes an attribute of the last element started, unless its value is <tt>null</tt>.
+     *
+     * @param name
+     * @param value
+     * @return this writer.
+     */
+    public DescriptorWriter attribute( final String name, final Object value )
+    {
+        if ( value == null )
+            return this;
+
+        try
+        {
+            writer.writeAttribute( name, value.toString() );
+        }
+        catch ( final XMLStreamException e )
+        {
+            throw new RuntimeException( e );
+        }
+        return this;
+    }
+
+    /**
+     * Ends the last element started.
+     *
+     * @return this writer.
+     */
+    public DescriptorWriter endElement()
+    {
+        try
+        {
+            depth--;
+            // An element without child is closed on the line it has been opened.
+            if ( !leaf )
+                indent();
+            writer.writeEndElement();
+            leaf = false;
+        }
+        catch ( final XMLStreamException e )
+        {
+            throw new RuntimeException( e );
+        }
+        return this;
+    }
+
+    /**
+     * Writes a copy of an element read from an existing descriptor, with its attributes and its children. An element
+     * without child element is written on a single line, with its text if it has any.
+     *
+     * @param element
+     * @return this writer.
+     */
+    public DescriptorWriter copy( final Element element )
+    {
+        final List<Element> children = getChildElements( element );
+        try
+        {
+            indent();
+            writer.writeStartElement( element.getTagName() );
+            final NamedNodeMap attributes = element.getAttributes();
+            for ( int i = 0; i < attributes.getLength(); i++ )
+            {
+                writer.writeAttribute( attributes.item( i ).getNodeName(), attributes.item( i ).getNodeValue() );
+            }
+
+            if ( children.isEmpty() )
+            {
+                final String text = element.getTextContent();
+                writer.writeCharacters( text.trim().length() == 0 ? "" : text );
+                writer.writeEndElement();
+                leaf = false;
+                return this;
+            }
+            depth++;
+            leaf = true;
+        }
+        catch ( final XMLStreamException e )
+        {
+            throw new RuntimeException( e );
+        }
+
+        for ( final Element child : children )
+        {
+            copy( child );
+        }
+        return endElement();
+    }
+
+    /**
+     * Gets the child elements of an element, in document order.
+     */
+    public static List<Element> getChildElements( final Element element )
+    {
+        final List<Element> children = new ArrayList<Element>();
+        for ( Node child = element.getFirstChild(); child != null; child = child.getNextSibling() )
+        {
+            if ( child instanceof Element )
+                children.add( (Element) child );
+        }
+        return children;
+    }
+
+    /**
+     * Reads an existing descriptor, to merge it with the settings of the project.
+     *
+     * @param file
+     * @return the root element of the descriptor, or <tt>null</tt> if the file does not exist.
+     */
+    public static Element parse( final File file )
+    {
+        if ( !file.isFile() )
+            return null;
+
+        try
+        {
+            return DocumentBuilderFactory.newInstance().newDocumentBuilder().parse( file ).getDocumentElement();
+        }
+        catch ( final ParserConfigurationException e )
+        {
+            throw new RuntimeException( e );
+        }
+        catch ( final SAXException e )
+        {
+            throw new RuntimeException( "Malformed descriptor " + file + ": " + e.getMessage(), e );
+        }
+        catch ( final IOException e )
+        {
+            throw new RuntimeException( e );
+        }
+    }
+
+    private void indent()
+        throws XMLStreamException
+    {
+        writer.writeCharacters( LINE_SEPARATOR );
+        for ( int i = 0; i < depth; i++ )
+            writer.writeCharacters( INDENT );
+    }
+
+    /**
+     * Ends the document and returns its bytes.
+     */
+    public byte[] toByteArray()
+    {
+        try
+        {
+            writer.writeEndDocument();
+            writer.writeCharacters( LINE_SEPARATOR );
+            writer.close();
+        }
+        catch ( final XMLStreamException e )
+        {
+            throw new RuntimeException( e );
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Saves a document, unless the file already has the same content.
+     *
+     * @param file
+     * @param content
+     * @return <tt>true</tt> if the file has been written.
+     */
+    public static boolean save( final File file, final byte[] content )
+    {
+        try
+        {
+            if ( file.length() == content.length && Arrays.equals( read( file ), content ) )
+                return false;
+
+            final OutputStream output = new FileOutputStream( file );
+            try
+            {
+                output.write( content );
+            }
+            finally
+            {
+                output.close();
+            }
+            return true;
+        }
+        catch ( final IOException e )
+        {
+            throw new RuntimeException( e );
+        }
+    }
+
+    private static byte[] read( final File file )
+        throws IOException
+    {
+        final byte[] content = new byte[(int) file.length()];
+        final InputStream input = new FileInputStream( file );
+        try
+        {
+            int offset = 0;
+            int read;
+            while ( offset < content.length && ( read = input.read( content, offset, content.length - offset ) ) > 0 )
+                offset += read;
+        }
+        finally
+        {
+            input.close();
+        }
+        return content;
+    }
+}
@@ -0,0 +1,584 @@
+package net.flexmojos.m2e.project.internal.headless;
+
+import static net.flexmojos.oss.plugin.common.FlexExtension.AIR;
+import static net.flexmojos.oss.plugin.common.FlexExtension.SWC;
+import static net.flexmojos.oss.plugin.common.FlexScopes.TEST;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import net.flexmojos.m2e.flex.CompilerOptions;
+import net.flexmojos.m2e.flex.FlexCompilerArguments;
+import net.flexmojos.m2e.flex.FlexLinkage;
+import net.flexmojos.m2e.flex.FlexSDKRegistry;
+import net.flexmojos.m2e.flex.SwcCatalogIndex;
+import net.flexmojos.m2e.maven.ArtifactIndex;
+import net.flexmojos.m2e.maven.IMavenFlexPlugin;
+import net.flexmojos.m2e.project.AbstractConfigurator;
+
+import org.apache.maven.artifact.Artifact;
+import org.eclipse.core.runtime.IPath;
+import org.w3c.dom.Element;
+
+/**
+ * Configures a project without Flash Builder, by streaming its descriptors directly: .project,
+ * .actionScriptProperties, and .flexProperties or .flexLibProperties depending on the type of project.
+ *
+ * The settings are accumulated in plain fields by the same steps as the Flash Builder configurators, then written with
+ * a {@link DescriptorWriter}. An existing .project is merged rather than replaced, as other tools add their natures
+ * and builders to it. The natures and descriptors follow the algorithm selecting the configurator of a project
+ * in the IDE, and every value uses the encoding Flash Builder persists, so a workspace imported afterwards is already
+ * up to date. Descriptors are compared byte for byte before being written, thus the fingerprint is not persisted.
+ *
+ * Neither Flash Builder nor an Eclipse workspace is needed, which lets the configuration run from the command line and
+ * be checked against reference descriptors.
+ *
+ * @author Sylvain Lecoy (sylvain.lecoy@gmail.com)
+ */
+public class HeadlessProjectConfigurator extends AbstractConfigurator
+{
+    /**
+     * Kinds of the class path entries, as persisted by Flash Builder.
+     */
+    private static final int KIND_PATH = 1;
+
+    private static final int KIND_LIBRARY_FILE = 3;
+
+    private static final int KIND_FLEX_SDK = 4;
+
+    private static final String ACTIONSCRIPT_NATURE = "com.adobe.flexbuilder.project.actionscriptnature";
+
+    private static final String APOLLO_NATURE = "com.adobe.flexbuilder.project.apollonature";
+
+    private static final String FLEX_NATURE = "com.adobe.flexbuilder.project.flexnature";
+
+    private static final String FLEXLIB_NATURE = "com.adobe.flexbuilder.project.flexlibnature";
+
+    private static final String ASLIB_NATURE = "com.adobe.flexbuilder.project.aslibnature";
+
+    private static final String MAVEN_NATURE = "org.eclipse.m2e.core.maven2Nature";
+
+    private static final String FLEX_BUILDER = "com.adobe.flexbuilder.project.flexbuilder";
+
+    private static final String FLEXLIB_BUILDER = "com.adobe.flexbuilder.project.flexlibbuilder";
+
+    private static final String APOLLO_BUILDER = "com.adobe.flexbuilder.apollo.apollobuilder";
+
+    private static final String MAVEN_BUILDER = "org.eclipse.m2e.core.maven2Builder";
+
+    private final File basedir;
+
+    private final String name;
+
+    private final FlexSDKRegistry sdks;
+
+    private final boolean apollo;
+
+    private final boolean flex;
+
+    private final boolean library;
+
+    private final boolean air;
+
+    private final FlexLinkage linkage;
+
+    private IPath mainSourceFolder;
+
+    private IPath[] sourcePath;
+
+    private List<LibraryPathEntry> libraryPath;
+
+    private IPath outputFolder;
+
+    private String flexSDKName;
+
+    private boolean htmlTemplate;
+
+    private String targetPlayerVersion;
+
+    private IPath mainApplicationPath;
+
+    private IPath[] applicationPaths;
+
+    private String additionalCompilerArgs;
+
+    private Map<String, IPath> manifests;
+
+    private IPath certificatePath;
+
+    /**
+     * @param plugin
+     * @param basedir the directory of the project, where the descriptors are written.
+     * @param name the name of the project.
+     * @param packaging the packaging of the Maven project.
+     * @param artifacts the resolved artifacts of the Maven project.
+     * @param sdks
+     * @param catalogs the index reading the archives of the dependencies.
+     */
+    public HeadlessProjectConfigurator( final IMavenFlexPlugin plugin, final File basedir, final String name,
+                                        final String packaging, final ArtifactIndex artifacts,
+                                        final FlexSDKRegistry sdks, final SwcCatalogIndex catalogs )
+    {
+        super( plugin );
+        this.basedir = basedir;
+        this.name = name;
+        this.sdks = sdks;
+        this.apollo = artifacts.isApolloProject();
+        this.flex = artifacts.isFlexProject();
+        this.library = SWC.equals( packaging );
+        this.air = AIR.equals( packaging );
+        // Only a Flex application for the browser loads RSLs.
+        this.linkage = new FlexLinkage( library, flex && !library && !air, catalogs );
+    }
+
+    /**
+     * Whether or not the project is an Apollo project, as opposed to an Apollo ActionScript project or a Flex
+     * project depending on the AIR framework.
+     */
+    private boolean isApolloApplication()
+    {
+        return flex && !library && air;
+    }
+
+    /**
+     * Gets the natures of the project, in the order the IDE adds them.
+     */
+    protected List<String> getNatures()
+    {
+        final List<String> natures = new ArrayList<String>();
+        natures.add( MAVEN_NATURE );
+        natures.add( ACTIONSCRIPT_NATURE );
+        if ( apollo )
+            natures.add( APOLLO_NATURE );
+        if ( flex )
+            natures.add( library ? FLEXLIB_NATURE : FLEX_NATURE );
+        else if ( library )
+            natures.add( ASLIB_NATURE );
+        return natures;
+    }
+
+    /**
+     * Gets the builders of the project, in the order the natures add them.
+     */
+    protected List<String> getBuilders()
+    {
+        final List<String> builders = new ArrayList<String>();
+        builders.add( MAVEN_BUILDER );
+        builders.add( library ? FLEXLIB_BUILDER : FLEX_BUILDER );
+        if ( apollo && !library )
+            builders.add( APOLLO_BUILDER );
+        return builders;
+    }
+
+    @Override
+    protected String getProjectName()
+    {
+        return name;
+    }
+
+    @Override
+    protected String getFingerprint()
+    {
+        return super.getFingerprint() + ":" + isHTMLTemplate();
+    }
+
+    @Override
+    protected String loadFingerprint()
+    {
+        return null;
+    }
+
+    @Override
+    protected void storeFingerprint( final String fingerprint )
+    {
+        // The descriptors are compared to the ones on disk instead.
+    }
+
+    @Override
+    protected void createConfiguration()
+    {
+        sourcePath = new IPath[0];
+        libraryPath = new ArrayList<LibraryPathEntry>();
+        applicationPaths = new IPath[0];
+        manifests = new LinkedHashMap<String, IPath>();
+    }
+
+    @Override
+    protected void configureSettings()
+    {
+        super.configureSettings();
+        if ( library && flex )
+        {
+            manifests.putAll( plugin.getXMLNamespaceManifestPath() );
+            lap( "configureManifest" );
+        }
+        if ( isApolloApplication() )
+        {
+            certificatePath = plugin.getCertificatePath();
+            lap( "configureBuildTarget" );
+        }
+    }
+
+    @Override
+    protected void configureMainSourceFolder()
+    {
+        mainSourceFolder = plugin.getMainSourceFolder();
+    }
+
+    @Override
+    protected void configureSourcePath()
+    {
+        sourcePath = plugin.getSourcePath();
+    }
+
+    @Override
+    protected void configureOutputFolderPath()
+    {
+        outputFolder = plugin.getOutputFolderPath();
+    }
+
+    @Override
+    protected void configureLibraryPath()
+    {
+        if ( flex )
+            flexSDKName = sdks.getFlexSDKName( plugin.getFlexFramework().getVersion() );
+
+        final Map<String, Artifact> dependencies = plugin.getDependencies();
+        linkage.load( dependencies.values() );
+        for ( final Artifact artifact : dependencies.values() )
+        {
+            if ( TEST.equals( artifact.getScope() ) )
+                continue;
+
+            final int linkType = linkage.getLinkType( artifact );
+            final List<String[]> rsls = linkage.getCrossDomainRsls( artifact, linkType, plugin.getRslUrls(),
+                                                                    plugin.getPolicyFileUrls(),
+                                                                    plugin.getContextRoot() );
+            libraryPath.add( new LibraryPathEntry( FlexLinkage.getLibraryFile( artifact ), linkType, rsls ) );
+        }
+
+        count( "libraryEntries", libraryPath.size() + 1 );
+    }
+
+    @Override
+    protected void configureHTMLTemplate()
+    {
+        htmlTemplate = !library && isHTMLTemplate();
+    }
+
+    private boolean isHTMLTemplate()
+    {
+        return new File( basedir, "html-template" ).isDirectory();
+    }
+
+    @Override
+    protected void configureTargetPlayerVersion()
+    {
+        final String playerBinary = plugin.getTargetPlayerVersion();
+        targetPlayerVersion = playerBinary == null ? "0.0.0" : playerBinary;
+    }
+
+    @Override
+    protected void configureMainApplicationPath()
+    {
+        applicationPaths = plugin.getApplicationPaths();
+        if ( applicationPaths.length > 0 )
+            mainApplicationPath = applicationPaths[0];
+    }
+
+    @Override
+    protected void configureAdditionalCompilerArgs()
+    {
+        final FlexCompilerArguments arguments = new FlexCompilerArguments();
+
+        final List<String> pathElements = new LinkedList<String>();
+        final IPath localesSourcePath = plugin.getLocalesSourcePath();
+        if ( localesSourcePath != null )
+        {
+            pathElements.add( localesSourcePath.toString() );
+        }
+        arguments.setSourcePath( pathElements );
+        arguments.setLocalesCompiled( new ArrayList<String>( Arrays.asList( plugin.getLocalesCompiled() ) ) );
+
+        final CompilerOptions options = plugin.getCompilerOptions();
+        arguments.setCompilerOptions( plugin.isFastDev() ? options.toFastDev() : options );
+
+        additionalCompilerArgs = arguments.toString();
+    }
+
+    @Override
+    protected boolean saveDescription()
+    {
+        // Every descriptor is saved, whether or not a previous one has been modified.
+        boolean saved = DescriptorWriter.save( new File( basedir, ".project" ), writeProject() );
+        saved |= DescriptorWriter.save( new File( basedir, ".actionScriptProperties" ), writeActionScriptProperties() );
+        if ( flex && library )
+            saved |= DescriptorWriter.save( new File( basedir, ".flexLibProperties" ), writeFlexLibProperties() );
+        else if ( flex )
+            saved |= DescriptorWriter.save( new File( basedir, ".flexProperties" ), writeFlexProperties() );
+        return saved;
+    }
+
+    /**
+     * Writes the .project, merged into the existing one: its name, comment, referenced projects, build commands with
+     * their arguments, natures, linked resources, filters and any other element are kept, and the builders and natures
+     * of the project are added when they are missing.
+     */
+    protected byte[] writeProject()
+    {
+        final Element existing = DescriptorWriter.parse( new File( basedir, ".project" ) );
+        final Map<String, Element> elements = new LinkedHashMap<String, Element>();
+        if ( existing != null )
+        {
+            for ( final Element element : DescriptorWriter.getChildElements( existing ) )
+            {
+                elements.put( element.getTagName(), element );
+            }
+        }
+
+        final DescriptorWriter writer = new DescriptorWriter();
+        writer.startElement( "projectDescription" );
+        copyOrWrite( writer, elements.remove( "name" ), "name", name );
+        copyOrWrite( writer, elements.remove( "comment" ), "comment", "" );
+        copyOrWrite( writer, elements.remove( "projects" ), "projects", null );
+
+        writer.startElement( "buildSpec" );
+        final List<String> builders = new ArrayList<String>( getBuilders() );
+        final Element buildSpec = elements.remove( "buildSpec" );
+        for ( final Element buildCommand : buildSpec == null ? Collections.<Element> emptyList()
+                        : DescriptorWriter.getChildElements( buildSpec ) )
+        {
+            builders.remove( getText( buildCommand, "name" ) );
+            writer.copy( buildCommand );
+        }
+        for ( final String builder : builders )
+        {
+            writer.startElement( "buildCommand" );
+            writer.textElement( "name", builder );
+            writer.startElement( "arguments" ).endElement();
+            writer.endElement();
+        }
+        writer.endElement();
+
+        writer.startElement( "natures" );
+        final List<String> natures = new ArrayList<String>( getNatures() );
+        final Element existingNatures = elements.remove( "natures" );
+        for ( final Element nature : existingNatures == null ? Collections.<Element> emptyList()
+                        : DescriptorWriter.getChildElements( existingNatures ) )
+        {
+            natures.remove( nature.getTextContent().trim() );
+            writer.copy( nature );
+        }
+        for ( final String nature : natures )
+        {
+            writer.textElement( "nature", nature );
+        }
+        writer.endElement();
+
+        // Linked resources, resource filters, variables and the elements of later Eclipse versions.
+        for ( final Element element : elements.values() )
+        {
+            writer.copy( element );
+        }
+
+        writer.endElement();
+        return writer.toByteArray();
+    }
+
+    private static void copyOrWrite( final DescriptorWriter writer, final Element existing, final String name,
+                                     final String text )
+    {
+        if ( existing != null )
+            writer.copy( existing );
+        else if ( text != null )
+            writer.textElement( name, text );
+        else
+            writer.startElement( name ).endElement();
+    }
+
+    private static String getText( final Element element, final String name )
+    {
+        for ( final Element child : DescriptorWriter.getChildElements( element ) )
+        {
+            if ( name.equals( child.getTagName() ) )
+                return child.getTextContent().trim();
+        }
+        return null;
+    }
+
+    protected byte[] writeActionScriptProperties()
+    {
+        final DescriptorWriter writer = new DescriptorWriter();
+        writer.startElement( "actionScriptProperties" );
+        writer.attribute( "analytics", false );
+        writer.attribute( "mainApplicationPath", mainApplicationPath );
+        writer.attribute( "version", 11 );
+
+        writer.startElement( "compiler" );
+        writer.attribute( "additionalCompilerArguments", additionalCompilerArgs );
+        writer.attribute( "copyDependentFiles", true );
+        writer.attribute( "flexSDK", flexSDKName );
+        writer.attribute( "generateAccessible", flex );
+        writer.attribute( "htmlExpressInstall", htmlTemplate );
+        writer.attribute( "htmlGenerate", htmlTemplate );
+        writer.attribute( "htmlHistoryManagement", htmlTemplate );
+        writer.attribute( "htmlPlayerVersionCheck", htmlTemplate );
+        writer.attribute( "outputFolderPath", outputFolder );
+        writer.attribute( "sourceFolderPath", mainSourceFolder );
+        writer.attribute( "strict", true );
+        writer.attribute( "targetPlayerVersion", targetPlayerVersion );
+        writer.attribute( "useApolloConfig", apollo );
+        writer.attribute( "warn", true );
+
+        writer.startElement( "compilerSourcePath" );
+        for ( final IPath path : sourcePath )
+        {
+            writer.emptyElement( "compilerSourcePathEntry" );
+            writer.attribute( "kind", KIND_PATH );
+            writer.attribute( "linkType", FlexLinkage.LINK_TYPE_INTERNAL );
+            writer.attribute( "path", path );
+        }
+        writer.endElement();
+
+        writer.startElement( "libraryPath" );
+        // Only applies to the Flex SDK, the dependencies have an explicit link type.
+        writer.attribute( "defaultLinkType", linkage.getDefaultLinkType() );
+        writer.emptyElement( "libraryPathEntry" );
+        writer.attribute( "kind", KIND_FLEX_SDK );
+        writer.attribute( "linkType", FlexLinkage.LINK_TYPE_DEFAULT );
+        writer.attribute( "path", "" );
+        for ( final LibraryPathEntry entry : libraryPath )
+        {
+            entry.write( writer );
+        }
+        writer.endElement();
+
+        writer.startElement( "sourceAttachmentPath" ).endElement();
+        writer.endElement();
+
+        writer.startElement( "applications" );
+        for ( final IPath path : applicationPaths )
+        {
+            writer.emptyElement( "application" ).attribute( "path", path );
+        }
+        writer.endElement();
+
+        writer.startElement( "modules" ).endElement();
+        writer.startElement( "workers" ).endElement();
+
+        if ( isApolloApplication() )
+        {
+            writer.startElement( "buildTargets" );
+            writer.startElement( "buildTarget" ).attribute( "buildTargetName", "default" );
+            writer.startElement( "airSettings" );
+            writer.attribute( "airCertificatePath", certificatePath == null ? "" : certificatePath );
+            writer.attribute( "airTimestamp", true );
+            writer.attribute( "version", 1 );
+            writer.startElement( "airExcludes" ).endElement();
+            writer.endElement();
+            writer.emptyElement( "actionScriptSettings" ).attribute( "version", 1 );
+            writer.startElement( "extensionSettings" ).endElement();
+            writer.endElement();
+            writer.endElement();
+        }
+
+        writer.startElement( "buildCSSFiles" ).endElement();
+        writer.endElement();
+        return writer.toByteArray();
+    }
+
+    protected byte[] writeFlexProperties()
+    {
+        final DescriptorWriter writer = new DescriptorWriter();
+        writer.emptyElement( "flexProperties" );
+        writer.attribute( "enableServiceManager", false );
+        writer.attribute( "flexServerFeatures", 0 );
+        writer.attribute( "flexServerType", 0 );
+        writer.attribute( "toolCompile", true );
+        writer.attribute( "useServerFlexSDK", false );
+        writer.attribute( "version", 2 );
+        return writer.toByteArray();
+    }
+
+    protected byte[] writeFlexLibProperties()
+    {
+        final DescriptorWriter writer = new DescriptorWriter();
+        writer.startElement( "flexLibProperties" );
+        writer.attribute( "includeAllClasses", true );
+        writer.attribute( "useMultiPlatformConfig", false );
+        writer.attribute( "version", 3 );
+        writer.startElement( "includeClasses" ).endElement();
+        writer.startElement( "includeResources" ).endElement();
+
+        writer.startElement( "namespaceManifests" );
+        for ( final Map.Entry<String, IPath> manifest : manifests.entrySet() )
+        {
+            writer.emptyElement( "namespaceManifestEntry" );
+            writer.attribute( "manifest", manifest.getValue() );
+            writer.attribute( "namespace", manifest.getKey() );
+        }
+        writer.endElement();
+
+        writer.endElement();
+        return writer.toByteArray();
+    }
+
+    /**
+     * An entry of the library path, pointing to a library file.
+     */
+    private static class LibraryPathEntry
+    {
+        private final String path;
+
+        private final int linkType;
+
+        /**
+         * Pairs of RSL and policy file URLs, empty if the entry is not a cross-domain RSL.
+         */
+        private final List<String[]> rsls;
+
+        LibraryPathEntry( final String path, final int linkType, final List<String[]> rsls )
+        {
+            this.path = path;
+            this.linkType = linkType;
+            this.rsls = rsls;
+        }
+
+        void write( final DescriptorWriter writer )
+        {
+            if ( rsls.isEmpty() )
+            {
+                writer.emptyElement( "libraryPathEntry" );
+                attributes( writer );
+                return;
+            }
+
+            writer.startElement( "libraryPathEntry" );
+            attributes( writer );
+            writer.startElement( "crossDomainRsls" );
+            for ( final String[] rsl : rsls )
+            {
+                writer.emptyElement( "crossDomainRslEntry" );
+                writer.attribute( "autoExtract", FlexLinkage.isAutoExtract( rsl[0] ) );
+                writer.attribute( "policyFileUrl", rsl[1] );
+                writer.attribute( "rslUrl", rsl[0] );
+            }
+            writer.endElement();
+            writer.endElement();
+        }
+
+        private void attributes( final DescriptorWriter writer )
+        {
+            writer.attribute( "kind", KIND_LIBRARY_FILE );
+            writer.attribute( "linkType", linkType );
+            writer.attribute( "path", path );
+            writer.attribute( "useLocal", true );
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package net.flexmojos.m2e.maven.internal.headless;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Local repository filled by the tests with poms and SWC archives, laid out as the one of Maven.
+ *
+ * @author Sylvain Lecoy (sylvain.lecoy@gmail.com)
+ */
+public class LocalRepository
+{
+    public static final String FLEX_GROUP_ID = "com.adobe.flex.framework";
+
+    public static final String FLEX_VERSION = "4.6.b.23201";
+
+    private final File root;
+
+    public LocalRepository( final File root )
+    {
+        this.root = root;
+    }
+
+    public File getRoot()
+    {
+        return root;
+    }
+
+    /**
+     * Gets the file of an artifact.
+     */
+    public File getFile( final String groupId, final String artifactId, final String version, final String type )
+    {
+        return new PomReader( root ).getFile( groupId, artifactId, version, type, null );
+    }
+
+    /**
+     * Writes the pom of an artifact.
+     *
+     * @param body the elements following the coordinates of the project.
+     */
+    public File pom( final String groupId, final String artifactId, final String version, final String body )
+    {
+        return write( getFile( groupId, artifactId, version, "pom" ),
+                      project( groupId, artifactId, version, "pom", body ) );
+    }
+
+    /**
+     * Writes the Flex framework poms: flex-framework, depending on common-framework.
+     */
+    public void flexFramework()
+    {
+        pom( FLEX_GROUP_ID, "common-framework", FLEX_VERSION, "" );
+        pom( FLEX_GROUP_ID, "flex-framework", FLEX_VERSION,
+             dependencies( dependency( FLEX_GROUP_ID, "common-framework", FLEX_VERSION, "pom", null ) ) );
+    }
+
+    /**
+     * Writes a SWC archive with a catalog registering a component, and a library.swf if asked.
+     */
+    public File swc( final String groupId, final String artifactId, final String version, final boolean library )
+    {
+        final File file = getFile( groupId, artifactId, version, "swc" );
+        file.getParentFile().mkdirs();
+        try
+        {
+            final ZipOutputStream zip = new ZipOutputStream( new FileOutputStream( file ) );
+            try
+            {
+                zip.putNextEntry( new ZipEntry( "catalog.xml" ) );
+                zip.write( ( "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<swc>\n  <components>\n"
+                    + "    <component className=\"" + artifactId + ":Component\" name=\"Component\" uri=\"http://"
+                    + artifactId + ".example.com\"/>\n  </components>\n</swc>\n" ).getBytes( "UTF-8" ) );
+                zip.closeEntry();
+                if ( library )
+                {
+                    zip.putNextEntry( new ZipEntry( "library.swf" ) );
+                    zip.write( new byte[] { 'F', 'W', 'S' } );
+                    zip.closeEntry();
+                }
+            }
+            finally
+            {
+                zip.close();
+            }
+        }
+        catch ( final IOException e )
+        {
+            throw new RuntimeException( e );
+        }
+        return file;
+    }
+
+    /**
+     * Writes the signed library of a SWC archive, next to it.
+     */
+    public File swz( final String groupId, final String artifactId, final String version )
+    {
+        return write( getFile( groupId, artifactId, version, "swz" ), "FWS" );
+    }
+
+    public static String project( final String groupId, final String artifactId, final String version,
+                                  final String packaging, final String body )
+    {
+        return "<project>\n  <modelVersion>4.0.0</modelVersion>\n  <groupId>" + groupId + "</groupId>\n"
+            + "  <artifactId>" + artifactId + "</artifactId>\n  <version>" + version + "</version>\n"
+            + "  <packaging>" + packaging + "</packaging>\n" + body + "</project>\n";
+    }
+
+    public static String dependencies( final String... dependencies )
+    {
+        final StringBuilder elements = new StringBuilder( "  <dependencies>\n" );
+        for ( final String dependency : dependencies )
+        {
+            elements.append( dependency );
+        }
+        return elements.append( "  </dependencies>\n" ).toString();
+    }
+
+    public static String dependency( final String groupId, final String artifactId, final String version,
+                                     final String type, final String scope )
+    {
+        return "    <dependency>\n      <groupId>" + groupId + "</groupId>\n      <artifactId>" + artifactId
+            + "</artifactId>\n      <version>" + version + "</version>\n      <type>" + type + "</type>\n"
+            + ( scope == null ? "" : "      <scope>" + scope + "</scope>\n" ) + "    </dependency>\n";
+    }
+
+    /**
+     * The dependency on the Flex framework of a Flex project.
+     */
+    public static String flexFrameworkDependency()
+    {
+        return dependency( FLEX_GROUP_ID, "flex-framework", FLEX_VERSION, "pom", null );
+    }
+
+    /**
+     * Writes a file in UTF-8, creating its parent directories.
+     */
+    public static File write( final File file, final String content )
+    {
+        file.getParentFile().mkdirs();
+        try
+        {
+            final OutputStream output = new FileOutputStream( file );
+            try
+            {
+                output.write( content.getBytes( "UTF-8" ) );
+            }
+            finally
+            {
+                output.close();
+            }
+        }
+        catch ( final IOException e )
+        {
+            throw new RuntimeException( e );
+        }
+        return file;
+    }
+}
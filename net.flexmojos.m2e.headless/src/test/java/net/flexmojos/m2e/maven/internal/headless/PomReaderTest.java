@@ -0,0 +1,125 @@
+package net.flexmojos.m2e.maven.internal.headless;
+
+import static net.flexmojos.m2e.maven.internal.headless.LocalRepository.dependencies;
+import static net.flexmojos.m2e.maven.internal.headless.LocalRepository.dependency;
+import static net.flexmojos.m2e.maven.internal.headless.LocalRepository.project;
+import static net.flexmojos.m2e.maven.internal.headless.LocalRepository.write;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import net.flexmojos.m2e.maven.ArtifactIndex;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.model.Model;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Checks the effective models and the dependencies read without Maven session.
+ *
+ * @author Sylvain Lecoy (sylvain.lecoy@gmail.com)
+ */
+public class PomReaderTest
+{
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private LocalRepository repository;
+
+    private PomReader reader;
+
+    @Before
+    public void setUp()
+    {
+        repository = new LocalRepository( new File( folder.getRoot(), "repository" ) );
+        reader = new PomReader( repository.getRoot() );
+    }
+
+    @Test
+    public void readsTheInheritedAndInterpolatedModel()
+    {
+        repository.pom( "com.example", "parent", "1.0", "  <properties>\n    <flex.version>4.6</flex.version>\n"
+            + "  </properties>\n  <build>\n    <plugins>\n      <plugin>\n"
+            + "        <groupId>net.flexmojos.oss</groupId>\n"
+            + "        <artifactId>flexmojos-maven-plugin</artifactId>\n        <version>6.0.1</version>\n"
+            + "        <configuration>\n          <targetPlayer>11.1</targetPlayer>\n        </configuration>\n"
+            + "      </plugin>\n    </plugins>\n  </build>\n" );
+        final File pom =
+            write( new File( folder.getRoot(), "module/pom.xml" ),
+                   "<project>\n  <modelVersion>4.0.0</modelVersion>\n  <parent>\n    <groupId>com.example</groupId>\n"
+                       + "    <artifactId>parent</artifactId>\n    <version>1.0</version>\n"
+                       + "    <relativePath>../none</relativePath>\n  </parent>\n"
+                       + "  <artifactId>module</artifactId>\n  <packaging>swf</packaging>\n"
+                       + "  <description>${flex.version}</description>\n</project>\n" );
+
+        final Model model = reader.read( pom );
+
+        assertEquals( "com.example", model.getGroupId() );
+        assertEquals( "1.0", model.getVersion() );
+        assertEquals( "swf", model.getPackaging() );
+        assertEquals( "4.6", model.getDescription() );
+        assertEquals( new File( folder.getRoot(), "module/target/classes" ).getAbsolutePath(),
+                      model.getBuild().getOutputDirectory() );
+        final Xpp3Dom configuration =
+            (Xpp3Dom) model.getBuild().getPluginsAsMap().get( "net.flexmojos.oss:flexmojos-maven-plugin" )
+                           .getConfiguration();
+        assertEquals( "11.1", configuration.getChild( "targetPlayer" ).getValue() );
+    }
+
+    @Test
+    public void resolvesTheDependenciesNearestFirst()
+    {
+        repository.flexFramework();
+        repository.swc( "com.example", "util", "1.0", false );
+        repository.swc( "com.example", "util", "2.0", false );
+        repository.swc( "com.example", "theme", "1.0", false );
+        repository.swc( "com.example", "excluded", "1.0", false );
+        repository.swc( "com.example", "tested", "1.0", false );
+        repository.pom( "com.example", "util", "2.0", "" );
+        repository.pom( "com.example", "widgets", "1.0",
+                        dependencies( dependency( "com.example", "util", "2.0", "swc", null ),
+                                      dependency( "com.example", "theme", "1.0", "swc", "theme" ),
+                                      dependency( "com.example", "excluded", "1.0", "swc", null ),
+                                      dependency( "com.example", "tested", "1.0", "swc", "test" ) ) );
+        repository.swc( "com.example", "widgets", "1.0", false );
+
+        final String widgets =
+            "    <dependency>\n      <groupId>com.example</groupId>\n      <artifactId>widgets</artifactId>\n"
+                + "      <version>1.0</version>\n      <type>swc</type>\n      <scope>rsl</scope>\n"
+                + "      <exclusions>\n        <exclusion>\n          <groupId>com.example</groupId>\n"
+                + "          <artifactId>excluded</artifactId>\n        </exclusion>\n      </exclusions>\n"
+                + "    </dependency>\n";
+        final File pom =
+            write( new File( folder.getRoot(), "module/pom.xml" ),
+                   project( "com.example", "module", "1.0", "swf",
+                            dependencies( LocalRepository.flexFrameworkDependency(), widgets,
+                                          dependency( "com.example", "util", "1.0", "swc", "merged" ) ) ) );
+
+        final List<Artifact> artifacts = reader.resolve( reader.read( pom ) );
+
+        final List<String> ids = new ArrayList<String>();
+        for ( final Artifact artifact : artifacts )
+        {
+            ids.add( artifact.getId() + ":" + artifact.getScope() );
+        }
+        assertEquals( "[" + LocalRepository.FLEX_GROUP_ID + ":flex-framework:pom:" + LocalRepository.FLEX_VERSION
+            + ":compile, com.example:widgets:swc:1.0:rsl, com.example:util:swc:1.0:merged, "
+            + LocalRepository.FLEX_GROUP_ID + ":common-framework:pom:" + LocalRepository.FLEX_VERSION
+            + ":compile, com.example:theme:swc:1.0:theme]", ids.toString() );
+        assertEquals( repository.getFile( "com.example", "util", "1.0", "swc" ), artifacts.get( 2 ).getFile() );
+
+        final ArtifactIndex index = new ArtifactIndex( artifacts );
+        assertTrue( index.isFlexProject() );
+        assertFalse( index.isApolloProject() );
+        assertEquals( LocalRepository.FLEX_VERSION, index.getFlexFramework().getVersion() );
+        assertEquals( 3, index.getLibraries().size() );
+    }
+}
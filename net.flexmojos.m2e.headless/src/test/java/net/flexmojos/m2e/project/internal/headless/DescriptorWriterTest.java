@@ -0,0 +1,69 @@
+package net.flexmojos.m2e.project.internal.headless;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+
+import net.flexmojos.m2e.maven.internal.headless.LocalRepository;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Checks the format of the descriptors, and that an unchanged descriptor is not written again.
+ *
+ * @author Sylvain Lecoy (sylvain.lecoy@gmail.com)
+ */
+public class DescriptorWriterTest
+{
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void writesTheFormatOfFlashBuilder()
+        throws Exception
+    {
+        final DescriptorWriter writer = new DescriptorWriter();
+        writer.startElement( "libraryPath" ).attribute( "defaultLinkType", 3 ).attribute( "skipped", null );
+        writer.emptyElement( "libraryPathEntry" ).attribute( "kind", 3 ).attribute( "path", "a&b<c>.swc" );
+        writer.startElement( "crossDomainRsls" ).endElement();
+        writer.textElement( "comment", "" );
+        writer.endElement();
+
+        assertEquals( "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<libraryPath defaultLinkType=\"3\">\n"
+            + "\t<libraryPathEntry kind=\"3\" path=\"a&amp;b&lt;c&gt;.swc\"/>\n\t<crossDomainRsls></crossDomainRsls>\n"
+            + "\t<comment></comment>\n</libraryPath>\n", new String( writer.toByteArray(), "UTF-8" ) );
+    }
+
+    @Test
+    public void savesOnlyAChangedDescriptor()
+        throws Exception
+    {
+        final File file = new File( folder.getRoot(), ".flexProperties" );
+        final byte[] content = new DescriptorWriter().emptyElement( "flexProperties" ).toByteArray();
+
+        assertTrue( DescriptorWriter.save( file, content ) );
+        assertFalse( DescriptorWriter.save( file, content ) );
+        assertTrue( DescriptorWriter.save( file, new DescriptorWriter().emptyElement( "flexProperties" )
+                                                                        .attribute( "version", 2 ).toByteArray() ) );
+    }
+
+    @Test
+    public void copiesAnExistingDescriptor()
+        throws Exception
+    {
+        final String existing = Golden.read( "existing.project" );
+        final File file = LocalRepository.write( new File( folder.getRoot(), ".project" ), existing );
+
+        final byte[] copy = new DescriptorWriter().copy( DescriptorWriter.parse( file ) ).toByteArray();
+
+        // Only the empty elements are written on a single line.
+        assertEquals( existing.replace( "<arguments>\n\t\t\t</arguments>", "<arguments></arguments>" ),
+                      new String( copy, "UTF-8" ) );
+        assertNull( DescriptorWriter.parse( new File( folder.getRoot(), "missing" ) ) );
+    }
+}
@@ -0,0 +1,84 @@
+package net.flexmojos.m2e.project.internal.headless;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.junit.Assert;
+
+/**
+ * Golden descriptors, next to the tests. The absolute paths of the local repository of a test are written
+ * <code>${repository}</code> in the golden descriptors.
+ *
+ * @author Sylvain Lecoy (sylvain.lecoy@gmail.com)
+ */
+public final class Golden
+{
+    private static final String REPOSITORY = "${repository}";
+
+    private Golden()
+    {
+    }
+
+    /**
+     * Reads a golden descriptor.
+     */
+    public static String read( final String name )
+    {
+        final InputStream input = Golden.class.getResourceAsStream( name );
+        if ( input == null )
+            throw new IllegalArgumentException( "Golden descriptor not found: " + name );
+
+        return read( input );
+    }
+
+    /**
+     * Asserts a written descriptor is the golden one, byte for byte once the paths of the repository are replaced.
+     */
+    public static void assertEquals( final String name, final File file, final File repository )
+    {
+        final String expected = read( name ).replace( REPOSITORY, repository.getAbsolutePath() );
+        try
+        {
+            Assert.assertEquals( name, expected, read( new FileInputStream( file ) ) );
+        }
+        catch ( final IOException e )
+        {
+            throw new RuntimeException( e );
+        }
+    }
+
+    /**
+     * Reads a stream in UTF-8, and closes it.
+     */
+    private static String read( final InputStream input )
+    {
+        try
+        {
+            final ByteArrayOutputStream content = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[8192];
+            for ( int read = input.read( buffer ); read != -1; read = input.read( buffer ) )
+            {
+                content.write( buffer, 0, read );
+            }
+            return content.toString( "UTF-8" );
+        }
+        catch ( final IOException e )
+        {
+            throw new RuntimeException( e );
+        }
+        finally
+        {
+            try
+            {
+                input.close();
+            }
+            catch ( final IOException e )
+            {
+                // Nothing left to read.
+            }
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package net.flexmojos.m2e.project.internal.headless;
+
+import static net.flexmojos.m2e.maven.internal.headless.LocalRepository.dependencies;
+import static net.flexmojos.m2e.maven.internal.headless.LocalRepository.dependency;
+import static net.flexmojos.m2e.maven.internal.headless.LocalRepository.flexFrameworkDependency;
+import static net.flexmojos.m2e.maven.internal.headless.LocalRepository.project;
+import static net.flexmojos.m2e.maven.internal.headless.LocalRepository.write;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+
+import net.flexmojos.m2e.flex.FlexSDKRegistry;
+import net.flexmojos.m2e.flex.SwcCatalogIndex;
+import net.flexmojos.m2e.maven.ArtifactIndex;
+import net.flexmojos.m2e.maven.internal.headless.LocalRepository;
+import net.flexmojos.m2e.maven.internal.headless.PomFlexPlugin;
+import net.flexmojos.m2e.maven.internal.headless.PomReader;
+
+import org.apache.maven.model.Model;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Checks the descriptors written for a reactor against golden descriptors, the ones Flash Builder persists for the same
+ * settings.
+ *
+ * @author Sylvain Lecoy (sylvain.lecoy@gmail.com)
+ */
+public class HeadlessProjectConfiguratorTest
+{
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private LocalRepository repository;
+
+    private final SwcCatalogIndex catalogs = new SwcCatalogIndex();
+
+    /**
+     * Registry knowing a single SDK, whatever is installed on the machine running the tests.
+     */
+    private final FlexSDKRegistry sdks = new FlexSDKRegistry()
+    {
+        @Override
+        protected List<FlexSDK> discover()
+        {
+            return Collections.singletonList( new FlexSDK( "Flex 4.6.0", "4.6.0", new File( "sdks/4.6.0" ) ) );
+        }
+    };
+
+    @Before
+    public void setUp()
+    {
+        repository = new LocalRepository( new File( folder.getRoot(), "repository" ) );
+        repository.flexFramework();
+    }
+
+    @After
+    public void tearDown()
+    {
+        catalogs.dispose();
+    }
+
+    @Test
+    public void configuresAFlexApplication()
+    {
+        repository.swc( "com.example", "util", "1.0", false );
+        repository.swc( "com.example", "skin", "1.0", true );
+        repository.swc( "com.example", "plain", "1.0", false );
+        repository.swc( "com.example", "shared", "1.0", true );
+        repository.swz( "com.example", "shared", "1.0" );
+        repository.swc( "com.example", "ext", "1.0", false );
+        repository.swc( "com.example", "tested", "1.0", false );
+        final File module =
+            module( "application", "swf", "        <configuration>\n          <sourceFile>Main.mxml</sourceFile>\n"
+                + "          <targetPlayer>11.1.0</targetPlayer>\n          <contextRoot>shop</contextRoot>\n"
+                + "          <debug>true</debug>\n          <localesCompiled>\n            <locale>en_US</locale>\n"
+                + "          </localesCompiled>\n        </configuration>\n",
+                    dependency( "com.example", "util", "1.0", "swc", "merged" ),
+                    dependency( "com.example", "skin", "1.0", "swc", "rsl" ),
+                    dependency( "com.example", "plain", "1.0", "swc", "caching" ),
+                    dependency( "com.example", "shared", "1.0", "swc", "caching" ),
+                    dependency( "com.example", "ext", "1.0", "swc", "external" ),
+                    dependency( "com.example", "tested", "1.0", "swc", "test" ) );
+
+        assertTrue( configure( module ) );
+
+        assertGolden( "application.project", new File( module, ".project" ) );
+        assertGolden( "application.actionScriptProperties", new File( module, ".actionScriptProperties" ) );
+        assertGolden( "application.flexProperties", new File( module, ".flexProperties" ) );
+
+        // Nothing changed, nothing is written.
+        assertFalse( configure( module ) );
+    }
+
+    @Test
+    public void configuresAFlexLibrary()
+    {
+        repository.swc( "com.example", "skin", "1.0", true );
+        repository.swc( "com.example", "util", "1.0", false );
+        final File module =
+            module( "library", "swc", "        <configuration>\n          <namespaces>\n            <namespace>\n"
+                + "              <uri>http://library.example.com</uri>\n"
+                + "              <manifest>src/main/flex/manifest.xml</manifest>\n            </namespace>\n"
+                + "          </namespaces>\n        </configuration>\n",
+                    dependency( "com.example", "skin", "1.0", "swc", "rsl" ),
+                    dependency( "com.example", "util", "1.0", "swc", null ) );
+
+        assertTrue( configure( module ) );
+
+        assertGolden( "library.project", new File( module, ".project" ) );
+        assertGolden( "library.actionScriptProperties", new File( module, ".actionScriptProperties" ) );
+        assertGolden( "library.flexLibProperties", new File( module, ".flexLibProperties" ) );
+    }
+
+    @Test
+    public void mergesTheExistingProject()
+    {
+        final File module = module( "library", "swc", "", dependency( "com.example", "util", "1.0", "swc", null ) );
+        repository.swc( "com.example", "util", "1.0", false );
+        write( new File( module, ".project" ), Golden.read( "existing.project" ) );
+
+        assertTrue( configure( module ) );
+
+        assertGolden( "merged.project", new File( module, ".project" ) );
+    }
+
+    /**
+     * Writes the pom of a module building with Flexmojos and depending on the Flex framework.
+     */
+    private File module( final String artifactId, final String packaging, final String configuration,
+                         final String... dependencies )
+    {
+        final String[] all = new String[dependencies.length + 1];
+        all[0] = flexFrameworkDependency();
+        System.arraycopy( dependencies, 0, all, 1, dependencies.length );
+
+        final File module = new File( folder.getRoot(), artifactId );
+        write( new File( module, "pom.xml" ),
+               project( "com.example", artifactId, "1.0", packaging, "  <build>\n    <plugins>\n      <plugin>\n"
+                   + "        <groupId>net.flexmojos.oss</groupId>\n"
+                   + "        <artifactId>flexmojos-maven-plugin</artifactId>\n        <version>6.0.1</version>\n"
+                   + configuration + "      </plugin>\n    </plugins>\n  </build>\n" + dependencies( all ) ) );
+        return module;
+    }
+
+    /**
+     * Configures a module the way the headless runner does.
+     */
+    private boolean configure( final File module )
+    {
+        final PomReader reader = new PomReader( repository.getRoot() );
+        final Model model = reader.read( new File( module, "pom.xml" ) );
+        final ArtifactIndex artifacts = new ArtifactIndex( reader.resolve( model ) );
+        return new HeadlessProjectConfigurator( new PomFlexPlugin( module, model, artifacts ), module,
+                                                model.getArtifactId(), model.getPackaging(), artifacts, sdks,
+                                                catalogs ).configure();
+    }
+
+    private void assertGolden( final String golden, final File file )
+    {
+        Golden.assertEquals( golden, file, repository.getRoot() );
+    }
+}
@@ -0,0 +1,533 @@
+package net.flexmojos.m2e;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import net.flexmojos.m2e.flex.FlexSDKRegistry;
+import net.flexmojos.m2e.maven.IMavenFlexPlugin;
+import net.flexmojos.m2e.project.AbstractConfigurator;
+import net.flexmojos.m2e.project.ConfigurationContext;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.artifact.versioning.VersionRange;
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.DefaultMavenExecutionResult;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.m2e.core.embedder.ArtifactKey;
+import org.eclipse.m2e.core.project.IMavenProjectFacade;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.inject.Guice;
+import com.google.inject.Inject;
+import com.google.inject.Injector;
+
+/**
+ * Configures a synthetic reactor and checks that the configurators, and the jobs keeping them as long as their project,
+ * do not retain any Maven project or Maven session once their settings are applied.
+ *
+ * The configurators are created by the configuration graph of the bundle, with workspace projects and stand-ins for the
+ * values m2e gives: each Maven session and project is then referenced by the context of the configuration, the
+ * evaluation cache, the executions of the Maven Flex Plug-in and its adapters. Each module is configured once before
+ * the measure, as a project update configures it again, so the state the workspace, Flash Builder and the injector keep
+ * per project is not counted as retained by the configuration.
+ *
+ * @author Sylvain Lecoy (sylvain.lecoy@gmail.com)
+ */
+public class ConfigurationRetentionTest
+{
+    private static final int MODULES = 20;
+
+    private static final int DEPENDENCIES = 500;
+
+    /**
+     * Heap a configured project may retain, its configurator or its job. A retained Maven project of the reactor
+     * weighs hundreds of kilobytes.
+     */
+    private static final long RETAINED_BYTES = 16 * 1024;
+
+    private final FlashBuilderAbstractModule module = new ReactorModule();
+
+    private final List<IProject> projects = new ArrayList<IProject>();
+
+    /**
+     * Maven sessions and projects of the measured configurations.
+     */
+    private final List<WeakReference<Object>> references = new ArrayList<WeakReference<Object>>();
+
+    private Injector injector;
+
+    @Before
+    public void setUp()
+        throws Exception
+    {
+        injector = Guice.createInjector( module );
+        for ( int i = 0; i < MODULES; i++ )
+        {
+            final IProject project = ResourcesPlugin.getWorkspace().getRoot().getProject( "retention" + i );
+            if ( !project.exists() )
+                project.create( null );
+            project.open( null );
+            projects.add( project );
+
+            assertTrue( createConfigurator( project ).configure() );
+        }
+        references.clear();
+    }
+
+    @After
+    public void tearDown()
+        throws Exception
+    {
+        for ( final IProject project : projects )
+        {
+            project.delete( true, true, null );
+        }
+    }
+
+    @Test
+    public void releasesTheMavenProjectsWhenApplied()
+    {
+        final long baseline = getUsedMemory();
+        // The configurators stay reachable during the measure, as a configurator kept by m2e or by a job would.
+        final List<AbstractConfigurator> configurators = new ArrayList<AbstractConfigurator>();
+        for ( final IProject project : projects )
+        {
+            configurators.add( createConfigurator( project ) );
+        }
+
+        for ( final AbstractConfigurator configurator : configurators )
+        {
+            assertTrue( configurator.configure() );
+        }
+
+        assertReleased( "applied", baseline );
+    }
+
+    @Test
+    public void releasesTheMavenProjectsOnceResolved()
+    {
+        final List<AbstractConfigurator> configurators = new ArrayList<AbstractConfigurator>();
+        for ( final IProject project : projects )
+        {
+            configurators.add( createConfigurator( project ) );
+        }
+
+        // A bulk configuration holds every resolved project of the batch while the settings are applied in waves.
+        for ( final AbstractConfigurator configurator : configurators )
+        {
+            assertTrue( configurator.prepare() );
+            configurator.resolve();
+        }
+        assertCollected();
+
+        for ( final AbstractConfigurator configurator : configurators )
+        {
+            assertTrue( configurator.apply() );
+        }
+    }
+
+    @Test
+    public void releasesTheMavenProjectsWhenConfiguredInBulk()
+        throws Exception
+    {
+        final long baseline = getUsedMemory();
+        final BulkConfigurationJob job = new BulkConfigurationJob();
+        for ( final IProject project : projects )
+        {
+            add( job, project );
+        }
+        job.join();
+
+        assertTrue( job.getResult().isOK() );
+        assertReleased( "configured in bulk", baseline );
+    }
+
+    @Test
+    public void releasesTheMavenProjectsWhenConfiguredInBackground()
+        throws Exception
+    {
+        final long baseline = getUsedMemory();
+        final List<ProjectConfigurationJob> jobs = new ArrayList<ProjectConfigurationJob>();
+        for ( final IProject project : projects )
+        {
+            final ProjectConfigurationJob job = new ProjectConfigurationJob( project );
+            job.configure( createConfigurator( project ) );
+            jobs.add( job );
+        }
+        Job.getJobManager().join( ProjectConfigurationJob.FAMILY, null );
+
+        for ( final ProjectConfigurationJob job : jobs )
+        {
+            assertFalse( job.hasPending() );
+            assertTrue( job.getResult().isOK() );
+        }
+        assertReleased( "configured in background", baseline );
+    }
+
+    /**
+     * Creates the configurator of a module, as FlashBuilderProjectConfigurator does from the request of m2e.
+     */
+    private AbstractConfigurator createConfigurator( final IProject project )
+    {
+        return createConfigurator( project, createFacade( project ) );
+    }
+
+    private AbstractConfigurator createConfigurator( final IProject project, final IMavenProjectFacade facade )
+    {
+        final MavenSession session =
+            new MavenSession( null, new DefaultMavenExecutionRequest(), new DefaultMavenExecutionResult(),
+                              facade.getMavenProject() );
+        references.add( new WeakReference<Object>( session ) );
+
+        final ConfigurationContext context = new ConfigurationContext();
+        context.seed( IProject.class, project );
+        context.seed( IMavenProjectFacade.class, facade );
+        context.seed( MavenSession.class, session );
+        context.seed( IProgressMonitor.class, new NullProgressMonitor() );
+        return module.getConfigurator( injector, context );
+    }
+
+    private void add( final BulkConfigurationJob job, final IProject project )
+    {
+        final IMavenProjectFacade facade = createFacade( project );
+        job.add( project, facade, createConfigurator( project, facade ) );
+    }
+
+    /**
+     * Creates the facade of a module, an ActionScript application compiled by Flexmojos 6 and depending on SWC
+     * libraries.
+     */
+    private IMavenProjectFacade createFacade( final IProject project )
+    {
+        final File basedir = project.getLocation().toFile();
+        final Xpp3Dom configuration = new Xpp3Dom( "configuration" );
+        configure( configuration, "sourceFile", "Main.as" );
+        configure( configuration, "targetPlayer", "11.1" );
+        configure( configuration, "outputDirectory", "${project.build.directory}" );
+
+        final Plugin plugin = new Plugin();
+        plugin.setGroupId( "net.flexmojos.oss" );
+        plugin.setArtifactId( "flexmojos-maven-plugin" );
+        plugin.setVersion( "6.0.1" );
+        plugin.setConfiguration( configuration );
+
+        final Model model = new Model();
+        model.setGroupId( "com.example" );
+        model.setArtifactId( project.getName() );
+        model.setVersion( "1.0-SNAPSHOT" );
+        model.setPackaging( "swf" );
+        model.setBuild( new Build() );
+        model.getBuild().setDirectory( new File( basedir, "target" ).getAbsolutePath() );
+        model.getBuild().setSourceDirectory( new File( basedir, "src/main/flex" ).getAbsolutePath() );
+        model.getBuild().setTestSourceDirectory( new File( basedir, "src/test/flex" ).getAbsolutePath() );
+        model.getBuild().addPlugin( plugin );
+
+        final MavenProject mavenProject = new MavenProject( model );
+        mavenProject.setFile( new File( basedir, "pom.xml" ) );
+        final Set<Artifact> artifacts = new LinkedHashSet<Artifact>();
+        for ( int i = 0; i < DEPENDENCIES; i++ )
+        {
+            final Artifact artifact =
+                new DefaultArtifact( "com.example.libraries", "library" + i, VersionRange.createFromVersion( "1.0" ),
+                                     "merged", "swc", null, new DefaultArtifactHandler( "swc" ) );
+            artifact.setFile( new File( basedir, "repository/library" + i + "-1.0.swc" ) );
+            artifacts.add( artifact );
+        }
+        mavenProject.setArtifacts( artifacts );
+        references.add( new WeakReference<Object>( mavenProject ) );
+
+        final MojoExecution compiler = new MojoExecution( plugin, "compile-swf", "default-compile-swf" );
+        compiler.setConfiguration( configuration );
+        return newFacade( project, mavenProject, Arrays.asList( compiler ) );
+    }
+
+    private static void configure( final Xpp3Dom configuration, final String name, final String value )
+    {
+        final Xpp3Dom parameter = new Xpp3Dom( name );
+        parameter.setValue( value );
+        configuration.addChild( parameter );
+    }
+
+    /**
+     * Creates a facade answering the values of a Maven project, as m2e does once the project is read.
+     */
+    private static IMavenProjectFacade newFacade( final IProject project, final MavenProject mavenProject,
+                                                  final List<MojoExecution> mojoExecutions )
+    {
+        return (IMavenProjectFacade) Proxy.newProxyInstance( IMavenProjectFacade.class.getClassLoader(),
+                                                             new Class<?>[] { IMavenProjectFacade.class },
+                                                             new InvocationHandler()
+                                                             {
+                                                                 @Override
+                                                                 public Object invoke( final Object proxy,
+                                                                                       final Method method,
+                                                                                       final Object[] args )
+                                                                 {
+                                                                     return getValue( proxy, project, mavenProject,
+                                                                                      mojoExecutions, method, args );
+                                                                 }
+                                                             } );
+    }
+
+    private static Object getValue( final Object proxy, final IProject project, final MavenProject mavenProject,
+                                    final List<MojoExecution> mojoExecutions, final Method method,
+                                    final Object[] args )
+    {
+        final String name = method.getName();
+        if ( "getMavenProject".equals( name ) )
+            return mavenProject;
+        if ( "getPackaging".equals( name ) )
+            return mavenProject.getPackaging();
+        if ( "getProject".equals( name ) )
+            return project;
+        if ( "getArtifactKey".equals( name ) )
+            return new ArtifactKey( mavenProject.getGroupId(), mavenProject.getArtifactId(), mavenProject.getVersion(),
+                                    null );
+        if ( "getMojoExecutions".equals( name ) )
+            return mojoExecutions;
+        if ( "getResourceLocations".equals( name ) )
+            return new IPath[0];
+        if ( "getProjectRelativePath".equals( name ) )
+        {
+            final IPath basedir = Path.fromOSString( mavenProject.getBasedir().getAbsolutePath() );
+            final IPath location = Path.fromOSString( (String) args[0] );
+            return basedir.isPrefixOf( location ) ? location.removeFirstSegments( basedir.segmentCount() )
+                            .setDevice( null ) : null;
+        }
+        if ( "getFullPath".equals( name ) )
+            return null;
+        if ( "equals".equals( name ) )
+            return Boolean.valueOf( proxy == args[0] );
+        if ( "hashCode".equals( name ) )
+            return Integer.valueOf( System.identityHashCode( proxy ) );
+        if ( "toString".equals( name ) )
+            return "facade of " + mavenProject.getId();
+
+        throw new UnsupportedOperationException( name );
+    }
+
+    private static void collectGarbage()
+    {
+        for ( int i = 0; i < 5; i++ )
+        {
+            System.gc();
+            System.runFinalization();
+        }
+    }
+
+    private static long getUsedMemory()
+    {
+        collectGarbage();
+        final Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private void assertCollected()
+    {
+        collectGarbage();
+
+        int retained = 0;
+        for ( final WeakReference<Object> reference : references )
+        {
+            if ( reference.get() != null )
+                retained++;
+        }
+        assertEquals( "Maven sessions and projects retained", 0, retained );
+    }
+
+    /**
+     * Checks the Maven sessions and projects have been collected, and measures the heap retained per configured project
+     * since a baseline.
+     */
+    private void assertReleased( final String mode, final long baseline )
+    {
+        assertCollected();
+
+        final long retained = Math.max( 0, getUsedMemory() - baseline ) / MODULES;
+        System.out.println( "Bytes retained per project " + mode + ": " + retained );
+        assertTrue( "Bytes retained per project " + mode + ": " + retained, retained <= RETAINED_BYTES );
+    }
+
+    /**
+     * Configuration graph of the bundle, configuring every type of project with a {@link ReactorConfigurator}.
+     */
+    private static class ReactorModule
+        extends FlashBuilderAbstractModule
+    {
+        @Override
+        protected Class<? extends AbstractConfigurator> getActionScriptProjectConfiguratorClass()
+        {
+            return ReactorConfigurator.class;
+        }
+
+        @Override
+        protected Class<? extends AbstractConfigurator> getApolloActionScriptProjectConfiguratorClass()
+        {
+            return ReactorConfigurator.class;
+        }
+
+        @Override
+        protected Class<? extends AbstractConfigurator> getFlexLibraryProjectConfiguratorClass()
+        {
+            return ReactorConfigurator.class;
+        }
+
+        @Override
+        protected Class<? extends AbstractConfigurator> getApolloProjectConfiguratorClass()
+        {
+            return ReactorConfigurator.class;
+        }
+
+        @Override
+        protected Class<? extends AbstractConfigurator> getFlexProjectConfiguratorClass()
+        {
+            return ReactorConfigurator.class;
+        }
+
+        @Override
+        protected Class<? extends FlexSDKRegistry> getFlexSDKRegistryClass()
+        {
+            return ReactorSDKRegistry.class;
+        }
+    }
+
+    /**
+     * Registry of the reactor, knowing the installed SDKs only.
+     */
+    static class ReactorSDKRegistry
+        extends FlexSDKRegistry
+    {
+    }
+
+    /**
+     * Configurator of a module of the reactor, keeping its settings as plain values like the Flash Builder settings.
+     */
+    static class ReactorConfigurator
+        extends AbstractConfigurator
+    {
+        private final String name;
+
+        private List<String> settings;
+
+        @Inject
+        ReactorConfigurator( final IMavenFlexPlugin plugin, final IProject project )
+        {
+            super( plugin );
+            this.name = project.getName();
+        }
+
+        @Override
+        protected String getProjectName()
+        {
+            return name;
+        }
+
+        @Override
+        protected void createConfiguration()
+        {
+            settings = new ArrayList<String>();
+        }
+
+        @Override
+        protected void configureMainSourceFolder()
+        {
+            settings.add( String.valueOf( plugin.getMainSourceFolder() ) );
+        }
+
+        @Override
+        protected void configureSourcePath()
+        {
+            settings.add( String.valueOf( plugin.getSourcePath().length ) );
+        }
+
+        @Override
+        protected void configureTargetPlayerVersion()
+        {
+            settings.add( plugin.getTargetPlayerVersion() );
+        }
+
+        @Override
+        protected void configureMainApplicationPath()
+        {
+            settings.add( String.valueOf( plugin.getMainApplicationPath() ) );
+        }
+
+        @Override
+        protected void configureLibraryPath()
+        {
+            settings.add( String.valueOf( plugin.getDependencies().size() ) );
+        }
+
+        @Override
+        protected void configureHTMLTemplate()
+        {
+            settings.add( String.valueOf( plugin.getContextRoot() ) );
+        }
+
+        @Override
+        protected void configureAdditionalCompilerArgs()
+        {
+            settings.add( String.valueOf( plugin.getCompilerOptions().getIncremental() ) );
+        }
+
+        @Override
+        protected void configureOutputFolderPath()
+        {
+            settings.add( String.valueOf( plugin.getOutputFolderPath() ) );
+        }
+
+        @Override
+        protected boolean saveDescription()
+        {
+            return true;
+        }
+
+        @Override
+        protected String loadFingerprint()
+        {
+            // Each configurator configures its project, as after a change of the pom.
+            return null;
+        }
+
+        @Override
+        protected void storeFingerprint( final String fingerprint )
+        {
+        }
+
+        @Override
+        protected void release()
+        {
+            settings = null;
+            super.release();
+        }
+    }
+}
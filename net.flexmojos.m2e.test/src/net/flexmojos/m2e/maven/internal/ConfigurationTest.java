@@ -0,0 +1,71 @@
+package net.flexmojos.m2e.maven.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringReader;
+import java.util.Map;
+
+import org.apache.maven.model.Plugin;
+import org.apache.maven.plugin.MojoExecution;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.codehaus.plexus.util.xml.Xpp3DomBuilder;
+import org.junit.Test;
+
+/**
+ * Checks the evaluation of the configuration values of a mojo execution.
+ *
+ * @author Sylvain Lecoy (sylvain.lecoy@gmail.com)
+ */
+public class ConfigurationTest
+{
+    /**
+     * Cache answering every expression with itself, the configurations under test hold no expression.
+     */
+    private final EvaluationCache cache = new EvaluationCache( null )
+    {
+        @Override
+        Object evaluate( final MojoExecution mojoExecution, final String expression )
+        {
+            return expression;
+        }
+    };
+
+    @Test
+    public void keepsTheNamespacesWithoutManifest()
+        throws Exception
+    {
+        final Configuration configuration =
+            configuration( "<configuration>\n  <namespaces>\n    <namespace>\n"
+                + "      <uri>http://library.example.com</uri>\n      <manifest>manifest.xml</manifest>\n"
+                + "    </namespace>\n    <namespace>\n      <uri>http://generated.example.com</uri>\n"
+                + "    </namespace>\n    <namespace>\n      <manifest>orphan.xml</manifest>\n    </namespace>\n"
+                + "  </namespaces>\n</configuration>\n" );
+
+        final Map<String, String> namespaces = configuration.evaluateMap( "namespaces", "uri", "manifest" );
+
+        assertEquals( "[http://library.example.com, http://generated.example.com]", namespaces.keySet().toString() );
+        assertEquals( "manifest.xml", namespaces.get( "http://library.example.com" ) );
+        assertTrue( namespaces.containsKey( "http://generated.example.com" ) );
+        assertNull( namespaces.get( "http://generated.example.com" ) );
+    }
+
+    @Test
+    public void evaluatesAnUndefinedMapAsEmpty()
+        throws Exception
+    {
+        assertTrue( configuration( "<configuration/>" ).evaluateMap( "namespaces", "uri", "manifest" ).isEmpty() );
+    }
+
+    private Configuration configuration( final String xml )
+        throws Exception
+    {
+        final Xpp3Dom dom = Xpp3DomBuilder.build( new StringReader( xml ) );
+        final Plugin plugin = new Plugin();
+        plugin.setConfiguration( dom );
+        final MojoExecution mojoExecution = new MojoExecution( plugin, "compile-swc", "default-compile-swc" );
+        mojoExecution.setConfiguration( dom );
+        return new Configuration( cache, mojoExecution );
+    }
+}
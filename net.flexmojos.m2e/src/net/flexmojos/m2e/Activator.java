@@ -0,0 +1,204 @@
+package net.flexmojos.m2e;
+
+import java.util.Hashtable;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import net.flexmojos.m2e.flex.SwcCatalogIndex;
+import net.flexmojos.m2e.maven.internal.discovery.ReactorIndex;
+import net.flexmojos.m2e.project.ConfigurationMetrics;
+import net.flexmojos.m2e.project.internal.fb47.FlashBuilder47Module;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Plugin;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.osgi.service.debug.DebugOptions;
+import org.eclipse.osgi.service.debug.DebugOptionsListener;
+import org.eclipse.osgi.service.debug.DebugTrace;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.ServiceRegistration;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+
+/**
+ * Activator of the bundle, owner of the injector holding the configuration graph.
+ *
+ * The injector is created the first time a project is configured and lives as long as the bundle, so the workspace
+ * wide services it holds are shared by every project configurator m2e instantiates, and are stopped with the bundle.
+ * The activator also follows the tracing options of the bundle, to trace the configuration metrics, and logs the
+ * warnings of the classes shared with the headless runner, which log through <code>java.util.logging</code>.
+ *
+ * @author Sylvain Lecoy (sylvain.lecoy@gmail.com)
+ */
+public class Activator extends Plugin
+    implements DebugOptionsListener
+{
+    public static final String PLUGIN_ID = "net.flexmojos.m2e";
+
+    private static Activator plugin;
+
+    private FlashBuilderAbstractModule module;
+
+    private Injector injector;
+
+    private ServiceRegistration debugRegistration;
+
+    private ConfigurationMetrics.Trace metricsTrace;
+
+    /**
+     * Parent logger of the classes of the bundle, referenced so its handler is not lost with it.
+     */
+    private Logger logger;
+
+    private Handler logHandler;
+
+    @Override
+    public void start( final BundleContext context )
+        throws Exception
+    {
+        super.start( context );
+        plugin = this;
+
+        logger = Logger.getLogger( PLUGIN_ID );
+        logHandler = new LogHandler();
+        logger.addHandler( logHandler );
+        logger.setUseParentHandlers( false );
+
+        // The listener is called back with the current options as soon as it is registered.
+        final Hashtable<String, String> properties = new Hashtable<String, String>();
+        properties.put( DebugOptions.LISTENER_SYMBOLICNAME, PLUGIN_ID );
+        debugRegistration = context.registerService( DebugOptionsListener.class.getName(), this, properties );
+    }
+
+    @Override
+    public void optionsChanged( final DebugOptions options )
+    {
+        final boolean tracing = options.getBooleanOption( PLUGIN_ID + ConfigurationMetrics.TRACE_OPTION, false );
+        final DebugTrace debugTrace = tracing ? options.newDebugTrace( PLUGIN_ID, ConfigurationMetrics.class ) : null;
+        synchronized ( this )
+        {
+            metricsTrace = debugTrace == null ? null : new ConfigurationMetrics.Trace()
+            {
+                @Override
+                public void trace( final String option, final String message )
+                {
+                    debugTrace.trace( option, message );
+                }
+            };
+            if ( injector != null )
+                injector.getInstance( ConfigurationMetrics.class ).setTrace( metricsTrace );
+        }
+    }
+
+    @Override
+    public void stop( final BundleContext context )
+        throws Exception
+    {
+        if ( debugRegistration != null )
+        {
+            debugRegistration.unregister();
+            debugRegistration = null;
+        }
+        synchronized ( this )
+        {
+            if ( injector != null )
+            {
+                injector.getInstance( ReactorIndex.class ).stop();
+                injector.getInstance( SwcCatalogIndex.class ).dispose();
+            }
+            injector = null;
+            module = null;
+        }
+        if ( logger != null )
+        {
+            logger.removeHandler( logHandler );
+            logger.setUseParentHandlers( true );
+            logger = null;
+            logHandler = null;
+        }
+        plugin = null;
+        super.stop( context );
+    }
+
+    public static Activator getDefault()
+    {
+        return plugin;
+    }
+
+    /**
+     * Logs a warning in the log of the bundle, or on the standard error stream when the platform is not running.
+     *
+     * @param message
+     * @param exception can be <tt>null</tt>.
+     */
+    public static void warn( final String message, final Throwable exception )
+    {
+        final Activator activator = plugin;
+        if ( activator != null )
+            activator.getLog().log( new Status( IStatus.WARNING, PLUGIN_ID, message, exception ) );
+        else
+            System.err.println( "[WARNING] " + message );
+    }
+
+    /**
+     * Gets the injector holding the configuration graph, creating it the first time.
+     */
+    public synchronized Injector getInjector()
+    {
+        if ( injector == null )
+        {
+            // TODO: find the current Flash Builder version and set the class module compatible with the platform.
+            module = new FlashBuilder47Module();
+            injector = Guice.createInjector( module );
+            injector.getInstance( ConfigurationMetrics.class ).setTrace( metricsTrace );
+            injector.getInstance( ReactorIndex.class ).start();
+        }
+        return injector;
+    }
+
+    /**
+     * Gets the metrics recorded by the configurations of the workspace projects.
+     */
+    public ConfigurationMetrics getMetrics()
+    {
+        return getInjector().getInstance( ConfigurationMetrics.class );
+    }
+
+    /**
+     * Gets the module of the injector, which selects the configurator of a project.
+     */
+    public synchronized FlashBuilderAbstractModule getModule()
+    {
+        getInjector();
+        return module;
+    }
+
+    /**
+     * Logs the warnings and errors of the bundle logged through <code>java.util.logging</code>.
+     */
+    private static class LogHandler
+        extends Handler
+    {
+        @Override
+        public void publish( final LogRecord record )
+        {
+            if ( record.getLevel().intValue() >= Level.WARNING.intValue() )
+                warn( record.getMessage(), record.getThrown() );
+        }
+
+        @Override
+        public void flush()
+        {
+            // Nothing is buffered.
+        }
+
+        @Override
+        public void close()
+        {
+            // Same as above.
+        }
+    }
+}
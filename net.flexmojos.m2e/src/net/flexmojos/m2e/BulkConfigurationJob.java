@@ -0,0 +1,324 @@
+package net.flexmojos.m2e;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import net.flexmojos.m2e.project.AbstractConfigurator;
+
+import org.apache.maven.artifact.Artifact;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.MultiStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.ISchedulingRule;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.m2e.core.project.IMavenProjectFacade;
+
+/**
+ * Configures a batch of projects in two phases.
+ *
+ * The first phase prepares the Maven side of every project (fingerprint, artifacts, evaluated mojo configurations) in
+ * parallel on a bounded pool of workers. The second phase applies the Flash Builder settings in waves following the
+ * reactor dependencies, so library projects are configured before the applications consuming them. Each project of a
+ * wave is configured by its own job holding the project as scheduling rule, so unrelated projects do not serialize.
+ * The failure of a project is reported as a marker of the project.
+ *
+ * @author Sylvain Lecoy (sylvain.lecoy@gmail.com)
+ */
+public class BulkConfigurationJob extends Job
+{
+    private static final String PLUGIN_ID = "net.flexmojos.m2e";
+
+    private final Map<IProject, Entry> pending = new LinkedHashMap<IProject, Entry>();
+
+    public BulkConfigurationJob()
+    {
+        super( "Configuring Flash Builder projects" );
+    }
+
+    /**
+     * Adds a project to the next batch and schedules the job.
+     *
+     * @param project
+     * @param facade
+     * @param configurator
+     */
+    public void add( final IProject project, final IMavenProjectFacade facade, final AbstractConfigurator configurator )
+    {
+        synchronized ( pending )
+        {
+            pending.put( project, new Entry( project, facade, configurator ) );
+        }
+        schedule();
+    }
+
+    @Override
+    protected IStatus run( final IProgressMonitor monitor )
+    {
+        // Waits for the workspace operation requesting the configurations, such as an m2e import, to complete so the
+        // whole batch is drained at once.
+        final ISchedulingRule root = ResourcesPlugin.getWorkspace().getRoot();
+        Job.getJobManager().beginRule( root, monitor );
+        Job.getJobManager().endRule( root );
+
+        final List<Entry> entries;
+        synchronized ( pending )
+        {
+            entries = new ArrayList<Entry>( pending.values() );
+            pending.clear();
+        }
+
+        final MultiStatus status = new MultiStatus( PLUGIN_ID, IStatus.OK, "Flash Builder configuration", null );
+        monitor.beginTask( getName(), entries.size() * 2 );
+        try
+        {
+            // Only the entries to configure are kept, the others are released with their configurator.
+            final List<Entry> prepared = prepare( entries, status, monitor );
+            entries.clear();
+            for ( final List<Entry> wave : getWaves( prepared ) )
+            {
+                if ( monitor.isCanceled() )
+                {
+                    return Status.CANCEL_STATUS;
+                }
+                apply( wave, status, monitor );
+            }
+        }
+        finally
+        {
+            monitor.done();
+        }
+
+        return status;
+    }
+
+    /**
+     * Prepares the entries in parallel and returns the ones which need to be configured.
+     */
+    private List<Entry> prepare( final List<Entry> entries, final MultiStatus status, final IProgressMonitor monitor )
+    {
+        final List<Entry> prepared = new ArrayList<Entry>();
+        if ( entries.isEmpty() )
+        {
+            return prepared;
+        }
+
+        final int workers = Math.min( entries.size(), Runtime.getRuntime().availableProcessors() );
+        final ExecutorService executor = Executors.newFixedThreadPool( workers );
+        try
+        {
+            final List<Future<Boolean>> futures = new ArrayList<Future<Boolean>>();
+            for ( final Entry entry : entries )
+            {
+                futures.add( executor.submit( entry ) );
+            }
+
+            for ( int i = 0; i < entries.size(); i++ )
+            {
+                final Entry entry = entries.get( i );
+                try
+                {
+                    if ( futures.get( i ).get().booleanValue() )
+                    {
+                        prepared.add( entry );
+                    }
+                    else
+                    {
+                        ConfigurationMarkers.report( entry.project, Status.OK_STATUS );
+                    }
+                }
+                catch ( final ExecutionException e )
+                {
+                    final IStatus error = error( entry.project, e.getCause() );
+                    ConfigurationMarkers.report( entry.project, error );
+                    status.add( error );
+                }
+                catch ( final InterruptedException e )
+                {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                monitor.worked( 1 );
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        return prepared;
+    }
+
+    /**
+     * Applies the settings of a wave, each project in its own job, and waits for all of them.
+     */
+    private void apply( final List<Entry> wave, final MultiStatus status, final IProgressMonitor monitor )
+    {
+        final List<Job> jobs = new ArrayList<Job>( wave.size() );
+        for ( final Entry entry : wave )
+        {
+            final Job job = new Job( "Configuring " + entry.project.getName() )
+            {
+                @Override
+                protected IStatus run( final IProgressMonitor monitor )
+                {
+                    IStatus result = Status.OK_STATUS;
+                    try
+                    {
+                        entry.configurator.apply();
+                    }
+                    catch ( final RuntimeException e )
+                    {
+                        result = error( entry.project, e );
+                    }
+                    ConfigurationMarkers.report( entry.project, result );
+                    return result;
+                }
+            };
+            job.setRule( entry.project );
+            job.setSystem( true );
+            job.schedule();
+            jobs.add( job );
+        }
+
+        for ( final Job job : jobs )
+        {
+            try
+            {
+                job.join();
+            }
+            catch ( final InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if ( job.getResult() != null && !job.getResult().isOK() )
+            {
+                status.add( job.getResult() );
+            }
+            monitor.worked( 1 );
+        }
+    }
+
+    /**
+     * Sorts the entries in topological waves: each wave only depends on entries of the previous waves. Entries involved
+     * in a dependency cycle are put together in the last wave.
+     */
+    private List<List<Entry>> getWaves( final List<Entry> entries )
+    {
+        final Map<String, Entry> byKey = new HashMap<String, Entry>();
+        for ( final Entry entry : entries )
+        {
+            byKey.put( entry.key, entry );
+        }
+
+        // Keeps the dependencies to the projects of the batch only.
+        final Map<Entry, Set<Entry>> dependencies = new LinkedHashMap<Entry, Set<Entry>>();
+        for ( final Entry entry : entries )
+        {
+            final Set<Entry> required = new HashSet<Entry>();
+            for ( final String key : entry.dependencies )
+            {
+                final Entry dependency = byKey.get( key );
+                if ( dependency != null && dependency != entry )
+                {
+                    required.add( dependency );
+                }
+            }
+            dependencies.put( entry, required );
+        }
+
+        final List<List<Entry>> waves = new LinkedList<List<Entry>>();
+        while ( !dependencies.isEmpty() )
+        {
+            final List<Entry> wave = new ArrayList<Entry>();
+            for ( final Map.Entry<Entry, Set<Entry>> dependency : dependencies.entrySet() )
+            {
+                if ( dependency.getValue().isEmpty() )
+                {
+                    wave.add( dependency.getKey() );
+                }
+            }
+
+            if ( wave.isEmpty() )
+            {
+                // Cycle detected, the remaining entries are configured together.
+                wave.addAll( dependencies.keySet() );
+            }
+
+            for ( final Entry entry : wave )
+            {
+                dependencies.remove( entry );
+            }
+            for ( final Set<Entry> required : dependencies.values() )
+            {
+                required.removeAll( wave );
+            }
+            waves.add( wave );
+        }
+
+        return waves;
+    }
+
+    @Override
+    public boolean belongsTo( final Object family )
+    {
+        return ProjectConfigurationJob.FAMILY == family;
+    }
+
+    private static IStatus error( final IProject project, final Throwable e )
+    {
+        return new Status( IStatus.ERROR, PLUGIN_ID, "Could not configure " + project.getName(), e );
+    }
+
+    /**
+     * A project of the batch, with the reactor keys (groupId:artifactId) of itself and of its dependencies. The keys
+     * are extracted when the entry is created, so the batch does not hold the Maven projects.
+     */
+    private static class Entry implements Callable<Boolean>
+    {
+        final IProject project;
+
+        final AbstractConfigurator configurator;
+
+        final String key;
+
+        final Set<String> dependencies = new HashSet<String>();
+
+        Entry( final IProject project, final IMavenProjectFacade facade, final AbstractConfigurator configurator )
+        {
+            this.project = project;
+            this.configurator = configurator;
+            this.key = facade.getArtifactKey().getGroupId() + ":" + facade.getArtifactKey().getArtifactId();
+            for ( final Artifact artifact : facade.getMavenProject().getArtifacts() )
+            {
+                dependencies.add( artifact.getGroupId() + ":" + artifact.getArtifactId() );
+            }
+        }
+
+        @Override
+        public Boolean call()
+        {
+            if ( !configurator.prepare() )
+            {
+                return Boolean.FALSE;
+            }
+
+            configurator.resolve();
+            return Boolean.TRUE;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package net.flexmojos.m2e;
+
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IStatus;
+
+/**
+ * Reports the result of a background configuration on its project, so a failure is visible in the Problems view
+ * rather than only in the error log.
+ *
+ * @author Sylvain Lecoy (sylvain.lecoy@gmail.com)
+ */
+public final class ConfigurationMarkers
+{
+    /**
+     * Type of the markers, declared in the plugin.xml.
+     */
+    public static final String MARKER_TYPE = Activator.PLUGIN_ID + ".configurationProblem";
+
+    private ConfigurationMarkers()
+    {
+    }
+
+    /**
+     * Replaces the configuration markers of a project by the one of a status: an error status adds an error marker,
+     * any other status only clears the previous ones.
+     *
+     * @param project
+     * @param status
+     */
+    public static void report( final IProject project, final IStatus status )
+    {
+        if ( !project.isAccessible() || status.getSeverity() == IStatus.CANCEL )
+            return;
+
+        try
+        {
+            project.deleteMarkers( MARKER_TYPE, false, IResource.DEPTH_ZERO );
+            if ( status.getSeverity() == IStatus.ERROR )
+            {
+                final Throwable exception = status.getException();
+                final IMarker marker = project.createMarker( MARKER_TYPE );
+                marker.setAttribute( IMarker.SEVERITY, IMarker.SEVERITY_ERROR );
+                marker.setAttribute( IMarker.MESSAGE, exception == null || exception.getMessage() == null
+                                ? status.getMessage() : status.getMessage() + ": " + exception.getMessage() );
+            }
+        }
+        catch ( final CoreException e )
+        {
+            Activator.warn( "Could not report the configuration status of " + project.getName(), e );
+        }
+    }
+}
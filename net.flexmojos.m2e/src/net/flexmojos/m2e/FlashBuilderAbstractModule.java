@@ -2,85 +2,166 @@ package net.flexmojos.m2e;
 
 import static net.flexmojos.oss.plugin.common.FlexExtension.AIR;
 import static net.flexmojos.oss.plugin.common.FlexExtension.SWC;
+import net.flexmojos.m2e.flex.FlexSDKRegistry;
+import net.flexmojos.m2e.flex.SwcCatalogIndex;
+import net.flexmojos.m2e.maven.ArtifactIndex;
 import net.flexmojos.m2e.maven.MavenFlexModule;
+import net.flexmojos.m2e.maven.internal.discovery.ReactorIndex;
 import net.flexmojos.m2e.project.AbstractConfigurator;
+import net.flexmojos.m2e.project.ConfigurationContext;
+import net.flexmojos.m2e.project.ConfigurationMetrics;
+import net.flexmojos.m2e.project.ConfigurationScope;
+import net.flexmojos.m2e.project.ConfigurationScoped;
 
+import org.apache.maven.execution.MavenSession;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.m2e.core.project.IMavenProjectFacade;
-import org.eclipse.m2e.core.project.configurator.ProjectConfigurationRequest;
 
 import com.google.inject.AbstractModule;
-import com.google.inject.Provides;
+import com.google.inject.Injector;
+import com.google.inject.Singleton;
 
 /**
  * Flash Builder abstract components configuration. Depending on the version of FlashBuilder, a specialized version of
  * this module refines the implementation of the abstraction interface AbstractProjectConfigurator.
  *
+ * The module is installed once in a long-lived injector, which holds every binding of the configuration graph. The
+ * values of a configuration request (IProject, IMavenProjectFacade, MavenSession and IProgressMonitor) are seeded in a
+ * {@link ConfigurationContext}, the objects derived from them are scoped to it with {@link ConfigurationScoped}.
+ *
  * @author Sylvain Lecoy (sylvain.lecoy@gmail.com)
  */
 public abstract class FlashBuilderAbstractModule extends AbstractModule
 {
-    private final IProject project;
-
-    private final IProgressMonitor monitor;
-
-    private final MavenFlexModule facade;
 
-    protected FlashBuilderAbstractModule( final ProjectConfigurationRequest request,
-                                          final IProgressMonitor monitor )
+    @Override
+    protected void configure()
     {
-        this.monitor = monitor;
-        this.project = request.getProject();
-        this.facade = new MavenFlexModule( request.getMavenProjectFacade(), monitor, request.getMavenSession() );
+        // Workspace wide services.
+        bind( ConfigurationMetrics.class ).in( Singleton.class );
+        bind( SwcCatalogIndex.class ).in( Singleton.class );
+        bind( FlexSDKRegistry.class ).to( getFlexSDKRegistryClass() ).in( Singleton.class );
+        bind( ReactorIndex.class ).in( Singleton.class );
+
+        // Values of the configuration request.
+        bindScope( ConfigurationScoped.class, new ConfigurationScope() );
+        bindSeeded( IProject.class );
+        bindSeeded( IMavenProjectFacade.class );
+        bindSeeded( MavenSession.class );
+        bindSeeded( IProgressMonitor.class );
+        bindSeeded( ConfigurationContext.class );
+
+        // Installs the facade to maven project, which selects the adapters depending on the version of the Maven Flex
+        // Plug-in of the project.
+        install( new MavenFlexModule() );
     }
 
-    @Provides
-    IProject getProject(final IMavenProjectFacade facade)
+    private <T> void bindSeeded( final Class<T> type )
     {
-        return project;
+        bind( type ).toProvider( ConfigurationScope.seeded( type ) ).in( ConfigurationScoped.class );
     }
 
-    @Provides
-    IProgressMonitor getProgressMonitor()
+    /**
+     * Creates the configurator of a project: the natures of the project are added, then the configurator matching them
+     * is created in the context of the configuration.
+     *
+     * @param injector the injector holding this module.
+     * @param context the context seeded with the values of the configuration request.
+     * @return
+     */
+    public AbstractConfigurator getConfigurator( final Injector injector, final ConfigurationContext context )
     {
-        return monitor;
+        final ConfigurationContext previous = context.enter();
+        try
+        {
+            final IMavenProjectFacade facade = injector.getInstance( IMavenProjectFacade.class );
+            final Class<? extends AbstractConfigurator> configurator =
+                getConfiguratorClass( injector.getInstance( IProject.class ), facade.getPackaging(),
+                                      injector.getInstance( ArtifactIndex.class ),
+                                      injector.getInstance( IProgressMonitor.class ) );
+            return injector.getInstance( configurator );
+        }
+        finally
+        {
+            ConfigurationContext.exit( previous );
+        }
     }
 
-    @Override
-    protected void configure()
+    protected abstract Class<? extends AbstractConfigurator> getActionScriptProjectConfiguratorClass();
+
+    protected abstract Class<? extends AbstractConfigurator> getApolloActionScriptProjectConfiguratorClass();
+
+    protected abstract Class<? extends AbstractConfigurator> getFlexLibraryProjectConfiguratorClass();
+
+    protected abstract Class<? extends AbstractConfigurator> getApolloProjectConfiguratorClass();
+
+    protected abstract Class<? extends AbstractConfigurator> getFlexProjectConfiguratorClass();
+
+    /**
+     * Gets the registry listing the SDKs known by this version of Flash Builder, a sub-class of FlexSDKRegistry.
+     */
+    protected abstract Class<? extends FlexSDKRegistry> getFlexSDKRegistryClass();
+
+    /**
+     * Short-hand method for wrapping an "addNature" operation.
+     *
+     * @param project
+     * @param natureId
+     * @param monitor
+     */
+    private void addNature( final IProject project, final String natureId, final IProgressMonitor monitor )
     {
-        // Installs the facade to maven project, by configuring a concrete module depending on the version of the Maven
-        // Flex Plug-in available.
-        install( facade );
+        try
+        {
+            org.eclipse.m2e.core.project.configurator.AbstractProjectConfigurator.addNature( project, natureId, monitor );
+        }
+        catch ( final CoreException e )
+        {
+            throw new RuntimeException( e );
+        }
+    }
 
+    /**
+     * Adds the natures of a project, and selects its configurator class.
+     *
+     * @param project
+     * @param packaging
+     * @param artifacts
+     * @param monitor
+     * @return
+     */
+    private Class<? extends AbstractConfigurator> getConfiguratorClass( final IProject project,
+                                                                        final String packaging,
+                                                                        final ArtifactIndex artifacts,
+                                                                        final IProgressMonitor monitor )
+    {
         // Adds the ActionScript nature.
         addNature( project, "com.adobe.flexbuilder.project.actionscriptnature", monitor );
-        // Sets the base project configurator to an ActionScript project configurator. While a project can have multiple
-        // natures, a project can not have more than one configurator. The algorithm bellow is based on "the last
-        // assignment is the right one" adding natures to the project as the execution flow goes into the branches but
-        // overriding configurators to eventually define the project.
+        // Sets the base project configurator to an ActionScript project configurator. While a project can have
+        // multiple natures, a project can not have more than one configurator. The algorithm bellow is based on
+        // "the last assignment is the right one" adding natures to the project as the execution flow goes into the
+        // branches but overriding configurators to eventually define the project.
         Class<? extends AbstractConfigurator> configurator = getActionScriptProjectConfiguratorClass();
 
-        if ( facade.isApolloProject() )
+        if ( artifacts.isApolloProject() )
         {
-            // An Apollo project exists in two flavors: ApolloActionScriptProject, and ApolloProject. While the former
-            // directly extends from ActionScriptProject, the later inherits from FlexProject, so it is perfectly
-            // possible for an Apollo project to have a Flex nature as well.
+            // An Apollo project exists in two flavors: ApolloActionScriptProject, and ApolloProject. While the
+            // former directly extends from ActionScriptProject, the later inherits from FlexProject, so it is
+            // perfectly possible for an Apollo project to have a Flex nature as well.
             addNature( project, "com.adobe.flexbuilder.project.apollonature", monitor );
             // The configurator will replace the ActionScript project configurator initially set by an
-            // ApolloActionScript project configurator. Later in the execution flow, in the case a
-            // project have the Flex nature as well, the configurator will be replaced by a "pure" Apollo project
-            // configurator.
+            // ApolloActionScript project configurator. Later in the execution flow, in the case a project have the
+            // Flex nature as well, the configurator will be replaced by a "pure" Apollo project configurator.
             configurator = getApolloActionScriptProjectConfiguratorClass();
         }
 
-        if ( facade.isFlexProject() )
+        if ( artifacts.isFlexProject() )
         {
-            // Depending on the packaging, a Flex project can be a FlexLibraryProject (SWC), a FlexProject (SWF) or an
-            // ApolloProject (AIR).
-            if ( SWC.equals( facade.getPackaging() ) )
+            // Depending on the packaging, a Flex project can be a FlexLibraryProject (SWC), a FlexProject (SWF) or
+            // an ApolloProject (AIR).
+            if ( SWC.equals( packaging ) )
             {
                 addNature( project, "com.adobe.flexbuilder.project.flexlibnature", monitor );
                 configurator = getFlexLibraryProjectConfiguratorClass();
@@ -88,10 +169,10 @@ public abstract class FlashBuilderAbstractModule extends AbstractModule
             }
             else
             {
-                // An AIR and SWF packaging indicates respectively an ApolloProject and a FlexProject, in both case the
-                // Flex nature is added to the project.
+                // An AIR and SWF packaging indicates respectively an ApolloProject and a FlexProject, in both case
+                // the Flex nature is added to the project.
                 addNature( project, "com.adobe.flexbuilder.project.flexnature", monitor );
-                if ( AIR.equals( facade.getPackaging() ) )
+                if ( AIR.equals( packaging ) )
                 {
                     configurator = getApolloProjectConfiguratorClass();
                     // End of algorithm.
@@ -103,43 +184,14 @@ public abstract class FlashBuilderAbstractModule extends AbstractModule
                 }
             }
         }
-        else if ( SWC.equals( facade.getPackaging() ) )
+        else if ( SWC.equals( packaging ) )
         {
-            // In the case there is no declared Flex dependencies, and the packaging is SWC, its an ActionScriptProject
-            // with an aslib nature.
+            // In the case there is no declared Flex dependencies, and the packaging is SWC, its an
+            // ActionScriptProject with an aslib nature.
             addNature( project, "com.adobe.flexbuilder.project.aslibnature", monitor );
             // End of algorithm.
         }
 
-        bind( AbstractConfigurator.class ).to( configurator );
-    }
-
-    protected abstract Class<? extends AbstractConfigurator> getActionScriptProjectConfiguratorClass();
-
-    protected abstract Class<? extends AbstractConfigurator> getApolloActionScriptProjectConfiguratorClass();
-
-    protected abstract Class<? extends AbstractConfigurator> getFlexLibraryProjectConfiguratorClass();
-
-    protected abstract Class<? extends AbstractConfigurator> getApolloProjectConfiguratorClass();
-
-    protected abstract Class<? extends AbstractConfigurator> getFlexProjectConfiguratorClass();
-
-    /**
-     * Short-hand method for wrapping an "addNature" operation.
-     *
-     * @param project
-     * @param natureId
-     * @param monitor
-     */
-    private void addNature( final IProject project, final String natureId, final IProgressMonitor monitor )
-    {
-        try
-        {
-            org.eclipse.m2e.core.project.configurator.AbstractProjectConfigurator.addNature( project, natureId, monitor );
-        }
-        catch ( final CoreException e )
-        {
-            throw new RuntimeException( e );
-        }
+        return configurator;
     }
 }
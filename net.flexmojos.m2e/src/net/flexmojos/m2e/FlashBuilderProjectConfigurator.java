@@ -5,19 +5,27 @@ import static net.flexmojos.oss.plugin.common.FlexExtension.SWC;
 import static net.flexmojos.oss.plugin.common.FlexExtension.SWF;
 
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 
 import net.flexmojos.m2e.project.AbstractConfigurator;
-import net.flexmojos.m2e.project.internal.fb47.FlashBuilder47Module;
+import net.flexmojos.m2e.project.ConfigurationContext;
 
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.MojoExecution;
+import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.jobs.IJobChangeEvent;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.JobChangeAdapter;
+import org.eclipse.m2e.core.lifecyclemapping.model.IPluginExecutionMetadata;
 import org.eclipse.m2e.core.project.IMavenProjectFacade;
+import org.eclipse.m2e.core.project.configurator.AbstractBuildParticipant;
 import org.eclipse.m2e.core.project.configurator.AbstractProjectConfigurator;
 import org.eclipse.m2e.core.project.configurator.ProjectConfigurationRequest;
 
-import com.google.inject.Guice;
-import com.google.inject.Injector;
-
 /**
  * Configures a FlashBuilder project from Maven.
  *
@@ -25,11 +33,22 @@ import com.google.inject.Injector;
  */
 public class FlashBuilderProjectConfigurator extends AbstractProjectConfigurator
 {
+    /**
+     * System property enabling the bulk mode, where projects are prepared in parallel and configured in dependency
+     * order by a {@link BulkConfigurationJob} instead of synchronously.
+     */
+    public static final String BULK_PROPERTY = "net.flexmojos.m2e.bulk";
 
-    public FlashBuilderProjectConfigurator()
-    {
-        // TODO: find the current Flash Builder version and set the class module compatible with the platform.
-    }
+    /**
+     * System property enabling the asynchronous mode, where each project is configured in the background by its
+     * {@link ProjectConfigurationJob}, merging bursts of requests, instead of synchronously. Failures are then reported
+     * as markers of the project rather than to m2e.
+     */
+    public static final String ASYNC_PROPERTY = "net.flexmojos.m2e.async";
+
+    private final BulkConfigurationJob bulkJob = new BulkConfigurationJob();
+
+    private final Map<IProject, ProjectConfigurationJob> jobs = new HashMap<IProject, ProjectConfigurationJob>();
 
     /**
      * Adds the Flash/Flex/Air nature to projects qualified as Flash Builder compatible, i.e, having a packaging of type
@@ -46,12 +65,102 @@ public class FlashBuilderProjectConfigurator extends AbstractProjectConfigurator
             return;
         }
 
-        // Creates the project configurator through the FlashBuilderModule.
-        final FlashBuilderAbstractModule module = new FlashBuilder47Module( request, monitor );
-        final Injector injector = Guice.createInjector( module );
-        final AbstractConfigurator configurator = injector.getInstance( AbstractConfigurator.class );
+        // In bulk and asynchronous modes, the configuration outlives the request and its progress monitor.
+        final boolean bulk = Boolean.getBoolean( BULK_PROPERTY );
+        final boolean async = !bulk && Boolean.getBoolean( ASYNC_PROPERTY );
+
+        final IProgressMonitor projectMonitor = bulk || async ? new NullProgressMonitor() : monitor;
+
+        // Creates the project configurator from the injector of the bundle, the request only seeds its own values.
+        final ConfigurationContext context = new ConfigurationContext();
+        context.seed( IProject.class, request.getProject() );
+        context.seed( IMavenProjectFacade.class, facade );
+        context.seed( MavenSession.class, request.getMavenSession() );
+        context.seed( IProgressMonitor.class, projectMonitor );
+
+        final Activator activator = Activator.getDefault();
+        final AbstractConfigurator configurator =
+            activator.getModule().getConfigurator( activator.getInjector(), context );
+
+        if ( bulk )
+        {
+            bulkJob.add( request.getProject(), facade, configurator );
+        }
+        else if ( async )
+        {
+            configureInBackground( request.getProject(), configurator );
+        }
+        else
+        {
+            configurator.configure();
+        }
+    }
+
+    /**
+     * Runs the "generate" goal incrementally from the workspace build, the other goals are only read to configure the
+     * project.
+     */
+    @Override
+    public AbstractBuildParticipant getBuildParticipant( final IMavenProjectFacade projectFacade,
+                                                         final MojoExecution execution,
+                                                         final IPluginExecutionMetadata executionMetadata )
+    {
+        if ( "generate".equals( execution.getGoal() ) )
+        {
+            return new GeneratorBuildParticipant( execution );
+        }
+        return null;
+    }
+
+    /**
+     * Cancels the pending configuration of a project no longer managed by m2e.
+     */
+    @Override
+    public void unconfigure( final ProjectConfigurationRequest request, final IProgressMonitor monitor )
+        throws CoreException
+    {
+        final ProjectConfigurationJob job;
+        synchronized ( jobs )
+        {
+            job = jobs.remove( request.getProject() );
+        }
+        if ( job != null )
+        {
+            job.cancel();
+        }
+        super.unconfigure( request, monitor );
+    }
 
-        configurator.configure();
+    /**
+     * Requests the configuration of a project to its job, creating it when none is pending or running. The job is
+     * forgotten as soon as it is done without any further request, so only the active jobs are kept.
+     */
+    private void configureInBackground( final IProject project, final AbstractConfigurator configurator )
+    {
+        synchronized ( jobs )
+        {
+            ProjectConfigurationJob job = jobs.get( project );
+            if ( job == null )
+            {
+                final ProjectConfigurationJob created = new ProjectConfigurationJob( project );
+                created.addJobChangeListener( new JobChangeAdapter()
+                {
+                    @Override
+                    public void done( final IJobChangeEvent event )
+                    {
+                        synchronized ( jobs )
+                        {
+                            if ( jobs.get( project ) == created && created.getState() == Job.NONE
+                                && !created.hasPending() )
+                                jobs.remove( project );
+                        }
+                    }
+                } );
+                job = created;
+                jobs.put( project, job );
+            }
+            job.configure( configurator );
+        }
     }
 
     private boolean isQualifiedAsFlashBuilderProject( final IMavenProjectFacade facade )
@@ -0,0 +1,161 @@
+package net.flexmojos.m2e;
+
+import java.io.File;
+import java.util.List;
+import java.util.Set;
+
+import net.flexmojos.m2e.maven.internal.Fingerprint;
+
+import org.apache.maven.artifact.DependencyResolutionRequiredException;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.project.MavenProject;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IncrementalProjectBuilder;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.m2e.core.MavenPlugin;
+import org.eclipse.m2e.core.project.configurator.MojoExecutionBuildParticipant;
+import org.sonatype.plexus.build.incremental.BuildContext;
+
+/**
+ * Runs the Flexmojos "generate" goal from the workspace build, so the ActionScript generated from Java classes does
+ * not go stale between two Maven builds.
+ *
+ * The goal reads the compile class path of the project. On an incremental build, it is only executed when the pom or
+ * one of the class path elements changed: the elements inside the project are checked against the delta of the build
+ * context, the other ones (jars and the output folders of other modules) against a stamp of their content recorded by
+ * the previous run. After an execution, only the files written by the generator are refreshed, so Flash Builder
+ * recompiles the affected types only.
+ *
+ * @author Sylvain Lecoy (sylvain.lecoy@gmail.com)
+ */
+public class GeneratorBuildParticipant extends MojoExecutionBuildParticipant
+{
+    private static final String STAMP_KEY = GeneratorBuildParticipant.class.getName() + ".stamp";
+
+    public GeneratorBuildParticipant( final MojoExecution execution )
+    {
+        super( execution, true );
+    }
+
+    @Override
+    public Set<IProject> build( final int kind, final IProgressMonitor monitor )
+        throws Exception
+    {
+        final BuildContext buildContext = getBuildContext();
+        final MavenProject mavenProject = getSession().getCurrentProject();
+        final List<String> classPath = getClassPath( mavenProject );
+
+        final String stamp = getStamp( mavenProject, classPath );
+        if ( kind != IncrementalProjectBuilder.FULL_BUILD && stamp.equals( buildContext.getValue( STAMP_KEY ) )
+            && !hasDelta( buildContext, mavenProject, classPath ) )
+            return null;
+
+        // The generator does not rewrite up to date files, the timestamps tell the ones written by this run.
+        final long start = System.currentTimeMillis() / 1000 * 1000;
+        final Set<IProject> projects = super.build( kind, monitor );
+        buildContext.setValue( STAMP_KEY, stamp );
+
+        refresh( buildContext, getParameter( "outputDirectory" ), start );
+        refresh( buildContext, getParameter( "baseOutputDirectory" ), start );
+        return projects;
+    }
+
+    private static List<String> getClassPath( final MavenProject mavenProject )
+    {
+        try
+        {
+            return mavenProject.getCompileClasspathElements();
+        }
+        catch ( final DependencyResolutionRequiredException e )
+        {
+            throw new RuntimeException( e );
+        }
+    }
+
+    /**
+     * Whether or not the pom or a class path element inside the project changed since the last build.
+     */
+    private static boolean hasDelta( final BuildContext buildContext, final MavenProject mavenProject,
+                                     final List<String> classPath )
+    {
+        if ( buildContext.hasDelta( mavenProject.getFile() ) )
+            return true;
+
+        for ( final String element : classPath )
+        {
+            final File file = new File( element );
+            if ( isInside( file, mavenProject.getBasedir() ) && buildContext.hasDelta( file ) )
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Gets a stamp of the class path elements outside of the project, from the size and last modification time of
+     * their files.
+     */
+    private static String getStamp( final MavenProject mavenProject, final List<String> classPath )
+    {
+        final Fingerprint fingerprint = new Fingerprint();
+        for ( final String element : classPath )
+        {
+            final File file = new File( element );
+            fingerprint.add( element );
+            if ( !isInside( file, mavenProject.getBasedir() ) )
+                stamp( fingerprint, file );
+        }
+        return fingerprint.toString();
+    }
+
+    private static void stamp( final Fingerprint fingerprint, final File file )
+    {
+        final File[] children = file.listFiles();
+        if ( children == null )
+        {
+            fingerprint.add( file.length() );
+            fingerprint.add( file.lastModified() );
+            return;
+        }
+
+        for ( final File child : children )
+        {
+            if ( child.isDirectory() || child.getName().endsWith( ".class" ) )
+            {
+                fingerprint.add( child.getName() );
+                stamp( fingerprint, child );
+            }
+        }
+    }
+
+    private static boolean isInside( final File file, final File directory )
+    {
+        return file.getAbsolutePath().startsWith( directory.getAbsolutePath() + File.separator );
+    }
+
+    /**
+     * Refreshes the files of a directory modified since a time.
+     */
+    private static void refresh( final BuildContext buildContext, final File directory, final long since )
+    {
+        final File[] children = directory == null ? null : directory.listFiles();
+        if ( children == null )
+            return;
+
+        for ( final File child : children )
+        {
+            if ( child.isDirectory() )
+                refresh( buildContext, child, since );
+            else if ( child.lastModified() >= since )
+                buildContext.refresh( child );
+        }
+    }
+
+    private File getParameter( final String name )
+        throws CoreException
+    {
+        final MavenSession session = getSession();
+        return MavenPlugin.getMaven().getMojoParameterValue( session, getMojoExecution(), name, File.class );
+    }
+}
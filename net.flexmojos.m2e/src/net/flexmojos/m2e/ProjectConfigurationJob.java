@@ -0,0 +1,125 @@
+package net.flexmojos.m2e;
+
+import net.flexmojos.m2e.project.AbstractConfigurator;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+
+/**
+ * Configures a single project in the background.
+ *
+ * There is one job per project. A configuration requested while the job waits for its debounce delay replaces the
+ * pending one and restarts the delay, so a burst of pom changes results in a single run. A configuration requested
+ * while the job runs cancels the stale run, which stops before applying its settings, and the job runs again with the
+ * newest configurator. The job holds the project as scheduling rule and runs with a build priority, and reports its
+ * result as a marker of the project.
+ *
+ * @author Sylvain Lecoy (sylvain.lecoy@gmail.com)
+ */
+public class ProjectConfigurationJob extends Job
+{
+    /**
+     * Family of the jobs configuring Flash Builder projects, to join or cancel them all.
+     */
+    public static final Object FAMILY = ProjectConfigurationJob.class;
+
+    /**
+     * Delay in milliseconds during which the requests for the same project are merged.
+     */
+    public static final long DEBOUNCE_DELAY = 500;
+
+    private static final String PLUGIN_ID = "net.flexmojos.m2e";
+
+    private final IProject project;
+
+    private AbstractConfigurator pending;
+
+    public ProjectConfigurationJob( final IProject project )
+    {
+        super( "Configuring " + project.getName() );
+        this.project = project;
+        setRule( project );
+        setPriority( BUILD );
+        setSystem( true );
+    }
+
+    /**
+     * Requests a configuration of the project, replacing the pending one if any.
+     *
+     * @param configurator
+     */
+    public void configure( final AbstractConfigurator configurator )
+    {
+        synchronized ( this )
+        {
+            pending = configurator;
+        }
+        // Either removes the waiting job so the delay restarts, or cancels the running one which is then rescheduled.
+        cancel();
+        schedule( DEBOUNCE_DELAY );
+    }
+
+    @Override
+    protected IStatus run( final IProgressMonitor monitor )
+    {
+        final AbstractConfigurator configurator;
+        synchronized ( this )
+        {
+            configurator = pending;
+            pending = null;
+        }
+        if ( configurator == null || !project.isAccessible() )
+        {
+            return Status.OK_STATUS;
+        }
+
+        final IStatus status = configure( configurator, monitor );
+        ConfigurationMarkers.report( project, status );
+        return status;
+    }
+
+    private IStatus configure( final AbstractConfigurator configurator, final IProgressMonitor monitor )
+    {
+        try
+        {
+            if ( !configurator.prepare() )
+            {
+                return Status.OK_STATUS;
+            }
+            if ( monitor.isCanceled() )
+            {
+                // Keeps the configurator if it was taken after being requested, the next run needs it.
+                synchronized ( this )
+                {
+                    if ( pending == null )
+                        pending = configurator;
+                }
+                return Status.CANCEL_STATUS;
+            }
+
+            configurator.apply();
+            return Status.OK_STATUS;
+        }
+        catch ( final RuntimeException e )
+        {
+            return new Status( IStatus.ERROR, PLUGIN_ID, "Could not configure " + project.getName(), e );
+        }
+    }
+
+    /**
+     * Whether or not a configuration is requested and not taken by a run yet.
+     */
+    public synchronized boolean hasPending()
+    {
+        return pending != null;
+    }
+
+    @Override
+    public boolean belongsTo( final Object family )
+    {
+        return FAMILY == family;
+    }
+}
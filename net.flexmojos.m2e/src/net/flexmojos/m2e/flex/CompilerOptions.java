@@ -0,0 +1,151 @@
+package net.flexmojos.m2e.flex;
+
+import java.util.Properties;
+
+/**
+ * Compiler options affecting the speed of a build, as configured for the compile goal. An option left to
+ * <tt>null</tt> is not configured, so the compiler default applies.
+ *
+ * The "fast dev" profile trades the optimizations of the release build for shorter compile times in the IDE: it forces
+ * incremental compilation on, and both optimization and link report off. It is enabled per project by the
+ * {@link #FAST_DEV_PROJECT_PROPERTY} property of the pom, or for the whole workspace by the {@link #FAST_DEV_PROPERTY}
+ * system property when the project does not set it. The Maven build keeps the values of the pom.
+ *
+ * @author Sylvain Lecoy (sylvain.lecoy@gmail.com)
+ */
+public class CompilerOptions
+{
+    /**
+     * System property enabling the "fast dev" profile for the projects which do not set it.
+     */
+    public static final String FAST_DEV_PROPERTY = "net.flexmojos.m2e.fastDev";
+
+    /**
+     * Maven property enabling, or disabling when set to <tt>false</tt>, the "fast dev" profile of a project.
+     */
+    public static final String FAST_DEV_PROJECT_PROPERTY = "flexmojos.m2e.fastDev";
+
+    private Boolean incremental;
+
+    private Boolean optimize;
+
+    private Boolean debug;
+
+    private Boolean omitTraceStatements;
+
+    private Boolean staticLinkRuntimeSharedLibraries;
+
+    private Boolean keepGeneratedActionscript;
+
+    private Boolean linkReport;
+
+    /**
+     * Whether or not the "fast dev" profile is enabled for a project.
+     *
+     * @param properties the properties of the project.
+     */
+    public static boolean isFastDev( final Properties properties )
+    {
+        final String value = properties.getProperty( FAST_DEV_PROJECT_PROPERTY );
+        return value != null ? Boolean.valueOf( value.trim() ).booleanValue() : Boolean.getBoolean( FAST_DEV_PROPERTY );
+    }
+
+    /**
+     * Returns a copy of the options with the "fast dev" profile applied.
+     */
+    public CompilerOptions toFastDev()
+    {
+        final CompilerOptions options = copy();
+        options.incremental = Boolean.TRUE;
+        options.optimize = Boolean.FALSE;
+        options.linkReport = Boolean.FALSE;
+        return options;
+    }
+
+    private CompilerOptions copy()
+    {
+        final CompilerOptions options = new CompilerOptions();
+        options.incremental = incremental;
+        options.optimize = optimize;
+        options.debug = debug;
+        options.omitTraceStatements = omitTraceStatements;
+        options.staticLinkRuntimeSharedLibraries = staticLinkRuntimeSharedLibraries;
+        options.keepGeneratedActionscript = keepGeneratedActionscript;
+        options.linkReport = linkReport;
+        return options;
+    }
+
+    public Boolean getIncremental()
+    {
+        return incremental;
+    }
+
+    public void setIncremental( final Boolean incremental )
+    {
+        this.incremental = incremental;
+    }
+
+    public Boolean getOptimize()
+    {
+        return optimize;
+    }
+
+    public void setOptimize( final Boolean optimize )
+    {
+        this.optimize = optimize;
+    }
+
+    public Boolean getDebug()
+    {
+        return debug;
+    }
+
+    public void setDebug( final Boolean debug )
+    {
+        this.debug = debug;
+    }
+
+    public Boolean getOmitTraceStatements()
+    {
+        return omitTraceStatements;
+    }
+
+    public void setOmitTraceStatements( final Boolean omitTraceStatements )
+    {
+        this.omitTraceStatements = omitTraceStatements;
+    }
+
+    public Boolean getStaticLinkRuntimeSharedLibraries()
+    {
+        return staticLinkRuntimeSharedLibraries;
+    }
+
+    public void setStaticLinkRuntimeSharedLibraries( final Boolean staticLinkRuntimeSharedLibraries )
+    {
+        this.staticLinkRuntimeSharedLibraries = staticLinkRuntimeSharedLibraries;
+    }
+
+    public Boolean getKeepGeneratedActionscript()
+    {
+        return keepGeneratedActionscript;
+    }
+
+    public void setKeepGeneratedActionscript( final Boolean keepGeneratedActionscript )
+    {
+        this.keepGeneratedActionscript = keepGeneratedActionscript;
+    }
+
+    /**
+     * Whether or not the link report is generated. Flash Builder does not handle the report file, so the option is
+     * only used to turn the report off.
+     */
+    public Boolean getLinkReport()
+    {
+        return linkReport;
+    }
+
+    public void setLinkReport( final Boolean linkReport )
+    {
+        this.linkReport = linkReport;
+    }
+}
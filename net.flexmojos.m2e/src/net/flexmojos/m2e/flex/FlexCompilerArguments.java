@@ -47,6 +47,30 @@ public class FlexCompilerArguments
         }
     }
 
+    /**
+     * Adds the configured compiler options, the others keep the default of the compiler.
+     *
+     * @param options
+     */
+    public void setCompilerOptions( final CompilerOptions options )
+    {
+        addOption( "incremental", options.getIncremental() );
+        addOption( "optimize", options.getOptimize() );
+        addOption( "omit-trace-statements", options.getOmitTraceStatements() );
+        addOption( "static-link-runtime-shared-libraries", options.getStaticLinkRuntimeSharedLibraries() );
+        addOption( "keep-generated-actionscript", options.getKeepGeneratedActionscript() );
+        // Flash Builder sets the debug option itself, depending on the launch, and the link report is written by the
+        // Maven build only, there is nothing to turn on in the IDE.
+    }
+
+    private void addOption( final String name, final Boolean value )
+    {
+        if ( value != null )
+        {
+            arguments.add( "-" + name + "=" + value );
+        }
+    }
+
     @Override
     public String toString()
     {
@@ -1,60 +1,71 @@
 package net.flexmojos.m2e.flex;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 public class FlexFrameworkHelper
 {
+    /**
+     * Names of the SDKs bundled with the successive versions of Flash Builder, keyed by "major.minor.micro" version or
+     * by "major.minor" when every micro version maps to the same SDK.
+     */
+    private static final Map<String, String> BUNDLED_SDK_NAMES = new LinkedHashMap<String, String>();
+
+    static
+    {
+        BUNDLED_SDK_NAMES.put( "4.5.1", "4.5.1A" );
+        BUNDLED_SDK_NAMES.put( "4.5.0", "4.5A" );
+        BUNDLED_SDK_NAMES.put( "4.1.0", "4.1A" );
+        BUNDLED_SDK_NAMES.put( "4.0.0", "4.0A" );
+        BUNDLED_SDK_NAMES.put( "3.6.0", "3.6A" );
+        BUNDLED_SDK_NAMES.put( "3.5.0", "3.5B" );
+        BUNDLED_SDK_NAMES.put( "3.4", "3.4A" );
+        BUNDLED_SDK_NAMES.put( "3.3.0", "3.3A" );
+        BUNDLED_SDK_NAMES.put( "3.2.0", "3.2A" );
+        BUNDLED_SDK_NAMES.put( "3.0", "3A" );
+    }
 
     /**
      * Returns a Flash Builder compatible framework name from flex-sdk-description.xml. If no version is matching,
      * simply returns "Flex X.Y.Z".
-     * 
-     * @param fullVersion
+     *
+     * @param flexVersion the version of the framework artifact, such as 4.6.b.23201 or 4.10.0.20130801.
      * @return
      */
-    public static String getFlexSDKName( String flexVersion )
+    public static String getFlexSDKName( final String flexVersion )
     {
-        String version = flexVersion.substring( 0, 5 );
+        final int[] parsed = parseVersion( flexVersion );
+        final String version = parsed[0] + "." + parsed[1] + "." + parsed[2];
 
-        if ( version.equals( "4.5.1" ) )
-        {
-            version = "4.5.1A";
-        }
-        else if ( version.equals( "4.5.0" ) )
-        {
-            version = "4.5A";
-        }
-        else if ( version.equals( "4.1.0" ) )
-        {
-            version = "4.1A";
-        }
-        else if ( version.equals( "4.0.0" ) )
-        {
-            version = "4.0A";
-        }
-        else if ( version.equals( "3.6.0" ) )
-        {
-            version = "3.6A";
-        }
-        else if ( version.equals( "3.5.0" ) )
-        {
-            version = "3.5B";
-        }
-        else if ( version.startsWith( "3.4" ) )
-        {
-            version = "3.4A";
-        }
-        else if ( version.equals( "3.3.0" ) )
-        {
-            version = "3.3A";
-        }
-        else if ( version.equals( "3.2.0" ) )
-        {
-            version = "3.2A";
-        }
-        else if ( version.startsWith( "3.0" ) )
+        String name = BUNDLED_SDK_NAMES.get( version );
+        if ( name == null )
+            name = BUNDLED_SDK_NAMES.get( parsed[0] + "." + parsed[1] );
+        if ( name == null )
+            name = version;
+
+        return "Flex " + name;
+    }
+
+    /**
+     * Parses the major, minor and micro numbers of a version. Missing or non numeric parts, such as the "b" of
+     * 4.6.b.23201, are read as 0.
+     *
+     * @param version
+     * @return an array of three numbers.
+     */
+    public static int[] parseVersion( final String version )
+    {
+        final int[] parsed = new int[3];
+        final String[] parts = version.split( "[.-]" );
+        for ( int i = 0; i < parsed.length && i < parts.length; i++ )
         {
-            version = "3A";
+            int digits = 0;
+            while ( digits < parts[i].length() && Character.isDigit( parts[i].charAt( digits ) ) )
+                digits++;
+
+            parsed[i] = digits == 0 ? 0 : Integer.parseInt( parts[i].substring( 0, digits ) );
         }
-        return "Flex " + version;
+        return parsed;
     }
 
 }
@@ -0,0 +1,169 @@
+package net.flexmojos.m2e.flex;
+
+import static net.flexmojos.oss.plugin.common.FlexScopes.CACHING;
+import static net.flexmojos.oss.plugin.common.FlexScopes.EXTERNAL;
+import static net.flexmojos.oss.plugin.common.FlexScopes.RSL;
+import static net.flexmojos.oss.plugin.common.FlexScopes.THEME;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.maven.artifact.Artifact;
+
+/**
+ * Links the dependencies of a project in its library path as Flexmojos links their scope, for the Flash Builder and
+ * the headless configurators alike, so both write the same entries.
+ * <ul>
+ * <li>external and theme scopes are only linked against, a theme being compiled in by the compiler itself;</li>
+ * <li>RSL and caching scopes are linked against by a library, loaded at runtime by a Flex application, and merged
+ * into the other applications which can not load them;</li>
+ * <li>compile, merged and internal scopes are merged into the code.</li>
+ * </ul>
+ * A library loaded at runtime is a cross-domain RSL when its archive has a library.swf, the Flash Player having
+ * nothing to verify otherwise, and a plain RSL when it does not.
+ *
+ * @author Sylvain Lecoy (sylvain.lecoy@gmail.com)
+ */
+public class FlexLinkage
+{
+    /**
+     * Link types of the library path entries, as persisted by Flash Builder.
+     */
+    public static final int LINK_TYPE_DEFAULT = 0;
+
+    public static final int LINK_TYPE_INTERNAL = 1;
+
+    public static final int LINK_TYPE_EXTERNAL = 2;
+
+    public static final int LINK_TYPE_RSL = 3;
+
+    public static final int LINK_TYPE_CROSS_DOMAIN_RSL = 4;
+
+    private final boolean library;
+
+    private final boolean application;
+
+    private final SwcCatalogIndex catalogs;
+
+    /**
+     * @param library whether or not the project builds a SWC.
+     * @param application whether or not the project is a Flex application for the browser, the only one loading RSLs.
+     * @param catalogs the index telling whether an archive has a library.
+     */
+    public FlexLinkage( final boolean library, final boolean application, final SwcCatalogIndex catalogs )
+    {
+        this.library = library;
+        this.application = application;
+        this.catalogs = catalogs;
+    }
+
+    /**
+     * Gets the link type of the Flex SDK, the only entry without an explicit link type.
+     */
+    public int getDefaultLinkType()
+    {
+        return application ? LINK_TYPE_RSL : LINK_TYPE_DEFAULT;
+    }
+
+    /**
+     * Reads the archives of the dependencies loaded at runtime at once, in parallel, before their link type is asked.
+     *
+     * @param dependencies
+     */
+    public void load( final Collection<Artifact> dependencies )
+    {
+        if ( !application )
+            return;
+
+        final List<File> runtimeShared = new ArrayList<File>();
+        for ( final Artifact artifact : dependencies )
+        {
+            if ( isRuntimeShared( artifact ) )
+                runtimeShared.add( artifact.getFile() );
+        }
+        catalogs.load( runtimeShared );
+    }
+
+    /**
+     * Gets the link type of a dependency, always explicit.
+     *
+     * @param artifact
+     * @return
+     */
+    public int getLinkType( final Artifact artifact )
+    {
+        if ( EXTERNAL.equals( artifact.getScope() ) || THEME.equals( artifact.getScope() ) )
+            return LINK_TYPE_EXTERNAL;
+        else if ( isRuntimeShared( artifact ) && library )
+            return LINK_TYPE_EXTERNAL;
+        else if ( isRuntimeShared( artifact ) && application )
+            return catalogs.hasLibrary( artifact.getFile() ) ? LINK_TYPE_CROSS_DOMAIN_RSL : LINK_TYPE_RSL;
+        else
+            return LINK_TYPE_INTERNAL;
+    }
+
+    /**
+     * Gets the path of the library file of a dependency, as resolved by Maven. A dependency resolved to a directory,
+     * such as the output of a module of the reactor, is linked from the archive named after it in that directory.
+     *
+     * @param artifact
+     * @return
+     */
+    public static String getLibraryFile( final Artifact artifact )
+    {
+        final String path = artifact.getFile().getAbsolutePath();
+        if ( !path.contains( ".swc" ) && !path.contains( ".swf" ) )
+        {
+            return artifact.getFile() + "/" + artifact.getArtifactId() + "." + artifact.getType();
+        }
+        return path;
+    }
+
+    /**
+     * Gets the cross-domain RSLs of a dependency, none if it is not linked as a cross-domain RSL. A library in caching
+     * scope is loaded from the URLs configured for the compile goal, its signed SWZ first when it ships one and the SWF
+     * as failover; only the SWF is extracted to the output folder, the SWZ is deployed by the Maven build.
+     *
+     * @param artifact
+     * @param linkType the link type of the dependency.
+     * @param rslUrls the URL patterns of the compile goal.
+     * @param policyFileUrls the policy file URLs of the compile goal.
+     * @param contextRoot the context root of the compile goal, can be <tt>null</tt>.
+     * @return pairs of RSL and policy file URLs, by order of precedence.
+     */
+    public List<String[]> getCrossDomainRsls( final Artifact artifact, final int linkType, final String[] rslUrls,
+                                              final String[] policyFileUrls, final String contextRoot )
+    {
+        if ( linkType != LINK_TYPE_CROSS_DOMAIN_RSL )
+            return Collections.emptyList();
+
+        if ( !CACHING.equals( artifact.getScope() ) )
+            return Collections.singletonList( new String[] { artifact.getArtifactId() + ".swf", "" } );
+
+        return FlexRslHelper.getUrls( artifact, FlexRslHelper.hasSignedLibrary( artifact ), rslUrls, policyFileUrls,
+                                      contextRoot );
+    }
+
+    /**
+     * Whether or not a cross-domain RSL is extracted to the output folder, the signed libraries are not.
+     *
+     * @param rslUrl
+     * @return
+     */
+    public static boolean isAutoExtract( final String rslUrl )
+    {
+        return !rslUrl.endsWith( ".swz" );
+    }
+
+    /**
+     * Whether or not a dependency is loaded at runtime, from its RSL or from its signed library cached by the Flash
+     * Player.
+     */
+    private static boolean isRuntimeShared( final Artifact artifact )
+    {
+        return RSL.equals( artifact.getScope() ) || CACHING.equals( artifact.getScope() );
+    }
+}
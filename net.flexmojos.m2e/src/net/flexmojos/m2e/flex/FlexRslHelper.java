@@ -0,0 +1,96 @@
+package net.flexmojos.m2e.flex;
+
+import static net.flexmojos.oss.plugin.common.FlexExtension.SWC;
+import static net.flexmojos.oss.plugin.common.FlexExtension.SWF;
+import static net.flexmojos.oss.plugin.common.FlexExtension.SWZ;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.maven.artifact.Artifact;
+
+/**
+ * Builds the URLs of the runtime shared libraries the way Flexmojos does, so an application built in the IDE loads
+ * its RSLs from the same locations as the one built by Maven.
+ *
+ * A URL pattern holds tokens replaced by the coordinates of the library: <code>{contextRoot}</code>,
+ * <code>{groupId}</code>, <code>{artifactId}</code>, <code>{version}</code>, <code>{classifier}</code> and
+ * <code>{extension}</code>. A library in caching scope which ships a signed SWZ is loaded from it first, the Flash
+ * Player then keeps it in its cache across domains, and fails over to the unsigned SWF. Only the framework libraries
+ * of Adobe are signed, they are loaded by the Flex SDK entry of the project, so the other libraries are usually only
+ * loaded from their SWF.
+ *
+ * @author Sylvain Lecoy (sylvain.lecoy@gmail.com)
+ */
+public class FlexRslHelper
+{
+    /**
+     * URL pattern used when the compile goal does not configure any.
+     */
+    public static final String DEFAULT_RSL_URL = "/{contextRoot}/rsl/{artifactId}-{version}.{extension}";
+
+    /**
+     * Whether or not a library ships a signed SWZ, resolved next to its SWC in the repository.
+     *
+     * @param artifact the library.
+     * @return
+     */
+    public static boolean hasSignedLibrary( final Artifact artifact )
+    {
+        final File file = artifact.getFile();
+        if ( file == null || !file.getName().endsWith( "." + SWC ) )
+            return false;
+
+        final String name = file.getName();
+        return new File( file.getParentFile(), name.substring( 0, name.length() - SWC.length() ) + SWZ ).isFile();
+    }
+
+    /**
+     * Gets the URLs of a library, each with its policy file URL.
+     *
+     * @param artifact the library.
+     * @param signed whether or not the library is loaded from its signed SWZ first.
+     * @param rslUrls the URL patterns, the default one if empty.
+     * @param policyFileUrls the policy file URLs, one for each pattern.
+     * @param contextRoot the context root of the web application, can be <tt>null</tt>.
+     * @return pairs of RSL and policy file URLs, by order of precedence.
+     */
+    public static List<String[]> getUrls( final Artifact artifact, final boolean signed, final String[] rslUrls,
+                                          final String[] policyFileUrls, final String contextRoot )
+    {
+        final String[] patterns = rslUrls.length == 0 ? new String[] { DEFAULT_RSL_URL } : rslUrls;
+
+        final List<String[]> urls = new ArrayList<String[]>();
+        for ( final String extension : signed ? new String[] { SWZ, SWF } : new String[] { SWF } )
+        {
+            for ( int i = 0; i < patterns.length; i++ )
+            {
+                final String policyFileUrl = i < policyFileUrls.length && policyFileUrls[i] != null ? policyFileUrls[i]
+                                : "";
+                urls.add( new String[] { format( patterns[i], artifact, extension, contextRoot ), policyFileUrl } );
+            }
+        }
+        return urls;
+    }
+
+    /**
+     * Replaces the tokens of a URL pattern.
+     */
+    public static String format( final String pattern, final Artifact artifact, final String extension,
+                                 final String contextRoot )
+    {
+        String url = pattern;
+        if ( contextRoot == null || contextRoot.length() == 0 )
+            url = url.replace( "/{contextRoot}", "" ).replace( "{contextRoot}", "" );
+        else
+            url = url.replace( "{contextRoot}", contextRoot );
+
+        url = url.replace( "{groupId}", artifact.getGroupId() );
+        url = url.replace( "{artifactId}", artifact.getArtifactId() );
+        url = url.replace( "{version}", artifact.getVersion() );
+        url = url.replace( "{classifier}", artifact.getClassifier() == null ? "" : artifact.getClassifier() );
+        url = url.replace( "{extension}", extension );
+        return url;
+    }
+}
@@ -0,0 +1,279 @@
+package net.flexmojos.m2e.flex;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import com.google.inject.Singleton;
+
+/**
+ * Registry of the Flex SDKs installed with Flash Builder.
+ *
+ * The SDKs are discovered once per session. This implementation reads the flex-sdk-description.xml of each directory
+ * listed by the {@link #SDKS_PROPERTY} system property, a platform specific registry overrides {@link #discover()} to
+ * list the SDKs the IDE knows, or {@link #getSDKDirectories()} to look into its installation. A framework version
+ * resolves to the SDK of the same version, or to the nearest installed one: the highest version below it, or the
+ * lowest version above it when there is none. Resolutions are cached, so looking up the SDK of a
+ * project is constant time whatever the size of the workspace.
+ *
+ * When no SDK can be discovered, the names of the SDKs bundled with Flash Builder are used as a fallback. Any
+ * resolution other than the SDK of the same version, nearest or fallback, logs a warning to the
+ * <code>java.util.logging</code> logger of the registry, once per framework version: the project then compiles against
+ * another SDK than the one of its build.
+ *
+ * @author Sylvain Lecoy (sylvain.lecoy@gmail.com)
+ */
+@Singleton
+public class FlexSDKRegistry
+{
+    /**
+     * System property listing additional SDK directories, separated by the path separator.
+     */
+    public static final String SDKS_PROPERTY = "net.flexmojos.m2e.sdks";
+
+    private static final Logger LOGGER = Logger.getLogger( FlexSDKRegistry.class.getName() );
+
+    private final ConcurrentMap<String, String> names = new ConcurrentHashMap<String, String>();
+
+    private volatile List<FlexSDK> installed;
+
+    /**
+     * Gets the name of the installed SDK matching a framework version.
+     *
+     * @param flexVersion the version of the framework artifact.
+     * @return
+     */
+    public String getFlexSDKName( final String flexVersion )
+    {
+        String name = names.get( flexVersion );
+        if ( name == null )
+        {
+            name = resolve( flexVersion );
+            names.putIfAbsent( flexVersion, name );
+        }
+        return name;
+    }
+
+    /**
+     * Gets the installed SDKs, sorted by version.
+     */
+    public List<FlexSDK> getInstalledSDKs()
+    {
+        List<FlexSDK> sdks = installed;
+        if ( sdks == null )
+        {
+            synchronized ( this )
+            {
+                sdks = installed;
+                if ( sdks == null )
+                {
+                    final List<FlexSDK> discovered = new ArrayList<FlexSDK>( discover() );
+                    Collections.sort( discovered, new Comparator<FlexSDK>()
+                    {
+                        @Override
+                        public int compare( final FlexSDK left, final FlexSDK right )
+                        {
+                            return FlexSDKRegistry.compare( left.version, right.version );
+                        }
+                    } );
+                    sdks = Collections.unmodifiableList( discovered );
+                    installed = sdks;
+                }
+            }
+        }
+        return sdks;
+    }
+
+    /**
+     * Forgets the installed SDKs and the resolved names, so the SDKs are discovered again.
+     */
+    public synchronized void clear()
+    {
+        installed = null;
+        names.clear();
+    }
+
+    private String resolve( final String flexVersion )
+    {
+        final int[] version = FlexFrameworkHelper.parseVersion( flexVersion );
+
+        FlexSDK below = null;
+        FlexSDK above = null;
+        for ( final FlexSDK sdk : getInstalledSDKs() )
+        {
+            final int comparison = compare( sdk.version, version );
+            if ( comparison == 0 )
+                return sdk.name;
+            else if ( comparison < 0 )
+                below = sdk;
+            else if ( above == null )
+                above = sdk;
+        }
+
+        final FlexSDK nearest = below != null ? below : above;
+        if ( nearest != null )
+        {
+            LOGGER.log( Level.WARNING, "No Flex SDK installed for the framework " + flexVersion + ", using the nearest "
+                + nearest.name + " (" + nearest.getVersion() + ")." );
+            return nearest.name;
+        }
+
+        final String name = FlexFrameworkHelper.getFlexSDKName( flexVersion );
+        LOGGER.log( Level.WARNING, "No Flex SDK installed for the framework " + flexVersion + ", falling back to "
+            + name + "." );
+        return name;
+    }
+
+    private static int compare( final int[] left, final int[] right )
+    {
+        for ( int i = 0; i < left.length; i++ )
+        {
+            if ( left[i] != right[i] )
+                return left[i] < right[i] ? -1 : 1;
+        }
+        return 0;
+    }
+
+    /**
+     * Discovers the installed SDKs, in any order.
+     */
+    protected List<FlexSDK> discover()
+    {
+        final List<FlexSDK> sdks = new ArrayList<FlexSDK>();
+        for ( final File directory : getSDKDirectories() )
+        {
+            // Either a folder of SDKs, or an SDK itself.
+            final File[] candidates = directory.listFiles();
+            if ( candidates == null )
+                continue;
+
+            add( read( directory ), sdks );
+            for ( final File candidate : candidates )
+            {
+                add( read( candidate ), sdks );
+            }
+        }
+        return sdks;
+    }
+
+    /**
+     * Gets the directories the SDKs are discovered from, each one being either a folder of SDKs or an SDK itself.
+     */
+    protected List<File> getSDKDirectories()
+    {
+        final List<File> directories = new ArrayList<File>();
+        final String property = System.getProperty( SDKS_PROPERTY );
+        if ( property != null )
+        {
+            for ( final String directory : property.split( File.pathSeparator ) )
+            {
+                directories.add( new File( directory ) );
+            }
+        }
+        return directories;
+    }
+
+    private static void add( final FlexSDK sdk, final List<FlexSDK> sdks )
+    {
+        if ( sdk != null )
+            sdks.add( sdk );
+    }
+
+    /**
+     * Reads the SDK of a directory from its flex-sdk-description.xml.
+     *
+     * @param directory
+     * @return the SDK, or <tt>null</tt> if the directory has no readable description.
+     */
+    protected static FlexSDK read( final File directory )
+    {
+        final File description = new File( directory, "flex-sdk-description.xml" );
+        if ( !description.isFile() )
+            return null;
+
+        try
+        {
+            final InputStream input = new FileInputStream( description );
+            try
+            {
+                final XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader( input );
+                String name = null;
+                String version = null;
+                while ( reader.hasNext() )
+                {
+                    if ( reader.next() != XMLStreamReader.START_ELEMENT )
+                        continue;
+
+                    if ( "name".equals( reader.getLocalName() ) )
+                        name = reader.getElementText().trim();
+                    else if ( "version".equals( reader.getLocalName() ) )
+                        version = reader.getElementText().trim();
+                }
+                reader.close();
+
+                return name != null && version != null ? new FlexSDK( name, version, directory ) : null;
+            }
+            finally
+            {
+                input.close();
+            }
+        }
+        catch ( final IOException e )
+        {
+            // An unreadable SDK is not installed as far as Flash Builder is concerned.
+            return null;
+        }
+        catch ( final XMLStreamException e )
+        {
+            // Same as above.
+            return null;
+        }
+    }
+
+    /**
+     * An installed SDK, as described by its flex-sdk-description.xml.
+     */
+    public static class FlexSDK
+    {
+        private final String name;
+
+        private final int[] version;
+
+        private final File location;
+
+        public FlexSDK( final String name, final String version, final File location )
+        {
+            this.name = name;
+            this.version = FlexFrameworkHelper.parseVersion( version );
+            this.location = location;
+        }
+
+        public String getName()
+        {
+            return name;
+        }
+
+        public String getVersion()
+        {
+            return version[0] + "." + version[1] + "." + version[2];
+        }
+
+        public File getLocation()
+        {
+            return location;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package net.flexmojos.m2e.flex;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Content of the catalog.xml of a SWC archive: the classes it defines, the components it registers in MXML namespaces
+ * and the digests of its libraries.
+ *
+ * The catalog is read through the central directory of the archive, so nothing else is inflated.
+ *
+ * @author Sylvain Lecoy (sylvain.lecoy@gmail.com)
+ */
+public class SwcCatalog
+{
+    private static final XMLInputFactory FACTORY = XMLInputFactory.newInstance();
+
+    private final Set<String> definitions = new LinkedHashSet<String>();
+
+    private final List<Component> components = new ArrayList<Component>();
+
+    private final Map<String, String> digests = new HashMap<String, String>();
+
+    /**
+     * Reads the catalog of a SWC archive.
+     *
+     * @param swc
+     * @return the catalog, or <tt>null</tt> if the archive has no catalog.xml entry.
+     * @throws IOException
+     */
+    public static SwcCatalog read( final ZipFile swc )
+        throws IOException
+    {
+        final ZipEntry entry = swc.getEntry( "catalog.xml" );
+        if ( entry == null )
+            return null;
+
+        final InputStream input = swc.getInputStream( entry );
+        try
+        {
+            final SwcCatalog catalog = new SwcCatalog();
+            catalog.parse( FACTORY.createXMLStreamReader( input ) );
+            return catalog;
+        }
+        catch ( final XMLStreamException e )
+        {
+            throw new IOException( "Malformed catalog.xml in " + swc.getName() + ": " + e.getMessage() );
+        }
+        finally
+        {
+            input.close();
+        }
+    }
+
+    private void parse( final XMLStreamReader reader )
+        throws XMLStreamException
+    {
+        String library = null;
+        while ( reader.hasNext() )
+        {
+            if ( reader.next() != XMLStreamReader.START_ELEMENT )
+                continue;
+
+            final String element = reader.getLocalName();
+            if ( "library".equals( element ) )
+            {
+                library = reader.getAttributeValue( null, "path" );
+            }
+            else if ( "def".equals( element ) )
+            {
+                definitions.add( toClassName( reader.getAttributeValue( null, "id" ) ) );
+            }
+            else if ( "component".equals( element ) )
+            {
+                final String className = reader.getAttributeValue( null, "className" );
+                final String uri = reader.getAttributeValue( null, "uri" );
+                if ( className != null && uri != null )
+                {
+                    components.add( new Component( reader.getAttributeValue( null, "name" ),
+                                                   toClassName( className ), uri ) );
+                }
+            }
+            else if ( "digest".equals( element ) && library != null )
+            {
+                // Keeps the unsigned SHA-256 digest, the one expected by cross-domain RSLs.
+                if ( "SHA-256".equals( reader.getAttributeValue( null, "type" ) )
+                    && !"true".equals( reader.getAttributeValue( null, "signed" ) ) )
+                {
+                    digests.put( library, reader.getAttributeValue( null, "value" ) );
+                }
+            }
+        }
+        reader.close();
+    }
+
+    /**
+     * Converts a catalog class name, such as <code>mx.controls:Button</code>, to a qualified class name.
+     */
+    private static String toClassName( final String id )
+    {
+        return id == null ? null : id.replace( ':', '.' );
+    }
+
+    /**
+     * Gets the qualified names of the classes defined by the archive.
+     */
+    public Set<String> getDefinitions()
+    {
+        return Collections.unmodifiableSet( definitions );
+    }
+
+    /**
+     * Gets the components registered in an MXML namespace.
+     */
+    public List<Component> getComponents()
+    {
+        return Collections.unmodifiableList( components );
+    }
+
+    /**
+     * Gets the components registered in a given MXML namespace.
+     *
+     * @param uri
+     */
+    public List<Component> getComponents( final String uri )
+    {
+        final List<Component> matching = new ArrayList<Component>();
+        for ( final Component component : components )
+        {
+            if ( component.getUri().equals( uri ) )
+                matching.add( component );
+        }
+        return matching;
+    }
+
+    /**
+     * Gets the unsigned SHA-256 digest of a library of the archive.
+     *
+     * @param library the path of the library in the archive, usually <code>library.swf</code>.
+     * @return the digest in hexadecimal, or <tt>null</tt> if the catalog does not hold it.
+     */
+    public String getDigest( final String library )
+    {
+        return digests.get( library );
+    }
+
+    /**
+     * A component registered in an MXML namespace.
+     */
+    public static class Component
+    {
+        private final String name;
+
+        private final String className;
+
+        private final String uri;
+
+        Component( final String name, final String className, final String uri )
+        {
+            this.name = name;
+            this.className = className;
+            this.uri = uri;
+        }
+
+        /**
+         * Gets the MXML tag name, defaults to the unqualified class name.
+         */
+        public String getName()
+        {
+            if ( name != null )
+                return name;
+
+            return className.substring( className.lastIndexOf( '.' ) + 1 );
+        }
+
+        public String getClassName()
+        {
+            return className;
+        }
+
+        public String getUri()
+        {
+            return uri;
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package net.flexmojos.m2e.flex;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.ZipFile;
+
+import com.google.inject.Singleton;
+
+/**
+ * Workspace wide cache of SWC catalogs.
+ *
+ * A catalog is keyed by the path of its archive and kept as long as the size and the last modification time of the
+ * archive do not change, so a library shared by many projects is parsed once per change rather than on every project
+ * update. Whether the archive has a library, needed to load it as a runtime shared library, is cached with it. The
+ * archives of a project can be read in parallel, on workers shared by every project and stopped with the index.
+ *
+ * @author Sylvain Lecoy (sylvain.lecoy@gmail.com)
+ */
+@Singleton
+public class SwcCatalogIndex
+{
+    /**
+     * Path of the library loaded as RSL in a SWC archive.
+     */
+    private static final String LIBRARY = "library.swf";
+
+    private static final Logger LOGGER = Logger.getLogger( SwcCatalogIndex.class.getName() );
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<String, Entry>();
+
+    private ExecutorService executor;
+
+    /**
+     * Gets the catalog of a SWC archive, reading it if it is not cached or if the archive changed.
+     *
+     * @param swc
+     * @return the catalog, or <tt>null</tt> if the file does not exist or is not a SWC archive.
+     */
+    public SwcCatalog getCatalog( final File swc )
+    {
+        final Entry entry = getEntry( swc );
+        return entry == null ? null : entry.catalog;
+    }
+
+    /**
+     * Whether or not a SWC archive has a library, the library.swf loaded when the archive is linked as a runtime shared
+     * library. An archive which can not be read has no library, with a warning.
+     *
+     * @param swc
+     * @return
+     */
+    public boolean hasLibrary( final File swc )
+    {
+        try
+        {
+            final Entry entry = getEntry( swc );
+            return entry != null && entry.library;
+        }
+        catch ( final RuntimeException e )
+        {
+            LOGGER.log( Level.WARNING, "Could not read " + swc + ", it is not loaded as a runtime shared library.", e );
+            return false;
+        }
+    }
+
+    /**
+     * Reads the archives not cached yet in parallel, on the workers of the index, and waits for them. An archive which
+     * can not be read is left out, so the failure is reported when the archive is requested.
+     *
+     * @param swcs
+     */
+    public void load( final Collection<File> swcs )
+    {
+        if ( swcs.size() < 2 )
+            return;
+
+        final List<Future<Entry>> futures = new ArrayList<Future<Entry>>( swcs.size() );
+        for ( final File swc : swcs )
+        {
+            futures.add( getExecutor().submit( new Callable<Entry>()
+            {
+                @Override
+                public Entry call()
+                {
+                    return getEntry( swc );
+                }
+            } ) );
+        }
+
+        try
+        {
+            for ( final Future<Entry> future : futures )
+            {
+                try
+                {
+                    future.get();
+                }
+                catch ( final ExecutionException e )
+                {
+                    // Reported by the caller, which reads the archive again.
+                }
+            }
+        }
+        catch ( final InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Gets the workers of the index, one per processor, created the first time. They are daemon threads, so an index
+     * which is not disposed does not prevent the virtual machine from exiting.
+     */
+    private synchronized ExecutorService getExecutor()
+    {
+        if ( executor == null )
+        {
+            executor = Executors.newFixedThreadPool( Runtime.getRuntime().availableProcessors(), new ThreadFactory()
+            {
+                private final AtomicInteger count = new AtomicInteger();
+
+                @Override
+                public Thread newThread( final Runnable runnable )
+                {
+                    final Thread thread = new Thread( runnable, "SWC catalog reader " + count.incrementAndGet() );
+                    thread.setDaemon( true );
+                    return thread;
+                }
+            } );
+        }
+        return executor;
+    }
+
+    /**
+     * Stops the workers of the index, and forgets every cached catalog.
+     */
+    public synchronized void dispose()
+    {
+        if ( executor != null )
+        {
+            executor.shutdownNow();
+            executor = null;
+        }
+        clear();
+    }
+
+    /**
+     * Gets the cache entry of an archive, reading its catalog if it is not cached or if the archive changed.
+     *
+     * @return the entry, or <tt>null</tt> if the file does not exist.
+     */
+    private Entry getEntry( final File swc )
+    {
+        final String path = swc.getAbsolutePath();
+        final long size = swc.length();
+        final long lastModified = swc.lastModified();
+
+        final Entry cached = entries.get( path );
+        if ( cached != null && cached.size == size && cached.lastModified == lastModified )
+            return cached;
+
+        if ( !swc.isFile() )
+        {
+            entries.remove( path );
+            return null;
+        }
+
+        final SwcCatalog catalog;
+        final boolean library;
+        try
+        {
+            final ZipFile archive = new ZipFile( swc );
+            try
+            {
+                catalog = SwcCatalog.read( archive );
+                library = archive.getEntry( LIBRARY ) != null;
+            }
+            finally
+            {
+                archive.close();
+            }
+        }
+        catch ( final IOException e )
+        {
+            throw new RuntimeException( e );
+        }
+
+        // Concurrent readers of the same archive simply store the same value.
+        final Entry entry = new Entry( size, lastModified, catalog, library );
+        entries.put( path, entry );
+        return entry;
+    }
+
+    /**
+     * Forgets every cached catalog.
+     */
+    public void clear()
+    {
+        entries.clear();
+    }
+
+    private static class Entry
+    {
+        final long size;
+
+        final long lastModified;
+
+        final SwcCatalog catalog;
+
+        final boolean library;
+
+        Entry( final long size, final long lastModified, final SwcCatalog catalog, final boolean library )
+        {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.catalog = catalog;
+            this.library = library;
+        }
+    }
+}
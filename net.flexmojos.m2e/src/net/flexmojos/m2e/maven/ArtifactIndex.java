@@ -0,0 +1,200 @@
+package net.flexmojos.m2e.maven;
+
+import static net.flexmojos.oss.plugin.common.FlexExtension.ANE;
+import static net.flexmojos.oss.plugin.common.FlexExtension.RB_SWC;
+import static net.flexmojos.oss.plugin.common.FlexExtension.SWC;
+import static net.flexmojos.oss.plugin.common.FlexExtension.SWZ;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.maven.artifact.Artifact;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Classification of the resolved artifacts of a project.
+ *
+ * The artifacts are classified in a single pass when the index is created, then bucketed by kind and by scope, so the
+ * configuration never scans the artifact set again.
+ *
+ * @author Sylvain Lecoy (sylvain.lecoy@gmail.com)
+ */
+public class ArtifactIndex
+{
+    /**
+     * Kinds of artifacts a Flex project depends on.
+     */
+    public enum Kind
+    {
+        FLEX_FRAMEWORK, AIR_FRAMEWORK, FLASH_FRAMEWORK, SWC, RB_SWC, ANE, SWZ, OTHER
+    }
+
+    /**
+     * Keys of the Flex framework artifacts, by order of precedence.
+     */
+    private static final String[] FLEX_FRAMEWORK_KEYS = { "org.apache.flex.framework:flex-framework",
+        "com.adobe.flex.framework:flex-framework", "org.apache.flex.framework.air:air-framework",
+        "com.adobe.flex.framework.air:air-framework", "com.adobe.flex.framework:air-framework" };
+
+    /**
+     * Framework artifacts keyed by "groupId:artifactId".
+     */
+    private final Map<String, Artifact> frameworks = new HashMap<String, Artifact>();
+
+    private final Map<Kind, List<Artifact>> kinds = new EnumMap<Kind, List<Artifact>>( Kind.class );
+
+    private final Map<String, List<Artifact>> scopes = new HashMap<String, List<Artifact>>();
+
+    /**
+     * SWC libraries keyed by file path, in resolution order.
+     */
+    private final Map<String, Artifact> libraries = new LinkedHashMap<String, Artifact>();
+
+    private final int size;
+
+    public ArtifactIndex( final Collection<Artifact> artifacts )
+    {
+        size = artifacts.size();
+        for ( final Artifact artifact : artifacts )
+        {
+            final Kind kind = classify( artifact );
+
+            add( kinds, kind, artifact );
+            add( scopes, artifact.getScope(), artifact );
+
+            switch ( kind )
+            {
+                case FLEX_FRAMEWORK:
+                case AIR_FRAMEWORK:
+                case FLASH_FRAMEWORK:
+                    frameworks.put( artifact.getGroupId() + ":" + artifact.getArtifactId(), artifact );
+                    break;
+
+                case SWC:
+                    libraries.put( artifact.getFile().getAbsolutePath(), artifact );
+                    break;
+
+                default:
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Classifies an artifact from its groupId, then from its type.
+     *
+     * @param artifact
+     * @return
+     */
+    public static Kind classify( final Artifact artifact )
+    {
+        final String groupId = artifact.getGroupId();
+        if ( groupId.startsWith( "com.adobe.flex.framework" ) || groupId.startsWith( "org.apache.flex.framework" ) )
+            return Kind.FLEX_FRAMEWORK;
+        if ( groupId.startsWith( "com.adobe.air.framework" ) )
+            return Kind.AIR_FRAMEWORK;
+        if ( groupId.startsWith( "com.adobe.flash.framework" ) )
+            return Kind.FLASH_FRAMEWORK;
+
+        final String type = artifact.getType();
+        if ( SWC.equals( type ) )
+            return Kind.SWC;
+        if ( RB_SWC.equals( type ) )
+            return Kind.RB_SWC;
+        if ( ANE.equals( type ) )
+            return Kind.ANE;
+        if ( SWZ.equals( type ) )
+            return Kind.SWZ;
+
+        return Kind.OTHER;
+    }
+
+    private static <K> void add( final Map<K, List<Artifact>> buckets, final K key, final Artifact artifact )
+    {
+        List<Artifact> bucket = buckets.get( key );
+        if ( bucket == null )
+        {
+            bucket = new ArrayList<Artifact>();
+            buckets.put( key, bucket );
+        }
+        bucket.add( artifact );
+    }
+
+    /**
+     * Gets the number of indexed artifacts.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Whether or not the project depends on the Flex framework.
+     */
+    public boolean isFlexProject()
+    {
+        // Supports both Adobe and Apache groupId.
+        return frameworks.containsKey( "com.adobe.flex.framework:common-framework" )
+            || frameworks.containsKey( "org.apache.flex.framework:common-framework" );
+    }
+
+    /**
+     * Whether or not the project depends on the AIR framework.
+     */
+    public boolean isApolloProject()
+    {
+        // Supports both Adobe and Apache groupId.
+        return frameworks.containsKey( "com.adobe.flex.framework:air-framework" )
+            || frameworks.containsKey( "com.adobe.flex.framework.air:air-framework" )
+            || frameworks.containsKey( "org.apache.flex.framework.air:air-framework" );
+    }
+
+    /**
+     * Gets the Flex framework artifact, Apache first then Adobe, falling back to the AIR framework.
+     *
+     * @return the framework artifact, or <tt>null</tt> if the project does not depend on any.
+     */
+    public @Nullable Artifact getFlexFramework()
+    {
+        for ( final String key : FLEX_FRAMEWORK_KEYS )
+        {
+            final Artifact framework = frameworks.get( key );
+            if ( framework != null )
+                return framework;
+        }
+
+        return null;
+    }
+
+    /**
+     * Gets the SWC libraries, framework artifacts excluded, keyed by file path.
+     */
+    public Map<String, Artifact> getLibraries()
+    {
+        return Collections.unmodifiableMap( libraries );
+    }
+
+    /**
+     * Gets the artifacts of a kind.
+     */
+    public List<Artifact> getArtifacts( final Kind kind )
+    {
+        final List<Artifact> artifacts = kinds.get( kind );
+        return artifacts == null ? Collections.<Artifact> emptyList() : Collections.unmodifiableList( artifacts );
+    }
+
+    /**
+     * Gets the artifacts of a scope.
+     */
+    public List<Artifact> getArtifacts( final String scope )
+    {
+        final List<Artifact> artifacts = scopes.get( scope );
+        return artifacts == null ? Collections.<Artifact> emptyList() : Collections.unmodifiableList( artifacts );
+    }
+}
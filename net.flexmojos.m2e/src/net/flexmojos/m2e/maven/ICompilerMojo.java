@@ -1,5 +1,9 @@
 package net.flexmojos.m2e.maven;
 
+import java.util.Map;
+
+import net.flexmojos.m2e.flex.CompilerOptions;
+
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
@@ -25,4 +29,39 @@ public interface ICompilerMojo
      * Gets the output folder path.
      */
     @NonNull IPath getOutputFolderPath();
+
+    /**
+     * Gets the locale source path.
+     */
+    @Nullable IPath getLocalesSourcePath();
+
+    /**
+     * Gets the locales compiled.
+     */
+    @NonNull String[] getLocalesCompiled();
+
+    /**
+     * Gets the compiler options affecting the speed of the build.
+     */
+    @NonNull CompilerOptions getCompilerOptions();
+
+    /**
+     * Gets the XML name-space manifest path map. A name-space declared without manifest is mapped to <tt>null</tt>.
+     */
+    @NonNull Map<String, IPath> getXMLNamespaceManifestPath();
+
+    /**
+     * Gets the URL patterns of the runtime shared libraries, empty if none is configured.
+     */
+    @NonNull String[] getRslUrls();
+
+    /**
+     * Gets the policy file URLs, one for each RSL URL pattern.
+     */
+    @NonNull String[] getPolicyFileUrls();
+
+    /**
+     * Gets the context root of the web application, replacing the <code>{contextRoot}</code> token of RSL URLs.
+     */
+    @Nullable String getContextRoot();
 }
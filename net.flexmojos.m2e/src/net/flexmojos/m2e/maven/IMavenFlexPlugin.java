@@ -2,6 +2,8 @@ package net.flexmojos.m2e.maven;
 
 import java.util.Map;
 
+import net.flexmojos.m2e.flex.CompilerOptions;
+
 import org.apache.maven.artifact.Artifact;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.jdt.annotation.NonNull;
@@ -19,6 +21,11 @@ import org.eclipse.jdt.annotation.NonNull;
  */
 public interface IMavenFlexPlugin extends ICompilerMojo
 {
+    /**
+     * Maven property selecting how the test sources are attached to the project: "main", the default, adds them to the
+     * source path of the main application, "separate" leaves them to the "test-compile" goal.
+     */
+    String TEST_SOURCES_PROPERTY = "flexmojos.m2e.testSources";
 
     /**
      * Gets main source folder.
@@ -37,6 +44,12 @@ public interface IMavenFlexPlugin extends ICompilerMojo
     @NonNull
     IPath[] getSourcePath();
 
+    /**
+     * Gets the paths of the applications of the project, one for each compile execution, the main application first.
+     */
+    @NonNull
+    IPath[] getApplicationPaths();
+
     /**
      * Gets the certificate folder path.
      */
@@ -62,4 +75,24 @@ public interface IMavenFlexPlugin extends ICompilerMojo
      */
     Map<String, IPath> getXMLNamespaceManifestPath();
 
+    /**
+     * Gets the content of the manifests generated for the name-spaces without manifest in the workspace, keyed by
+     * their full path in the workspace. The manifests are written by the configurator, when the settings are applied.
+     */
+    @NonNull
+    Map<IPath, String> getGeneratedManifests();
+
+    /**
+     * Whether or not the "fast dev" profile is enabled for the project, see {@link CompilerOptions}.
+     */
+    boolean isFastDev();
+
+    /**
+     * Gets a digest of the Maven inputs read by the configurators: packaging, resolved artifacts with their scopes and
+     * timestamps, build directories, project properties and raw mojo configurations. Two equal fingerprints imply an
+     * identical project configuration.
+     */
+    @NonNull
+    String getFingerprint();
+
 }
@@ -1,6 +1,12 @@
 package net.flexmojos.m2e.maven;
 
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.jdt.annotation.Nullable;
+
 public interface ISignAirMojo
 {
-
+    /**
+     * Gets the keystore used to sign the AIR package.
+     */
+    @Nullable IPath getKeystore();
 }
@@ -2,70 +2,55 @@ package net.flexmojos.m2e.maven;
 
 import java.util.Map;
 
+import net.flexmojos.m2e.maven.internal.EvaluationCache;
 import net.flexmojos.m2e.maven.internal.fm6.Flexmojos6Module;
+import net.flexmojos.m2e.maven.internal.fm6.adapters.Flexmojos6Plugin;
+import net.flexmojos.m2e.project.ConfigurationScoped;
 
-import org.apache.maven.artifact.Artifact;
-import org.apache.maven.execution.MavenSession;
 import org.apache.maven.model.Build;
 import org.apache.maven.model.Plugin;
 import org.apache.maven.project.MavenProject;
-import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.m2e.core.project.IMavenProjectFacade;
 
 import com.google.inject.AbstractModule;
+import com.google.inject.Provider;
 import com.google.inject.Provides;
 
 /**
- * This module is responsible of binding maven common dependencies such as IMavenProjectFacade, MavenSession, and so on.
+ * This module is responsible of binding maven common dependencies such as MavenProject, ArtifactIndex, and so on, from
+ * the IMavenProjectFacade and the MavenSession seeded in the configuration context.
  *
- * It also installs a sub-module which binds adapters accordingly to the Maven Flex Plug-in version of the project.
+ * It also installs a sub-module which binds the adapters of the Maven Flex Plug-in, and selects them accordingly to the
+ * version of the plug-in of the project.
  *
  * @author Sylvain Lecoy (sylvain.lecoy@gmail.com)
  *
  */
 public class MavenFlexModule extends AbstractModule
 {
-    protected final IMavenProjectFacade facade;
-    protected final IProgressMonitor monitor;
-    protected final MavenSession session;
-
-    public MavenFlexModule( final IMavenProjectFacade facade,
-                            final IProgressMonitor monitor,
-                            final MavenSession session )
-    {
-        this.facade = facade;
-        this.monitor = monitor;
-        this.session = session;
-    }
 
     @Provides
-    IMavenProjectFacade getMavenProjectFacade()
+    MavenProject getMavenProject( final IMavenProjectFacade facade )
     {
-        return facade;
+        return facade.getMavenProject();
     }
 
     @Provides
-    MavenSession getMavenSession()
+    Build getBuild( final MavenProject project )
     {
-        return session;
+        return project.getBuild();
     }
 
-    @Provides
-    MavenProject getMavenProject(final IMavenProjectFacade facade)
+    @Provides @ConfigurationScoped
+    ArtifactIndex getArtifactIndex( final MavenProject project )
     {
-        return facade.getMavenProject();
+        return new ArtifactIndex( project.getArtifacts() );
     }
 
     @Provides
-    Build getBuild(final MavenProject project)
-    {
-        return project.getBuild();
-    }
-
-    @Override
-    protected void configure()
+    IMavenFlexPlugin getMavenFlexPlugin( final MavenProject project, final Provider<Flexmojos6Plugin> flexmojos6 )
     {
-        final Map<String, Plugin> plugins = facade.getMavenProject().getBuild().getPluginsAsMap();
+        final Map<String, Plugin> plugins = project.getBuild().getPluginsAsMap();
         final Plugin plugin;
 
         if ( plugins.containsKey( "net.flexmojos.oss:flexmojos-maven-plugin" ) )
@@ -85,33 +70,19 @@ public class MavenFlexModule extends AbstractModule
             case 6:
             case 5: // TODO: test this is really supported.
             case 4: // TODO: test this is really supported.
-                install( new Flexmojos6Module( facade, monitor ) );
-                break;
+                return flexmojos6.get();
 
             default:
                 throw new RuntimeException( "Maven Flex Plug-in version not supported." );
         }
     }
 
-    public boolean isFlexProject()
-    {
-        final Map<String, Artifact> dependencies = facade.getMavenProject().getArtifactMap();
-        // Supports both Adobe and Apache groupId.
-        return dependencies.containsKey( "com.adobe.flex.framework:common-framework" )
-            || dependencies.containsKey( "org.apache.flex.framework:common-framework" );
-    }
-
-    public boolean isApolloProject()
+    @Override
+    protected void configure()
     {
-        final Map<String, Artifact> dependencies = facade.getMavenProject().getArtifactMap();
-        // Supports both Adobe and Apache groupId.
-        return dependencies.containsKey( "com.adobe.flex.framework:air-framework" )
-            || dependencies.containsKey( "com.adobe.flex.framework.air:air-framework" )
-            || dependencies.containsKey( "org.apache.flex.framework.air:air-framework" );
-    }
+        // One evaluation cache is shared by the mojos of the project.
+        bind( EvaluationCache.class ).in( ConfigurationScoped.class );
 
-    public String getPackaging()
-    {
-        return facade.getPackaging();
+        install( new Flexmojos6Module() );
     }
 }
@@ -0,0 +1,239 @@
+package net.flexmojos.m2e.maven;
+
+import java.util.Map;
+
+import net.flexmojos.m2e.flex.CompilerOptions;
+
+import org.apache.maven.artifact.Artifact;
+import org.eclipse.core.runtime.IPath;
+
+/**
+ * Snapshot of a MavenFlexPlugin.
+ *
+ * Every value is resolved once, when the snapshot is created, so a project can be prepared on a worker thread and
+ * configured later on without evaluating its Maven configuration again. Values whose resolution fails, such as the Flex
+ * framework of an ActionScript project, rethrow their exception when they are read.
+ *
+ * @author Sylvain Lecoy (sylvain.lecoy@gmail.com)
+ */
+public class ResolvedMavenFlexPlugin implements IMavenFlexPlugin
+{
+    private final IPath mainSourceFolder;
+
+    private final Artifact flexFramework;
+
+    private final RuntimeException flexFrameworkException;
+
+    private final IPath[] sourcePath;
+
+    private final IPath certificatePath;
+
+    private final RuntimeException certificatePathException;
+
+    private final Map<String, Artifact> dependencies;
+
+    private final IPath localesSourcePath;
+
+    private final String[] localesCompiled;
+
+    private final CompilerOptions compilerOptions;
+
+    private final boolean fastDev;
+
+    private final Map<String, IPath> xmlNamespaceManifestPath;
+
+    private final Map<IPath, String> generatedManifests;
+
+    private final String fingerprint;
+
+    private final String targetPlayerVersion;
+
+    private final IPath mainApplicationPath;
+
+    private final IPath[] applicationPaths;
+
+    private final boolean hasOutputFolderPath;
+
+    private final IPath outputFolderPath;
+
+    private final String[] rslUrls;
+
+    private final String[] policyFileUrls;
+
+    private final String contextRoot;
+
+    public ResolvedMavenFlexPlugin( final IMavenFlexPlugin plugin )
+    {
+        Artifact flexFramework = null;
+        RuntimeException flexFrameworkException = null;
+        try
+        {
+            flexFramework = plugin.getFlexFramework();
+        }
+        catch ( final RuntimeException e )
+        {
+            flexFrameworkException = e;
+        }
+        this.flexFramework = flexFramework;
+        this.flexFrameworkException = flexFrameworkException;
+
+        IPath certificatePath = null;
+        RuntimeException certificatePathException = null;
+        try
+        {
+            certificatePath = plugin.getCertificatePath();
+        }
+        catch ( final RuntimeException e )
+        {
+            certificatePathException = e;
+        }
+        this.certificatePath = certificatePath;
+        this.certificatePathException = certificatePathException;
+
+        this.mainSourceFolder = plugin.getMainSourceFolder();
+        this.sourcePath = plugin.getSourcePath();
+        this.dependencies = plugin.getDependencies();
+        this.localesSourcePath = plugin.getLocalesSourcePath();
+        this.localesCompiled = plugin.getLocalesCompiled();
+        this.compilerOptions = plugin.getCompilerOptions();
+        this.fastDev = plugin.isFastDev();
+        this.xmlNamespaceManifestPath = plugin.getXMLNamespaceManifestPath();
+        this.generatedManifests = plugin.getGeneratedManifests();
+        this.fingerprint = plugin.getFingerprint();
+        this.targetPlayerVersion = plugin.getTargetPlayerVersion();
+        this.mainApplicationPath = plugin.getMainApplicationPath();
+        this.applicationPaths = plugin.getApplicationPaths();
+        this.hasOutputFolderPath = plugin.hasOutputFolderPath();
+        this.outputFolderPath = plugin.getOutputFolderPath();
+        this.rslUrls = plugin.getRslUrls();
+        this.policyFileUrls = plugin.getPolicyFileUrls();
+        this.contextRoot = plugin.getContextRoot();
+    }
+
+    @Override
+    public IPath getMainSourceFolder()
+    {
+        return mainSourceFolder;
+    }
+
+    @Override
+    public Artifact getFlexFramework()
+    {
+        if ( flexFrameworkException != null )
+            throw flexFrameworkException;
+
+        return flexFramework;
+    }
+
+    @Override
+    public IPath[] getSourcePath()
+    {
+        return sourcePath;
+    }
+
+    @Override
+    public IPath getCertificatePath()
+    {
+        if ( certificatePathException != null )
+            throw certificatePathException;
+
+        return certificatePath;
+    }
+
+    @Override
+    public Map<String, Artifact> getDependencies()
+    {
+        return dependencies;
+    }
+
+    @Override
+    public IPath getLocalesSourcePath()
+    {
+        return localesSourcePath;
+    }
+
+    @Override
+    public String[] getLocalesCompiled()
+    {
+        return localesCompiled;
+    }
+
+    @Override
+    public CompilerOptions getCompilerOptions()
+    {
+        return compilerOptions;
+    }
+
+    @Override
+    public Map<String, IPath> getXMLNamespaceManifestPath()
+    {
+        return xmlNamespaceManifestPath;
+    }
+
+    @Override
+    public Map<IPath, String> getGeneratedManifests()
+    {
+        return generatedManifests;
+    }
+
+    @Override
+    public boolean isFastDev()
+    {
+        return fastDev;
+    }
+
+    @Override
+    public String getFingerprint()
+    {
+        return fingerprint;
+    }
+
+    @Override
+    public String getTargetPlayerVersion()
+    {
+        return targetPlayerVersion;
+    }
+
+    @Override
+    public IPath getMainApplicationPath()
+    {
+        return mainApplicationPath;
+    }
+
+    @Override
+    public IPath[] getApplicationPaths()
+    {
+        return applicationPaths;
+    }
+
+    @Override
+    public boolean hasOutputFolderPath()
+    {
+        return hasOutputFolderPath;
+    }
+
+    @Override
+    public IPath getOutputFolderPath()
+    {
+        return outputFolderPath;
+    }
+
+    @Override
+    public String[] getRslUrls()
+    {
+        return rslUrls;
+    }
+
+    @Override
+    public String[] getPolicyFileUrls()
+    {
+        return policyFileUrls;
+    }
+
+    @Override
+    public String getContextRoot()
+    {
+        return contextRoot;
+    }
+
+}
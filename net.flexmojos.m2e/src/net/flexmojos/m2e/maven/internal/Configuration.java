@@ -1,10 +1,13 @@
 package net.flexmojos.m2e.maven.internal;
 
-import org.apache.maven.execution.MavenSession;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import org.apache.maven.plugin.MojoExecution;
-import org.apache.maven.plugin.PluginParameterExpressionEvaluator;
-import org.codehaus.plexus.component.configurator.expression.ExpressionEvaluator;
 import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
 
 /**
@@ -14,6 +17,9 @@ import org.eclipse.jdt.annotation.Nullable;
  * child elements of the <code><configuration></code> element are mapped to fields inside the Mojo. Plug-in consists of
  * one or more Mojos where a Mojo maps to a goal.
  *
+ * Evaluated parameters are memoized, and expressions are evaluated through the EvaluationCache shared by the mojos of
+ * the project.
+ *
  * @author Sylvain Lecoy (sylvain.lecoy@gmail.com)
  *
  */
@@ -21,13 +27,19 @@ public class Configuration
 {
     private final Xpp3Dom configuration;
     private final Xpp3Dom originalConfiguration;
-    private final ExpressionEvaluator evaluator;
+    private final MojoExecution mojoExecution;
+    private final EvaluationCache cache;
+
+    private final Map<String, String> values = new HashMap<String, String>();
+    private final Map<String, String[]> lists = new HashMap<String, String[]>();
+    private final Map<String, Map<String, String>> maps = new HashMap<String, Map<String, String>>();
 
-    Configuration(final MavenSession session, final MojoExecution mojoExecution)
+    Configuration( final EvaluationCache cache, final MojoExecution mojoExecution )
     {
         this.configuration = mojoExecution.getConfiguration();
         this.originalConfiguration = (Xpp3Dom) mojoExecution.getPlugin().getConfiguration();
-        this.evaluator = new PluginParameterExpressionEvaluator( session, mojoExecution );
+        this.mojoExecution = mojoExecution;
+        this.cache = cache;
     }
 
     /**
@@ -35,15 +47,110 @@ public class Configuration
      *
      * @return the configuration value if defined, or the default value if not.
      */
-    public @Nullable String evaluate( final String name )
+    public synchronized @Nullable String evaluate( final String name )
     {
+        if ( values.containsKey( name ) )
+            return values.get( name );
+
+        String value;
         try
         {
             final Xpp3Dom child = configuration.getChild( name );
             if ( child.getValue() != null )
-                return (String) evaluator.evaluate( child.getValue() );
+                value = evaluateExpression( child.getValue() );
             else
-                return (String) evaluator.evaluate( child.getAttribute( "default-value" ) );
+                value = evaluateExpression( child.getAttribute( "default-value" ) );
+        }
+        catch ( final Exception e )
+        {
+            value = null;
+        }
+
+        values.put( name, value );
+        return value;
+    }
+
+    /**
+     * Evaluates a configuration value only when the pom sets it, unlike {@link #evaluate(String)} which falls back to
+     * the default value of the parameter.
+     *
+     * @return the configuration value, or <tt>null</tt> if it is not configured.
+     */
+    public @Nullable String evaluateConfigured( final String name )
+    {
+        final Xpp3Dom child = configuration == null ? null : configuration.getChild( name );
+        return child == null || child.getValue() == null ? null : evaluate( name );
+    }
+
+    /**
+     * Evaluates a multi-valued configuration value, such as <code><localesCompiled></code>, in a single pass.
+     *
+     * @return the evaluated values of the children, or an empty array if the value is not defined.
+     */
+    public synchronized @NonNull String[] evaluateList( final String name )
+    {
+        if ( lists.containsKey( name ) )
+            return lists.get( name );
+
+        final Xpp3Dom child = configuration == null ? null : configuration.getChild( name );
+        final String[] list = new String[child == null ? 0 : child.getChildCount()];
+        for ( int i = 0; i < list.length; i++ )
+        {
+            list[i] = evaluateExpression( child.getChild( i ).getValue() );
+        }
+
+        lists.put( name, list );
+        return list;
+    }
+
+    /**
+     * Evaluates a configuration value made of entries holding a <tt>key</tt> and a <tt>value</tt> child, such as the
+     * <code><namespaces></code> with their <code><uri></code> and <code><manifest></code>, in a single pass. An entry
+     * without <tt>value</tt> child is kept with a <tt>null</tt> value.
+     *
+     * @return the evaluated entries in declaration order, or an empty map if the value is not defined.
+     */
+    public synchronized @NonNull Map<String, String> evaluateMap( final String name, final String key,
+                                                                  final String value )
+    {
+        if ( maps.containsKey( name ) )
+            return maps.get( name );
+
+        final Map<String, String> map = new LinkedHashMap<String, String>();
+        final Xpp3Dom child = configuration == null ? null : configuration.getChild( name );
+        if ( child != null )
+        {
+            for ( final Xpp3Dom entry : child.getChildren() )
+            {
+                final Xpp3Dom keyChild = entry.getChild( key );
+                final Xpp3Dom valueChild = entry.getChild( value );
+                if ( keyChild != null )
+                {
+                    map.put( evaluateExpression( keyChild.getValue() ),
+                             valueChild == null ? null : evaluateExpression( valueChild.getValue() ) );
+                }
+            }
+        }
+
+        final Map<String, String> unmodifiable = Collections.unmodifiableMap( map );
+        maps.put( name, unmodifiable );
+        return unmodifiable;
+    }
+
+    /**
+     * Evaluates an expression through the cache of the project.
+     *
+     * @return the string value of the expression, or <tt>null</tt> if it can not be evaluated.
+     */
+    private @Nullable String evaluateExpression( final String expression )
+    {
+        if ( expression == null )
+            return null;
+
+        try
+        {
+            final Object value = cache.evaluate( mojoExecution, expression );
+            return value == null ? null : value.toString();
         }
         catch ( final Exception e )
         {
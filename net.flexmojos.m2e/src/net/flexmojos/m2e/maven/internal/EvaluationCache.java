@@ -0,0 +1,97 @@
+package net.flexmojos.m2e.maven.internal;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.plugin.PluginParameterExpressionEvaluator;
+import org.codehaus.plexus.component.configurator.expression.ExpressionEvaluationException;
+import org.codehaus.plexus.component.configurator.expression.ExpressionEvaluator;
+
+import com.google.inject.Inject;
+
+/**
+ * Per project cache of evaluated expressions.
+ *
+ * An expression can depend on the mojo execution evaluating it (<code>${mojoExecution}</code>, <code>${plugin}</code>,
+ * ...), so the evaluator and the values are kept per execution: each distinct expression, such as
+ * <code>${project.build.directory}</code>, is evaluated once per execution, and an evaluator is only created for the
+ * executions which evaluate an expression. The instance of the project is given to every adapter, so an adapter
+ * created again for an execution, as Flexmojos6Plugin does for each compile execution to list the applications, reads
+ * the values already evaluated instead of evaluating them again. It also counts the evaluations of the project, which
+ * the configurator reports to the {@link net.flexmojos.m2e.project.ConfigurationMetrics}.
+ *
+ * @author Sylvain Lecoy (sylvain.lecoy@gmail.com)
+ *
+ */
+public class EvaluationCache
+{
+    private final MavenSession session;
+
+    private final Map<MojoExecution, ExpressionEvaluator> evaluators =
+        new HashMap<MojoExecution, ExpressionEvaluator>();
+
+    private final Map<MojoExecution, Map<String, Object>> values = new HashMap<MojoExecution, Map<String, Object>>();
+
+    private long hits;
+
+    private long misses;
+
+    @Inject EvaluationCache( final MavenSession session )
+    {
+        this.session = session;
+    }
+
+    /**
+     * Evaluates an expression, or returns its cached value.
+     *
+     * @param mojoExecution the execution evaluating the expression.
+     * @param expression
+     * @return the value of the expression, can be <tt>null</tt>.
+     * @throws ExpressionEvaluationException
+     */
+    synchronized Object evaluate( final MojoExecution mojoExecution, final String expression )
+        throws ExpressionEvaluationException
+    {
+        Map<String, Object> executionValues = values.get( mojoExecution );
+        if ( executionValues == null )
+        {
+            executionValues = new HashMap<String, Object>();
+            values.put( mojoExecution, executionValues );
+        }
+        else if ( executionValues.containsKey( expression ) )
+        {
+            hits++;
+            return executionValues.get( expression );
+        }
+
+        misses++;
+        ExpressionEvaluator evaluator = evaluators.get( mojoExecution );
+        if ( evaluator == null )
+        {
+            evaluator = new PluginParameterExpressionEvaluator( session, mojoExecution );
+            evaluators.put( mojoExecution, evaluator );
+        }
+
+        final Object value = evaluator.evaluate( expression );
+        executionValues.put( expression, value );
+        return value;
+    }
+
+    /**
+     * Gets the number of evaluations answered from the cache.
+     */
+    public synchronized long getHits()
+    {
+        return hits;
+    }
+
+    /**
+     * Gets the number of evaluations delegated to the expression evaluator.
+     */
+    public synchronized long getMisses()
+    {
+        return misses;
+    }
+}
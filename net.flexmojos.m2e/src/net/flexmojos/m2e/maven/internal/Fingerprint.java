@@ -0,0 +1,84 @@
+package net.flexmojos.m2e.maven.internal;
+
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Accumulates the inputs of a project configuration into a short digest.
+ *
+ * The digest is small enough to be stored as a persistent property of the project, so configurators can compare it
+ * against the one of their last run and skip the configuration when nothing has changed.
+ *
+ * @author Sylvain Lecoy (sylvain.lecoy@gmail.com)
+ *
+ */
+public class Fingerprint
+{
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final MessageDigest digest;
+
+    public Fingerprint()
+    {
+        try
+        {
+            digest = MessageDigest.getInstance( "SHA-1" );
+        }
+        catch ( final NoSuchAlgorithmException e )
+        {
+            throw new RuntimeException( e );
+        }
+    }
+
+    /**
+     * Adds a value to the fingerprint, <tt>null</tt> values are accepted and distinguished from empty ones.
+     *
+     * @param value
+     * @return this fingerprint.
+     */
+    public Fingerprint add( final Object value )
+    {
+        try
+        {
+            digest.update( value == null ? (byte) 0 : (byte) 1 );
+            if ( value != null )
+            {
+                digest.update( value.toString().getBytes( "UTF-8" ) );
+            }
+            // Separates values so ("ab", "c") and ("a", "bc") do not collide.
+            digest.update( (byte) 0 );
+        }
+        catch ( final UnsupportedEncodingException e )
+        {
+            throw new RuntimeException( e );
+        }
+        return this;
+    }
+
+    /**
+     * Returns the hexadecimal digest of the values added so far.
+     */
+    @Override
+    public String toString()
+    {
+        final byte[] bytes;
+        try
+        {
+            // Digests a clone so the fingerprint can still be extended afterwards.
+            bytes = ( (MessageDigest) digest.clone() ).digest();
+        }
+        catch ( final CloneNotSupportedException e )
+        {
+            throw new RuntimeException( e );
+        }
+
+        final char[] chars = new char[bytes.length * 2];
+        for ( int i = 0; i < bytes.length; i++ )
+        {
+            chars[i * 2] = HEX[( bytes[i] >> 4 ) & 0xf];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0xf];
+        }
+        return new String( chars );
+    }
+}
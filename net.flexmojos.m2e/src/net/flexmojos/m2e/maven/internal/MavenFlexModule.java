@@ -1,45 +1,74 @@
 package net.flexmojos.m2e.maven.internal;
 
 import java.lang.annotation.Annotation;
-import java.util.LinkedList;
+import java.util.Collections;
 import java.util.List;
 
+import net.flexmojos.m2e.project.ConfigurationScoped;
+
 import org.apache.maven.plugin.MojoExecution;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.m2e.core.project.IMavenProjectFacade;
 
 import com.google.inject.AbstractModule;
+import com.google.inject.Provider;
+import com.google.inject.Provides;
+import com.google.inject.TypeLiteral;
 
 /**
  * Maven Flex Plug-in abstract components configuration. Depending on the version of the Plug-in, a specialized version
  * of this module is installed to bind the correct dependencies.
  *
+ * The module does not depend on a project: the executions of the plug-in are resolved once per configuration, and the
+ * mojo bindings provide <tt>null</tt> when the project does not execute their goals.
+ *
  * @author Sylvain Lecoy (sylvain.lecoy@gmail.com)
  *
  */
 public abstract class MavenFlexModule extends AbstractModule
 {
-    protected final IMavenProjectFacade facade;
-    protected final IProgressMonitor monitor;
-
     protected final String groupId;
     protected final String artifactId;
+    protected final String[] goals;
 
-    public MavenFlexModule( final IMavenProjectFacade facade,
-                            final IProgressMonitor monitor,
-                            final String groupId,
-                            final String artifactId )
+    /**
+     * @param groupId
+     * @param artifactId
+     * @param goals every goal the module binds executions for.
+     */
+    public MavenFlexModule( final String groupId,
+                            final String artifactId,
+                            final String... goals )
     {
-        this.facade = facade;
-        this.monitor = monitor;
         this.groupId = groupId;
         this.artifactId = artifactId;
+        this.goals = goals;
+    }
+
+    /**
+     * Gets the executions of the plug-in indexed by goal. The executions of all the goals of the module are resolved by
+     * m2e in a single call, once per configuration.
+     */
+    @Provides @ConfigurationScoped
+    MojoExecutions getMojoExecutions( final IMavenProjectFacade facade, final IProgressMonitor monitor )
+    {
+        List<MojoExecution> mojoExecutions;
+        try
+        {
+            mojoExecutions = facade.getMojoExecutions( groupId, artifactId, monitor, goals );
+        }
+        catch ( final CoreException e )
+        {
+            mojoExecutions = Collections.emptyList();
+        }
+        return new MojoExecutions( mojoExecutions );
     }
 
     /**
      * Binds <ll>clazz</ll> to its <ll>implementation</ll> when an <ll>annotation</ll> Mojo is found in the list of
-     * <ll>goals</ll> executed.
+     * <ll>goals</ll> executed, to <tt>null</tt> otherwise. The first execution is bound to the <ll>annotation</ll>
+     * MojoExecution, and all of them to the <ll>annotation</ll> list of MojoExecution.
      *
      * @param clazz
      * @param implementation
@@ -51,25 +80,39 @@ public abstract class MavenFlexModule extends AbstractModule
                                           final Class<? extends Annotation> annotation,
                                           final String... goals )
     {
-        List<MojoExecution> executions;
-
-        try
-        {
-            executions = facade.getMojoExecutions( groupId, artifactId, monitor, goals );
-        }
-        catch ( final CoreException e )
-        {
-            executions = new LinkedList<MojoExecution>();
-        }
+        final Provider<MojoExecutions> executions = getProvider( MojoExecutions.class );
+        final Provider<? extends T> adapter = getProvider( implementation );
 
-        if ( !executions.isEmpty() )
-        {
-            bind( MojoExecution.class )
-                .annotatedWith( annotation )
-                .toInstance( executions.get( 0 ) );
-            bind( clazz )
-                .to( implementation );
-        }
+        bind( new TypeLiteral<List<MojoExecution>>() {} )
+            .annotatedWith( annotation )
+            .toProvider( new Provider<List<MojoExecution>>()
+            {
+                @Override
+                public List<MojoExecution> get()
+                {
+                    return executions.get().get( goals );
+                }
+            } );
+        bind( MojoExecution.class )
+            .annotatedWith( annotation )
+            .toProvider( new Provider<MojoExecution>()
+            {
+                @Override
+                public MojoExecution get()
+                {
+                    final List<MojoExecution> goalsExecutions = executions.get().get( goals );
+                    return goalsExecutions.isEmpty() ? null : goalsExecutions.get( 0 );
+                }
+            } );
+        bind( clazz )
+            .toProvider( new Provider<T>()
+            {
+                @Override
+                public T get()
+                {
+                    return executions.get().get( goals ).isEmpty() ? null : adapter.get();
+                }
+            } );
     }
 
 }
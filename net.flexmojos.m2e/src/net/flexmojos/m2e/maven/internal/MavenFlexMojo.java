@@ -1,14 +1,13 @@
 package net.flexmojos.m2e.maven.internal;
 
-import org.apache.maven.execution.MavenSession;
 import org.apache.maven.plugin.MojoExecution;
 
 public abstract class MavenFlexMojo
 {
     protected Configuration configuration;
 
-    protected MavenFlexMojo( final MavenSession session, final MojoExecution mojoExecution )
+    protected MavenFlexMojo( final EvaluationCache cache, final MojoExecution mojoExecution )
     {
-        this.configuration = new Configuration( session, mojoExecution );
+        this.configuration = new Configuration( cache, mojoExecution );
     }
 }
@@ -1,10 +1,15 @@
 package net.flexmojos.m2e.maven.internal;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
+import net.flexmojos.m2e.flex.CompilerOptions;
+import net.flexmojos.m2e.maven.ArtifactIndex;
 import net.flexmojos.m2e.maven.ICompilerMojo;
 import net.flexmojos.m2e.maven.IGeneratorMojo;
 import net.flexmojos.m2e.maven.IMavenFlexPlugin;
@@ -13,26 +18,75 @@ import net.flexmojos.m2e.maven.internal.discovery.ServerDiscovery;
 
 import org.apache.maven.artifact.Artifact;
 import org.apache.maven.model.Build;
+import org.apache.maven.plugin.MojoExecution;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.m2e.core.project.IMavenProjectFacade;
 
 import com.google.inject.Inject;
+import com.google.inject.Provider;
 
 public abstract class MavenFlexPlugin implements IMavenFlexPlugin
 {
     protected final IProgressMonitor monitor;
     protected final IMavenProjectFacade facade;
+    protected final ArtifactIndex artifacts;
 
-    @Inject protected ICompilerMojo compiler;
-    @Inject(optional = true) protected IGeneratorMojo generator;
-    @Inject(optional = true) protected ISignAirMojo signAir;
+    // The mojo adapters are built the first time a value is requested, so a configurator only pays for the mojos it
+    // actually reads. The providers give null when the project does not execute the goal of the mojo.
+    @Inject private Provider<ICompilerMojo> compilerProvider;
+    @Inject private Provider<IGeneratorMojo> generatorProvider;
+    @Inject private Provider<ISignAirMojo> signAirProvider;
+
+    @Inject private Provider<ServerDiscovery> discoveryProvider;
+
+    @Inject private MojoExecutions executions;
+
+    private ICompilerMojo compiler;
+    private IGeneratorMojo generator;
+    private ISignAirMojo signAir;
 
     protected MavenFlexPlugin( final IMavenProjectFacade facade,
-                               final IProgressMonitor monitor )
+                               final IProgressMonitor monitor,
+                               final ArtifactIndex artifacts )
     {
         this.facade = facade;
         this.monitor = monitor;
+        this.artifacts = artifacts;
+    }
+
+    /**
+     * Gets the compiler mojo.
+     */
+    protected ICompilerMojo getCompiler()
+    {
+        if ( compiler == null )
+            compiler = compilerProvider.get();
+
+        return compiler;
+    }
+
+    /**
+     * Gets the generator mojo, or <tt>null</tt> if the project does not execute the "generate" goal.
+     */
+    protected IGeneratorMojo getGenerator()
+    {
+        if ( generator == null )
+            generator = generatorProvider.get();
+
+        return generator;
+    }
+
+    /**
+     * Gets the sign-air mojo, or <tt>null</tt> if the project does not execute the "sign-air" goal.
+     */
+    protected ISignAirMojo getSignAir()
+    {
+        if ( signAir == null )
+            signAir = signAirProvider.get();
+
+        return signAir;
     }
 
     protected Build getBuild()
@@ -49,30 +103,9 @@ public abstract class MavenFlexPlugin implements IMavenFlexPlugin
     @Override
     public Artifact getFlexFramework()
     {
-        final Map<String, Artifact> artifacts = facade.getMavenProject().getArtifactMap();
-
-        // Checks an Apache Flex Framework artifact exists.
-        if ( artifacts.containsKey( "org.apache.flex.framework:flex-framework" ) )
-            // If it does, return the instance of Apache Flex framework artifact.
-            return artifacts.get( "org.apache.flex.framework:flex-framework" );
-
-        // Checks an Adobe Flex Framework artifact exists.
-        if ( artifacts.containsKey( "com.adobe.flex.framework:flex-framework" ) )
-            // If it does, return the instance of Adobe Flex Framework artifact.
-            return artifacts.get( "com.adobe.flex.framework:flex-framework" );
-
-        // TODO: Move the following air-framework in a new method getAirFramework() ?
-        if ( artifacts.containsKey( "org.apache.flex.framework.air:air-framework" ) )
-            // If it does, return the instance of Apache Flex AIR Framework artifact.
-            return artifacts.get( "org.apache.flex.framework.air:air-framework" );
-
-        if ( artifacts.containsKey( "com.adobe.flex.framework.air:air-framework" ) )
-            // If it does, return the instance of Adobe Flex AIR Framework artifact.
-            return artifacts.get( "com.adobe.flex.framework.air:air-framework" );
-
-        if ( artifacts.containsKey( "com.adobe.flex.framework:air-framework" ) )
-            // If it does, return the instance of Adobe Flex AIR Framework artifact.
-            return artifacts.get( "com.adobe.flex.framework:air-framework" );
+        final Artifact flexFramework = artifacts.getFlexFramework();
+        if ( flexFramework != null )
+            return flexFramework;
 
         // Informs user that Flex Framework artifact could not be found.
         throw new RuntimeException( "Flex Framework not found in project's artifacts." );
@@ -83,45 +116,96 @@ public abstract class MavenFlexPlugin implements IMavenFlexPlugin
     {
         final List<IPath> classPath = new ArrayList<IPath>( Arrays.asList( facade.getResourceLocations() ) );
 
-        // Test source directory is treated as a supplementary source path entry so tests can execute in Eclipse.
-        final IPath testSourceDirectory = facade.getProjectRelativePath( getBuild().getTestSourceDirectory() );
-        if ( testSourceDirectory.toFile().exists() )
+        // Test source directory is treated as a supplementary source path entry so tests can execute in Eclipse,
+        // unless the project compiles its tests separately.
+        if ( !isTestSourcesSeparate() && new File( getBuild().getTestSourceDirectory() ).exists() )
         {
-            classPath.add( testSourceDirectory );
+            final IPath testSourceDirectory = facade.getProjectRelativePath( getBuild().getTestSourceDirectory() );
+            if ( testSourceDirectory != null )
+            {
+                classPath.add( testSourceDirectory );
+            }
         }
 
         return classPath.toArray( new IPath[classPath.size()] );
     }
 
+    /**
+     * Whether or not the test sources are excluded from the source path of the project, set by the
+     * {@link #TEST_SOURCES_PROPERTY} property of the pom. Tests are then only compiled by the "test-compile" goal of
+     * Maven.
+     */
+    protected boolean isTestSourcesSeparate()
+    {
+        return "separate".equals( facade.getMavenProject().getProperties().getProperty( TEST_SOURCES_PROPERTY ) );
+    }
+
     @Override
     public String getTargetPlayerVersion()
     {
-        return compiler.getTargetPlayerVersion();
+        return getCompiler().getTargetPlayerVersion();
     }
 
     @Override
     public IPath getMainApplicationPath()
     {
-        return compiler.getMainApplicationPath();
+        return getCompiler().getMainApplicationPath();
+    }
+
+    @Override
+    public CompilerOptions getCompilerOptions()
+    {
+        return getCompiler().getCompilerOptions();
+    }
+
+    @Override
+    public boolean isFastDev()
+    {
+        return CompilerOptions.isFastDev( facade.getMavenProject().getProperties() );
+    }
+
+    @Override
+    public IPath[] getApplicationPaths()
+    {
+        final IPath mainApplicationPath = getMainApplicationPath();
+        return mainApplicationPath == null ? new IPath[0] : new IPath[] { mainApplicationPath };
+    }
+
+    @Override
+    public String[] getRslUrls()
+    {
+        return getCompiler().getRslUrls();
+    }
+
+    @Override
+    public String[] getPolicyFileUrls()
+    {
+        return getCompiler().getPolicyFileUrls();
+    }
+
+    @Override
+    public String getContextRoot()
+    {
+        return getCompiler().getContextRoot();
     }
 
     @Override
     public boolean hasOutputFolderPath()
     {
-        return compiler.hasOutputFolderPath();
+        return getCompiler().hasOutputFolderPath();
     }
 
     @Override
     public IPath getOutputFolderPath()
     {
-        final IPath outputFolderPath = compiler.getOutputFolderPath();
+        final IPath outputFolderPath = getCompiler().getOutputFolderPath();
         final IPath outputDirectory = facade.getProjectRelativePath( outputFolderPath.toString() );
 
         // Checks the outputFolder property has been set or not.
-        if ( !compiler.hasOutputFolderPath() )
+        if ( !getCompiler().hasOutputFolderPath() )
         {
             // If it does not, triggers the strategy finder.
-            final ServerDiscovery discovery = new ServerDiscovery();
+            final ServerDiscovery discovery = discoveryProvider.get();
             if ( discovery.hasServer( facade.getMavenProject() ) )
             {
                 return discovery.getOutputFolderPath();
@@ -167,4 +251,72 @@ public abstract class MavenFlexPlugin implements IMavenFlexPlugin
         return null;
     }
 
+    @Override
+    public Map<IPath, String> getGeneratedManifests()
+    {
+        return Collections.emptyMap();
+    }
+
+    /**
+     * Whether or not the output directory is configured, read from the raw configuration of the plug-in as the
+     * compiler mojo does.
+     */
+    private static boolean hasOutputDirectory( final MojoExecution execution )
+    {
+        final Xpp3Dom configuration = (Xpp3Dom) execution.getPlugin().getConfiguration();
+        return configuration != null && configuration.getChild( "outputDirectory" ) != null;
+    }
+
+    @Override
+    public String getFingerprint()
+    {
+        final Fingerprint fingerprint = new Fingerprint();
+        fingerprint.add( facade.getPackaging() );
+
+        // Artifact ids carry the version, so the Flex framework version is part of the fingerprint.
+        for ( final Artifact artifact : facade.getMavenProject().getArtifacts() )
+        {
+            fingerprint.add( artifact.getId() );
+            fingerprint.add( artifact.getScope() );
+
+            final File file = artifact.getFile();
+            if ( file != null )
+            {
+                fingerprint.add( file.getAbsolutePath() );
+                fingerprint.add( file.lastModified() );
+            }
+        }
+
+        fingerprint.add( getBuild().getSourceDirectory() );
+        fingerprint.add( getBuild().getTestSourceDirectory() );
+        fingerprint.add( new File( getBuild().getTestSourceDirectory() ).exists() );
+        fingerprint.add( isTestSourcesSeparate() );
+        fingerprint.add( isFastDev() );
+        for ( final IPath resource : facade.getResourceLocations() )
+        {
+            fingerprint.add( resource );
+        }
+
+        // The raw configuration of the executions is fingerprinted rather than the values read by the mojo adapters,
+        // so no adapter is built until the fingerprint mismatches. Its expressions depend on the model of the project.
+        fingerprint.add( getBuild().getDirectory() );
+        fingerprint.add( getBuild().getFinalName() );
+        fingerprint.add( new TreeMap<Object, Object>( facade.getMavenProject().getProperties() ) );
+        for ( final MojoExecution execution : executions.getAll() )
+        {
+            fingerprint.add( execution.getExecutionId() );
+            fingerprint.add( execution.getGoal() );
+            fingerprint.add( execution.getConfiguration() );
+        }
+
+        // The web application hosting the output belongs to another module.
+        if ( !executions.getAll().isEmpty() && !hasOutputDirectory( executions.getAll().get( 0 ) ) )
+        {
+            final ServerDiscovery discovery = discoveryProvider.get();
+            fingerprint.add( discovery.hasServer( facade.getMavenProject() ) ? discovery.getOutputFolderPath() : null );
+        }
+
+        return fingerprint.toString();
+    }
+
 }
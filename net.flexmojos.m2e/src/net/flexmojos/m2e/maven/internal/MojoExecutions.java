@@ -0,0 +1,62 @@
+package net.flexmojos.m2e.maven.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.maven.plugin.MojoExecution;
+
+/**
+ * Executions of the Maven Flex Plug-in of a project, indexed by goal.
+ *
+ * @author Sylvain Lecoy (sylvain.lecoy@gmail.com)
+ */
+public class MojoExecutions
+{
+    private final Map<String, List<MojoExecution>> executions = new HashMap<String, List<MojoExecution>>();
+
+    private final List<MojoExecution> all;
+
+    public MojoExecutions( final List<MojoExecution> mojoExecutions )
+    {
+        all = Collections.unmodifiableList( new ArrayList<MojoExecution>( mojoExecutions ) );
+        for ( final MojoExecution mojoExecution : mojoExecutions )
+        {
+            List<MojoExecution> goalExecutions = executions.get( mojoExecution.getGoal() );
+            if ( goalExecutions == null )
+            {
+                goalExecutions = new ArrayList<MojoExecution>();
+                executions.put( mojoExecution.getGoal(), goalExecutions );
+            }
+            goalExecutions.add( mojoExecution );
+        }
+    }
+
+    /**
+     * Gets the executions of some goals, in the order of the goals.
+     *
+     * @param goals
+     * @return
+     */
+    public List<MojoExecution> get( final String... goals )
+    {
+        final List<MojoExecution> goalsExecutions = new ArrayList<MojoExecution>();
+        for ( final String goal : goals )
+        {
+            final List<MojoExecution> goalExecutions = executions.get( goal );
+            if ( goalExecutions != null )
+                goalsExecutions.addAll( goalExecutions );
+        }
+        return Collections.unmodifiableList( goalsExecutions );
+    }
+
+    /**
+     * Gets every execution of the plug-in.
+     */
+    public List<MojoExecution> getAll()
+    {
+        return all;
+    }
+}
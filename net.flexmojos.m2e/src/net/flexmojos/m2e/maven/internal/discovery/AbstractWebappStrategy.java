@@ -0,0 +1,140 @@
+package net.flexmojos.m2e.maven.internal.discovery;
+
+import java.io.File;
+
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.PluginExecution;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.m2e.core.project.IMavenProjectFacade;
+
+/**
+ * Base class of the strategies hosting the output of a SWF module in the web application of a war module depending on
+ * it.
+ *
+ * @author Sylvain Lecoy (sylvain.lecoy@gmail.com)
+ */
+public abstract class AbstractWebappStrategy implements IServerDiscoveryStrategy
+{
+    private static final String WAR = "org.apache.maven.plugins:maven-war-plugin";
+
+    /**
+     * Variable of Flash Builder resolved to the location of the workspace.
+     */
+    private static final String DOCUMENTS = "${DOCUMENTS}";
+
+    private final ReactorIndex index;
+
+    private IPath outputFolderPath;
+
+    protected AbstractWebappStrategy( final ReactorIndex index )
+    {
+        this.index = index;
+    }
+
+    @Override
+    public boolean hasServer( final MavenProject project )
+    {
+        for ( final IMavenProjectFacade war : index.getConsumers( project.getGroupId(), project.getArtifactId() ) )
+        {
+            final String webappDirectory = getWebappDirectory( war.getMavenProject() );
+            if ( webappDirectory != null )
+            {
+                outputFolderPath = getWorkspacePath( war, new File( webappDirectory ) );
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the path of a directory of the war module relative to the workspace, through the ${DOCUMENTS} variable of
+     * Flash Builder, so the settings do not depend on where the workspace is. A directory outside of the war module is
+     * kept absolute.
+     */
+    private static IPath getWorkspacePath( final IMavenProjectFacade war, final File directory )
+    {
+        final IPath fullPath = war.getFullPath( directory );
+        return fullPath != null ? new Path( DOCUMENTS ).append( fullPath ) : new Path( directory.getAbsolutePath() );
+    }
+
+    @Override
+    public IPath getOutputFolderPath()
+    {
+        return outputFolderPath;
+    }
+
+    /**
+     * Gets the web application directory of a war module.
+     *
+     * @param war
+     * @return the directory, or <tt>null</tt> if the war module is not handled by the strategy.
+     */
+    protected abstract String getWebappDirectory( MavenProject war );
+
+    /**
+     * Gets a configuration value of a build plug-in, from the plug-in configuration or from the configuration of the
+     * execution of a given goal. Values are read from the effective model, so their expressions are interpolated.
+     *
+     * @param war
+     * @param pluginKey "groupId:artifactId" of the plug-in.
+     * @param goal the goal the plug-in has to execute, or <tt>null</tt> if any.
+     * @param name
+     * @param defaultValue returned when the plug-in is used but the value is not configured.
+     * @return the value, or <tt>null</tt> if the plug-in is not used.
+     */
+    protected static String getConfigurationValue( final MavenProject war, final String pluginKey, final String goal,
+                                                   final String name, final String defaultValue )
+    {
+        final Plugin plugin = war.getPlugin( pluginKey );
+        if ( plugin == null )
+            return null;
+
+        boolean executed = goal == null;
+        String value = getValue( plugin.getConfiguration(), name );
+        for ( final PluginExecution execution : plugin.getExecutions() )
+        {
+            if ( goal != null && execution.getGoals().contains( goal ) )
+            {
+                executed = true;
+                final String executionValue = getValue( execution.getConfiguration(), name );
+                if ( executionValue != null )
+                    value = executionValue;
+            }
+        }
+
+        if ( !executed )
+            return null;
+
+        return value != null ? value : defaultValue;
+    }
+
+    private static String getValue( final Object configuration, final String name )
+    {
+        if ( !( configuration instanceof Xpp3Dom ) )
+            return null;
+
+        final Xpp3Dom child = ( (Xpp3Dom) configuration ).getChild( name );
+        return child == null ? null : child.getValue();
+    }
+
+    /**
+     * Gets the exploded web application directory built by default by the war module.
+     */
+    protected static String getDefaultWebappDirectory( final MavenProject war )
+    {
+        return war.getBuild().getDirectory() + File.separator + war.getBuild().getFinalName();
+    }
+
+    /**
+     * Gets the exploded web application directory of the war module, as configured for the war plug-in. The war
+     * plug-in is implied by the packaging, even when the pom does not declare it.
+     */
+    protected static String getWarWebappDirectory( final MavenProject war )
+    {
+        final String directory = getConfigurationValue( war, WAR, null, "webappDirectory", null );
+        return directory != null ? directory : getDefaultWebappDirectory( war );
+    }
+}
@@ -0,0 +1,29 @@
+package net.flexmojos.m2e.maven.internal.discovery;
+
+import org.apache.maven.project.MavenProject;
+
+import com.google.inject.Inject;
+
+/**
+ * Copies the output in the directory the war module copies its Flex resources to, with the "copy-flex-resources"
+ * goal of Flexmojos.
+ *
+ * @author Sylvain Lecoy (sylvain.lecoy@gmail.com)
+ */
+public class CopyFlexResourcesStrategy extends AbstractWebappStrategy
+{
+    private static final String FLEXMOJOS = "net.flexmojos.oss:flexmojos-maven-plugin";
+
+    @Inject CopyFlexResourcesStrategy( final ReactorIndex index )
+    {
+        super( index );
+    }
+
+    @Override
+    protected String getWebappDirectory( final MavenProject war )
+    {
+        return getConfigurationValue( war, FLEXMOJOS, "copy-flex-resources", "webappDirectory",
+                                      getDefaultWebappDirectory( war ) );
+    }
+
+}
@@ -0,0 +1,34 @@
+package net.flexmojos.m2e.maven.internal.discovery;
+
+import org.apache.maven.project.MavenProject;
+
+import com.google.inject.Inject;
+
+/**
+ * Copies the output in the exploded web application of the war module, when it is served by the Jetty plug-in.
+ *
+ * @author Sylvain Lecoy (sylvain.lecoy@gmail.com)
+ */
+public class JettyStrategy extends AbstractWebappStrategy
+{
+    private static final String[] JETTY = { "org.eclipse.jetty:jetty-maven-plugin",
+        "org.mortbay.jetty:maven-jetty-plugin" };
+
+    @Inject JettyStrategy( final ReactorIndex index )
+    {
+        super( index );
+    }
+
+    @Override
+    protected String getWebappDirectory( final MavenProject war )
+    {
+        for ( final String plugin : JETTY )
+        {
+            // The exploded web application is served rather than the sources, which are under version control.
+            if ( war.getPlugin( plugin ) != null )
+                return getWarWebappDirectory( war );
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,118 @@
+package net.flexmojos.m2e.maven.internal.discovery;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.maven.model.Dependency;
+import org.apache.maven.project.MavenProject;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.m2e.core.MavenPlugin;
+import org.eclipse.m2e.core.project.IMavenProjectChangedListener;
+import org.eclipse.m2e.core.project.IMavenProjectFacade;
+import org.eclipse.m2e.core.project.MavenProjectChangedEvent;
+
+import com.google.inject.Singleton;
+
+/**
+ * Index of the war modules of the workspace, keyed by the "groupId:artifactId" of the SWF modules they depend on.
+ *
+ * The index is built the first time it is queried, then kept until a Maven project of the workspace changes, so every
+ * project of a workspace refresh is resolved by a lookup instead of a scan of all the modules. The index only holds
+ * the facades of the war modules, so the Maven projects they cache can still be released by m2e.
+ *
+ * The index follows the changes of the Maven projects between {@link #start()} and {@link #stop()}, called by the
+ * activator of the bundle with the lifecycle of the injector holding the index.
+ *
+ * @author Sylvain Lecoy (sylvain.lecoy@gmail.com)
+ */
+@Singleton
+public class ReactorIndex implements IMavenProjectChangedListener
+{
+    private Map<String, List<IMavenProjectFacade>> consumers;
+
+    /**
+     * Starts following the changes of the Maven projects of the workspace.
+     */
+    public void start()
+    {
+        MavenPlugin.getMavenProjectRegistry().addMavenProjectChangedListener( this );
+    }
+
+    /**
+     * Stops following the changes of the Maven projects, and forgets the index.
+     */
+    public void stop()
+    {
+        MavenPlugin.getMavenProjectRegistry().removeMavenProjectChangedListener( this );
+        synchronized ( this )
+        {
+            consumers = null;
+        }
+    }
+
+    /**
+     * Gets the war modules of the workspace depending on a SWF module.
+     *
+     * @param groupId
+     * @param artifactId
+     * @return the facades of the war modules whose Maven project is still cached.
+     */
+    public synchronized List<IMavenProjectFacade> getConsumers( final String groupId, final String artifactId )
+    {
+        if ( consumers == null )
+        {
+            consumers = index();
+        }
+
+        final List<IMavenProjectFacade> facades = consumers.get( groupId + ":" + artifactId );
+        if ( facades == null )
+            return Collections.<IMavenProjectFacade> emptyList();
+
+        final List<IMavenProjectFacade> wars = new ArrayList<IMavenProjectFacade>( facades.size() );
+        for ( final IMavenProjectFacade facade : facades )
+        {
+            // Skips the war modules whose Maven project has been released since the index was built.
+            if ( facade.getMavenProject() != null )
+                wars.add( facade );
+        }
+        return wars;
+    }
+
+    @Override
+    public synchronized void mavenProjectChanged( final MavenProjectChangedEvent[] events,
+                                                  final IProgressMonitor monitor )
+    {
+        consumers = null;
+    }
+
+    private static Map<String, List<IMavenProjectFacade>> index()
+    {
+        final Map<String, List<IMavenProjectFacade>> index = new HashMap<String, List<IMavenProjectFacade>>();
+        for ( final IMavenProjectFacade facade : MavenPlugin.getMavenProjectRegistry().getProjects() )
+        {
+            // Only the cached Maven projects are indexed, loading the others would cost a full project build.
+            final MavenProject war = facade.getMavenProject();
+            if ( war == null || !"war".equals( war.getPackaging() ) )
+                continue;
+
+            for ( final Dependency dependency : war.getDependencies() )
+            {
+                if ( !"swf".equals( dependency.getType() ) )
+                    continue;
+
+                final String key = dependency.getGroupId() + ":" + dependency.getArtifactId();
+                List<IMavenProjectFacade> wars = index.get( key );
+                if ( wars == null )
+                {
+                    wars = new ArrayList<IMavenProjectFacade>();
+                    index.put( key, wars );
+                }
+                wars.add( facade );
+            }
+        }
+        return index;
+    }
+}
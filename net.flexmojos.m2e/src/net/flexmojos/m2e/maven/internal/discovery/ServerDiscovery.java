@@ -3,21 +3,47 @@ package net.flexmojos.m2e.maven.internal.discovery;
 import org.apache.maven.project.MavenProject;
 import org.eclipse.core.runtime.IPath;
 
+import com.google.inject.Inject;
+
+/**
+ * Finds the web application hosting the output of a SWF module, by trying each strategy in turn: the Flexmojos
+ * "copy-flex-resources" goal, the Jetty and Tomcat plug-ins, and finally the war module itself.
+ *
+ * @author Sylvain Lecoy (sylvain.lecoy@gmail.com)
+ */
 public class ServerDiscovery implements IServerDiscoveryStrategy
 {
+    private final IServerDiscoveryStrategy[] strategies;
+
+    private IServerDiscoveryStrategy server;
+
+    @Inject ServerDiscovery( final CopyFlexResourcesStrategy copyFlexResources,
+                             final JettyStrategy jetty,
+                             final TomcatStrategy tomcat,
+                             final WarModuleStrategy war )
+    {
+        this.strategies = new IServerDiscoveryStrategy[] { copyFlexResources, jetty, tomcat, war };
+    }
 
     @Override
     public boolean hasServer( final MavenProject project )
     {
-        // TODO Auto-generated method stub
+        server = null;
+        for ( final IServerDiscoveryStrategy strategy : strategies )
+        {
+            if ( strategy.hasServer( project ) )
+            {
+                server = strategy;
+                return true;
+            }
+        }
         return false;
     }
 
     @Override
     public IPath getOutputFolderPath()
     {
-        // TODO Auto-generated method stub
-        return null;
+        return server == null ? null : server.getOutputFolderPath();
     }
 
 }
@@ -0,0 +1,33 @@
+package net.flexmojos.m2e.maven.internal.discovery;
+
+import org.apache.maven.project.MavenProject;
+
+import com.google.inject.Inject;
+
+/**
+ * Copies the output in the exploded web application of the war module, when it is served by the Tomcat plug-in.
+ *
+ * @author Sylvain Lecoy (sylvain.lecoy@gmail.com)
+ */
+public class TomcatStrategy extends AbstractWebappStrategy
+{
+    private static final String[] TOMCAT = { "org.apache.tomcat.maven:tomcat7-maven-plugin",
+        "org.codehaus.mojo:tomcat-maven-plugin" };
+
+    @Inject TomcatStrategy( final ReactorIndex index )
+    {
+        super( index );
+    }
+
+    @Override
+    protected String getWebappDirectory( final MavenProject war )
+    {
+        for ( final String plugin : TOMCAT )
+        {
+            if ( war.getPlugin( plugin ) != null )
+                return getWarWebappDirectory( war );
+        }
+        return null;
+    }
+
+}
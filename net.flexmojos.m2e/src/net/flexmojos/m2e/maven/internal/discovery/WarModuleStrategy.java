@@ -0,0 +1,25 @@
+package net.flexmojos.m2e.maven.internal.discovery;
+
+import org.apache.maven.project.MavenProject;
+
+import com.google.inject.Inject;
+
+/**
+ * Copies the output in the exploded web application directory of the war module.
+ *
+ * @author Sylvain Lecoy (sylvain.lecoy@gmail.com)
+ */
+public class WarModuleStrategy extends AbstractWebappStrategy
+{
+    @Inject WarModuleStrategy( final ReactorIndex index )
+    {
+        super( index );
+    }
+
+    @Override
+    protected String getWebappDirectory( final MavenProject war )
+    {
+        return getWarWebappDirectory( war );
+    }
+
+}
@@ -1,10 +1,14 @@
 package net.flexmojos.m2e.maven.internal.fm6.adapters;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import net.flexmojos.m2e.flex.CompilerOptions;
 import net.flexmojos.m2e.maven.ICompilerMojo;
+import net.flexmojos.m2e.maven.internal.EvaluationCache;
 import net.flexmojos.m2e.maven.internal.MavenFlexMojo;
 import net.flexmojos.m2e.maven.internal.fm6.CompilerMojo;
 
-import org.apache.maven.execution.MavenSession;
 import org.apache.maven.plugin.MojoExecution;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.Path;
@@ -14,10 +18,10 @@ import com.google.inject.Inject;
 public class Flexmojos6CompilerMojo extends MavenFlexMojo implements ICompilerMojo
 {
 
-    @Inject Flexmojos6CompilerMojo( final MavenSession session,
+    @Inject Flexmojos6CompilerMojo( final EvaluationCache cache,
                                     final @CompilerMojo MojoExecution mojoExecution )
     {
-        super( session, mojoExecution );
+        super( cache, mojoExecution );
     }
 
     @Override
@@ -43,4 +47,71 @@ public class Flexmojos6CompilerMojo extends MavenFlexMojo implements ICompilerMo
     {
         return new Path( configuration.evaluate( "outputDirectory" ) );
     }
+
+    @Override
+    public IPath getLocalesSourcePath()
+    {
+        final String localesSourcePath = configuration.evaluate( "localesSourcePath" );
+        return localesSourcePath == null ? null : new Path( localesSourcePath );
+    }
+
+    @Override
+    public String[] getLocalesCompiled()
+    {
+        return configuration.evaluateList( "localesCompiled" );
+    }
+
+    @Override
+    public CompilerOptions getCompilerOptions()
+    {
+        final CompilerOptions options = new CompilerOptions();
+        options.setIncremental( evaluateBoolean( "incremental" ) );
+        options.setOptimize( evaluateBoolean( "optimize" ) );
+        options.setDebug( evaluateBoolean( "debug" ) );
+        options.setOmitTraceStatements( evaluateBoolean( "omitTraceStatements" ) );
+        options.setStaticLinkRuntimeSharedLibraries( evaluateBoolean( "staticLinkRuntimeSharedLibraries" ) );
+        options.setKeepGeneratedActionscript( evaluateBoolean( "keepGeneratedActionscript" ) );
+        options.setLinkReport( evaluateBoolean( "linkReport" ) );
+        return options;
+    }
+
+    /**
+     * Evaluates an option only when the pom sets it: the defaults of the mojo are the ones of a release build, so the
+     * compiler of the IDE keeps its own.
+     */
+    private Boolean evaluateBoolean( final String name )
+    {
+        final String value = configuration.evaluateConfigured( name );
+        return value == null ? null : Boolean.valueOf( value );
+    }
+
+    @Override
+    public Map<String, IPath> getXMLNamespaceManifestPath()
+    {
+        final Map<String, IPath> namespaces = new LinkedHashMap<String, IPath>();
+        for ( final Map.Entry<String, String> namespace : configuration.evaluateMap( "namespaces", "uri", "manifest" )
+                                                                       .entrySet() )
+        {
+            namespaces.put( namespace.getKey(), namespace.getValue() == null ? null : new Path( namespace.getValue() ) );
+        }
+        return namespaces;
+    }
+
+    @Override
+    public String[] getRslUrls()
+    {
+        return configuration.evaluateList( "rslUrls" );
+    }
+
+    @Override
+    public String[] getPolicyFileUrls()
+    {
+        return configuration.evaluateList( "policyFileUrls" );
+    }
+
+    @Override
+    public String getContextRoot()
+    {
+        return configuration.evaluate( "contextRoot" );
+    }
 }
@@ -1,10 +1,10 @@
 package net.flexmojos.m2e.maven.internal.fm6.adapters;
 
 import net.flexmojos.m2e.maven.IGeneratorMojo;
+import net.flexmojos.m2e.maven.internal.EvaluationCache;
 import net.flexmojos.m2e.maven.internal.MavenFlexMojo;
 import net.flexmojos.m2e.maven.internal.fm6.GeneratorMojo;
 
-import org.apache.maven.execution.MavenSession;
 import org.apache.maven.plugin.MojoExecution;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.Path;
@@ -15,10 +15,10 @@ import com.google.inject.Inject;
 public class Flexmojos6GeneratorMojo extends MavenFlexMojo implements IGeneratorMojo
 {
 
-    @Inject Flexmojos6GeneratorMojo( final MavenSession session,
+    @Inject Flexmojos6GeneratorMojo( final EvaluationCache cache,
                                      final @GeneratorMojo @Nullable MojoExecution mojoExecution )
     {
-        super( session, mojoExecution );
+        super( cache, mojoExecution );
     }
 
     @Override
@@ -1,19 +1,28 @@
 package net.flexmojos.m2e.maven.internal.fm6.adapters;
 
-import static net.flexmojos.oss.plugin.common.FlexExtension.SWC;
-
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-
+import java.util.Set;
+
+import net.flexmojos.m2e.Activator;
+import net.flexmojos.m2e.flex.SwcCatalog;
+import net.flexmojos.m2e.flex.SwcCatalog.Component;
+import net.flexmojos.m2e.flex.SwcCatalogIndex;
+import net.flexmojos.m2e.maven.ArtifactIndex;
+import net.flexmojos.m2e.maven.IGeneratorMojo;
 import net.flexmojos.m2e.maven.IMavenFlexPlugin;
+import net.flexmojos.m2e.maven.ISignAirMojo;
+import net.flexmojos.m2e.maven.internal.EvaluationCache;
 import net.flexmojos.m2e.maven.internal.MavenFlexPlugin;
+import net.flexmojos.m2e.maven.internal.fm6.CompilerMojo;
 
 import org.apache.maven.artifact.Artifact;
-import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.apache.maven.plugin.MojoExecution;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.m2e.core.project.IMavenProjectFacade;
@@ -28,11 +37,43 @@ import com.google.inject.Inject;
  */
 public class Flexmojos6Plugin extends MavenFlexPlugin implements IMavenFlexPlugin
 {
+    private final SwcCatalogIndex catalogs;
+
+    private final EvaluationCache cache;
+
+    @Inject @CompilerMojo private List<MojoExecution> compileExecutions;
+
+    private Map<String, IPath> namespaces;
+
+    private Map<IPath, String> generatedManifests;
+
+    private List<SwcCatalog> swcCatalogs;
 
     @Inject Flexmojos6Plugin( final IMavenProjectFacade facade,
-                              final IProgressMonitor monitor )
+                              final IProgressMonitor monitor,
+                              final ArtifactIndex artifacts,
+                              final SwcCatalogIndex catalogs,
+                              final EvaluationCache cache )
     {
-        super( facade, monitor );
+        super( facade, monitor, artifacts );
+        this.catalogs = catalogs;
+        this.cache = cache;
+    }
+
+    @Override
+    public IPath[] getApplicationPaths()
+    {
+        final Set<IPath> applicationPaths = new LinkedHashSet<IPath>( Arrays.asList( super.getApplicationPaths() ) );
+
+        // Every compile execution, such as the shell and its sub-applications, builds an application of the project.
+        for ( final MojoExecution execution : compileExecutions )
+        {
+            final IPath applicationPath = new Flexmojos6CompilerMojo( cache, execution ).getMainApplicationPath();
+            if ( applicationPath != null )
+                applicationPaths.add( applicationPath );
+        }
+
+        return applicationPaths.toArray( new IPath[applicationPaths.size()] );
     }
 
     @Override
@@ -40,6 +81,7 @@ public class Flexmojos6Plugin extends MavenFlexPlugin implements IMavenFlexPlugi
     {
         IPath[] sourcePath = super.getSourcePath();
 
+        final IGeneratorMojo generator = getGenerator();
         if ( generator != null )
         {
             final List<IPath> classPath = new ArrayList<IPath>( Arrays.asList( sourcePath ) );
@@ -57,117 +99,145 @@ public class Flexmojos6Plugin extends MavenFlexPlugin implements IMavenFlexPlugi
     @Override
     public Map<String, Artifact> getDependencies()
     {
-        final Map<String, Artifact> dependencies = new LinkedHashMap<String, Artifact>();
-
-        for ( final Artifact artifact : facade.getMavenProject().getArtifacts() )
-        {
-            // Only manage SWC type dependencies.
-            if ( SWC.equals( artifact.getType() ) && !isAirFramework( artifact ) && !isFlashFramework( artifact ) && !isFlexFramework( artifact ) )
-            {
-                dependencies.put( artifact.getFile().getAbsolutePath(), artifact );
-            }
-        }
-
-        return dependencies;
+        // Only manage SWC type dependencies, the frameworks are excluded by the index.
+        return artifacts.getLibraries();
     }
 
     @Override
     public IPath getLocalesSourcePath()
     {
-//        final String localesSourcePath = configuration.evaluate( "localesSourcePath" );
-//        final IPath path = facade.getProjectRelativePath( localesSourcePath );
-//        // Checks the base path (without the placeholder {locale} exists).
-//        return facade.getProject().exists( path.removeLastSegments( 1 ) ) ? path : null;
-        return null;
+        final IPath localesSourcePath = getCompiler().getLocalesSourcePath();
+        if ( localesSourcePath == null )
+            return null;
+
+        final IPath path = facade.getProjectRelativePath( localesSourcePath.toString() );
+        // Checks the base path (without the placeholder {locale} exists).
+        return path != null && facade.getProject().exists( path.removeLastSegments( 1 ) ) ? path : null;
     }
 
     @Override
     public String[] getLocalesCompiled()
     {
-        final Xpp3Dom localesCompiled = null; //configuration.getChild( "localesCompiled" );
-        if ( localesCompiled != null )
-        {
-            final String[] locales = new String[localesCompiled.getChildCount()];
-
-            for ( int i = 0; i < localesCompiled.getChildCount(); i++ )
-            {
-                locales[i] = localesCompiled.getChild( i ).getValue();
-            }
-
-            return locales;
-        }
-        else
-        {
-            return new String[0];
-        }
+        return getCompiler().getLocalesCompiled();
     }
 
     @Override
     public Map<String, IPath> getXMLNamespaceManifestPath()
     {
-        final Xpp3Dom namespacesTag = null;// configuration.getChild( "namespaces" );
-        final Map<String, IPath> namespaces = new LinkedHashMap<String, IPath>();
-
-        if ( namespacesTag != null )
-        {
-            for ( final Xpp3Dom namespace : namespacesTag.getChildren() )
-            {
-                final String key = namespace.getChild( "uri" ).getValue();
-                final IPath value = facade.getFullPath(new File(namespace.getChild( "manifest" ).getValue()));
-                namespaces.put( key, value );
-            }
-        }
-
+        resolveNamespaces();
         return namespaces;
     }
 
     @Override
-    public IPath getCertificatePath()
+    public Map<IPath, String> getGeneratedManifests()
     {
-        final Xpp3Dom airConfig =
-                        facade.getMavenProject().getGoalConfiguration( "net.flexmojos.oss", "flexmojos-maven-plugin",
-                                                                       "default-sign-air", "sign-air" );
-
-        final Xpp3Dom keystoreTag = airConfig.getChild( "keystore" );
-
-        if ( keystoreTag != null )
-            return facade.getProjectRelativePath( null /* evaluate( keystoreTag ) */ );
-        else
-            return null;
+        resolveNamespaces();
+        return generatedManifests;
     }
 
     /**
-     * Returns <tt>true</tt> if this artifact belongs to Air Framework.
-     *
-     * @param artifact The artifact to test.
-     * @return <tt>true</tt> if this artifact belongs to Air Framework.
+     * Resolves the manifests of the name-spaces, once. The name-spaces without manifest in the workspace are filled
+     * from the catalogs of the dependencies, their manifests are only generated in memory: they are written by the
+     * configurator, when the settings are applied.
      */
-    protected boolean isAirFramework( final Artifact artifact )
+    private void resolveNamespaces()
     {
-        return artifact.getGroupId().startsWith( "com.adobe.air.framework" );
+        if ( namespaces != null )
+            return;
+
+        namespaces = new LinkedHashMap<String, IPath>();
+        generatedManifests = new LinkedHashMap<IPath, String>();
+        for ( final Map.Entry<String, IPath> namespace : getCompiler().getXMLNamespaceManifestPath().entrySet() )
+        {
+            IPath manifest = null;
+            if ( namespace.getValue() != null )
+                manifest = facade.getFullPath( namespace.getValue().toFile() );
+
+            if ( manifest == null )
+            {
+                final String content = getGeneratedManifest( namespace.getKey() );
+                final File file = new File( getBuild().getDirectory(), "flexmojos-m2e/"
+                    + namespace.getKey().replaceAll( "[^\\w.-]+", "_" ) + "-manifest.xml" );
+                manifest = content == null ? null : facade.getFullPath( file );
+                if ( manifest != null )
+                    generatedManifests.put( manifest, content );
+            }
+
+            if ( manifest != null )
+            {
+                namespaces.put( namespace.getKey(), manifest );
+            }
+        }
     }
 
     /**
-     * Returns <tt>true</tt> if this artifact belongs to Flash Framework.
+     * Generates the manifest of a name-space from the components the SWC dependencies register in it.
      *
-     * @param artifact The artifact to test.
-     * @return <tt>true</tt> if this artifact belongs to Flash Framework.
+     * @param uri
+     * @return the content of the manifest, or <tt>null</tt> if no dependency registers a component in the name-space.
      */
-    protected boolean isFlashFramework( final Artifact artifact )
+    private String getGeneratedManifest( final String uri )
     {
-        return artifact.getGroupId().startsWith( "com.adobe.flash.framework" );
+        final StringBuilder manifest = new StringBuilder();
+        for ( final SwcCatalog catalog : getCatalogs() )
+        {
+            for ( final Component component : catalog.getComponents( uri ) )
+            {
+                manifest.append( "    <component id=\"" ).append( escape( component.getName() ) );
+                manifest.append( "\" class=\"" ).append( escape( component.getClassName() ) ).append( "\"/>\n" );
+            }
+        }
+
+        if ( manifest.length() == 0 )
+            return null;
+
+        manifest.insert( 0, "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<componentPackage>\n" );
+        manifest.append( "</componentPackage>\n" );
+        return manifest.toString();
     }
 
     /**
-     * Returns <tt>true</tt> if this artifact belongs to Flex Framework.
-     *
-     * @param artifact The artifact to test.
-     * @return <tt>true</tt> if this artifact belongs to Flex Framework.
+     * Gets the catalogs of the SWC dependencies, once. A SWC which can not be read is skipped with a warning, so it
+     * only misses from the generated manifests.
      */
-    protected boolean isFlexFramework( final Artifact artifact )
+    private List<SwcCatalog> getCatalogs()
     {
-        return artifact.getGroupId().startsWith( "com.adobe.flex.framework" )
-            || artifact.getGroupId().startsWith( "org.apache.flex.framework" );
+        if ( swcCatalogs == null )
+        {
+            swcCatalogs = new ArrayList<SwcCatalog>();
+            for ( final Artifact artifact : artifacts.getLibraries().values() )
+            {
+                try
+                {
+                    final SwcCatalog catalog = catalogs.getCatalog( artifact.getFile() );
+                    if ( catalog != null )
+                        swcCatalogs.add( catalog );
+                }
+                catch ( final RuntimeException e )
+                {
+                    Activator.warn( "Could not read the catalog of " + artifact.getFile()
+                        + ", its components are left out of the generated manifests.", e );
+                }
+            }
+        }
+        return swcCatalogs;
+    }
+
+    private static String escape( final String value )
+    {
+        return value.replace( "&", "&amp;" ).replace( "<", "&lt;" ).replace( ">", "&gt;" ).replace( "\"", "&quot;" );
+    }
+
+    @Override
+    public IPath getCertificatePath()
+    {
+        final ISignAirMojo signAir = getSignAir();
+        final IPath keystore = signAir == null ? null : signAir.getKeystore();
+
+        if ( keystore != null )
+            return facade.getProjectRelativePath( keystore.toString() );
+        else
+            return null;
     }
 
 }
@@ -1,11 +1,13 @@
 package net.flexmojos.m2e.maven.internal.fm6.adapters;
 
 import net.flexmojos.m2e.maven.ISignAirMojo;
+import net.flexmojos.m2e.maven.internal.EvaluationCache;
 import net.flexmojos.m2e.maven.internal.MavenFlexMojo;
 import net.flexmojos.m2e.maven.internal.fm6.SignAirMojo;
 
-import org.apache.maven.execution.MavenSession;
 import org.apache.maven.plugin.MojoExecution;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
 import org.eclipse.jdt.annotation.Nullable;
 
 import com.google.inject.Inject;
@@ -13,10 +15,17 @@ import com.google.inject.Inject;
 public class Flexmojos6SignAirMojo extends MavenFlexMojo implements ISignAirMojo
 {
 
-    @Inject Flexmojos6SignAirMojo( final MavenSession session,
+    @Inject Flexmojos6SignAirMojo( final EvaluationCache cache,
                                    final @SignAirMojo @Nullable MojoExecution mojoExecution )
     {
-        super( session, mojoExecution );
+        super( cache, mojoExecution );
+    }
+
+    @Override
+    public IPath getKeystore()
+    {
+        final String keystore = configuration.evaluate( "keystore" );
+        return keystore == null ? null : new Path( keystore );
     }
 
 }
@@ -1,6 +1,11 @@
 package net.flexmojos.m2e.project;
 
+import net.flexmojos.m2e.maven.ArtifactIndex;
 import net.flexmojos.m2e.maven.IMavenFlexPlugin;
+import net.flexmojos.m2e.maven.ResolvedMavenFlexPlugin;
+import net.flexmojos.m2e.maven.internal.EvaluationCache;
+
+import com.google.inject.Inject;
 
 /**
  * Defines abstraction interface for project configurator.
@@ -18,13 +23,57 @@ import net.flexmojos.m2e.maven.IMavenFlexPlugin;
  */
 public abstract class AbstractConfigurator
 {
-    protected final IMavenFlexPlugin plugin;
+    protected IMavenFlexPlugin plugin;
+
+    private String fingerprint;
+
+    private ConfigurationMetrics metrics;
+
+    private int artifacts;
+
+    /**
+     * Cache of the evaluated Maven parameters, released once the values read from Maven are resolved.
+     */
+    private EvaluationCache cache;
+
+    private long evaluatedParameters;
+
+    private long cachedParameters;
+
+    /**
+     * Context of the configuration, entered while the plug-in may create its mojo adapters.
+     */
+    private ConfigurationContext context;
+
+    /**
+     * Start of the phase being timed, in nanoseconds.
+     */
+    private long lap;
 
     protected AbstractConfigurator( final IMavenFlexPlugin plugin )
     {
         this.plugin = plugin;
     }
 
+    @Inject
+    void setMetrics( final ConfigurationMetrics metrics, final ArtifactIndex artifacts, final EvaluationCache cache )
+    {
+        this.metrics = metrics;
+        this.artifacts = artifacts.size();
+        this.cache = cache;
+    }
+
+    @Inject
+    void setContext( final ConfigurationContext context )
+    {
+        this.context = context;
+    }
+
+    /**
+     * Gets the name of the configured project, which keys its metrics.
+     */
+    protected abstract String getProjectName();
+
     /**
      * Configures the main source folder.
      */
@@ -72,31 +121,226 @@ public abstract class AbstractConfigurator
 
     /**
      * Configures the project.
+     *
+     * The configuration is skipped when the fingerprint of its inputs matches the one stored by the last successful
+     * run, so m2e updates that do not change anything relevant cost neither a description rewrite nor a Flash Builder
+     * rebuild.
+     *
+     * @return <tt>true</tt> if the project description has been written, <tt>false</tt> if it was up to date.
+     */
+    public boolean configure()
+    {
+        return prepare() && apply();
+    }
+
+    /**
+     * Computes the fingerprint of the configuration inputs.
+     *
+     * @return <tt>true</tt> if the project has to be configured, <tt>false</tt> if it is up to date.
+     */
+    public boolean prepare()
+    {
+        final ConfigurationContext previous = enter();
+        try
+        {
+            lap = System.nanoTime();
+            fingerprint = getFingerprint();
+            final boolean modified = !fingerprint.equals( loadFingerprint() );
+            lap( "prepare" );
+            return modified;
+        }
+        finally
+        {
+            exit( previous );
+        }
+    }
+
+    /**
+     * Resolves every value read from the Maven plug-in, so {@link #apply()} does not evaluate the Maven configuration
+     * anymore. Used to prepare projects concurrently, before applying their settings.
+     */
+    public void resolve()
+    {
+        final ConfigurationContext previous = enter();
+        try
+        {
+            lap = System.nanoTime();
+            plugin = new ResolvedMavenFlexPlugin( plugin );
+        }
+        finally
+        {
+            exit( previous );
+        }
+
+        // The snapshot holds every value read from Maven, the evaluation is over.
+        releaseCache();
+        releaseContext();
+        lap( "resolve" );
+    }
+
+    /**
+     * Applies the settings to the project and saves its description. Must be called after {@link #prepare()}, and only
+     * once: the configurator releases the Maven and Flash Builder objects it references when done, so a project
+     * configured long ago does not keep its Maven session or its settings in memory.
+     *
+     * @return <tt>true</tt> if the project description has been written, <tt>false</tt> if it was up to date.
      */
-    public void configure()
+    public boolean apply()
     {
-        createConfiguration();
+        final boolean saved;
+        final ConfigurationContext previous = enter();
+        try
+        {
+            lap = System.nanoTime();
+            createConfiguration();
+            lap( "createConfiguration" );
+            configureSettings();
+            saved = saveDescription();
+            lap( "saveDescription" );
+        }
+        finally
+        {
+            exit( previous );
+        }
+
+        storeFingerprint( fingerprint );
+        lap( "storeFingerprint" );
+
+        releaseCache();
+        count( "artifacts", artifacts );
+        count( "evaluatedParameters", evaluatedParameters );
+        count( "cachedParameters", cachedParameters );
+
+        release();
+        return saved;
+    }
 
+    /**
+     * Releases the objects only needed during the configuration. Subclasses holding settings or Maven objects release
+     * them as well, then call this method.
+     */
+    protected void release()
+    {
+        plugin = null;
+        releaseContext();
+    }
+
+    /**
+     * Enters the context of the configuration, if the configurator has been created by an injector.
+     *
+     * @return the previous context of the thread.
+     */
+    private ConfigurationContext enter()
+    {
+        return context == null ? null : context.enter();
+    }
+
+    private void exit( final ConfigurationContext previous )
+    {
+        if ( context != null )
+            ConfigurationContext.exit( previous );
+    }
+
+    private void releaseContext()
+    {
+        if ( context != null )
+        {
+            context.release();
+            context = null;
+        }
+    }
+
+    private void releaseCache()
+    {
+        if ( cache != null )
+        {
+            evaluatedParameters = cache.getMisses();
+            cachedParameters = cache.getHits();
+            cache = null;
+        }
+    }
+
+    /**
+     * Configures the project settings, between the creation of the configuration and the save of the description.
+     * Each step is followed by a {@link #lap(String)} recording its latency.
+     */
+    protected void configureSettings()
+    {
         configureMainSourceFolder();
+        lap( "configureMainSourceFolder" );
         configureSourcePath();
+        lap( "configureSourcePath" );
         configureOutputFolderPath();
+        lap( "configureOutputFolderPath" );
         configureLibraryPath();
+        lap( "configureLibraryPath" );
         configureHTMLTemplate();
+        lap( "configureHTMLTemplate" );
         configureTargetPlayerVersion();
+        lap( "configureTargetPlayerVersion" );
         configureMainApplicationPath();
+        lap( "configureMainApplicationPath" );
         configureAdditionalCompilerArgs();
+        lap( "configureAdditionalCompilerArgs" );
+    }
 
-        saveDescription();
+    /**
+     * Records the latency of a phase, from the end of the previous one.
+     *
+     * @param phase
+     */
+    protected void lap( final String phase )
+    {
+        final long now = System.nanoTime();
+        // Configurators created outside of an injector, such as the headless ones, have no metrics.
+        if ( metrics != null )
+            metrics.record( getProjectName(), phase, now - lap );
+        lap = now;
+    }
+
+    /**
+     * Records the value of a counter, such as the number of entries of the library path.
+     *
+     * @param counter
+     * @param value
+     */
+    protected void count( final String counter, final long value )
+    {
+        if ( metrics != null )
+            metrics.count( getProjectName(), counter, value );
     }
 
+    /**
+     * Gets the fingerprint of everything the configuration reads, the configurator type included.
+     */
+    protected String getFingerprint()
+    {
+        return getClass().getName() + ":" + plugin.getFingerprint();
+    }
+
+    /**
+     * Loads the fingerprint stored by the last successful configuration, or <tt>null</tt> if there is none or if the
+     * project description has to be created again.
+     */
+    protected abstract String loadFingerprint();
+
+    /**
+     * Stores the fingerprint of a successful configuration.
+     *
+     * @param fingerprint
+     */
+    protected abstract void storeFingerprint( String fingerprint );
+
     /**
      * Creates the abstract configuration from adobe's 'project' component.
      */
     protected abstract void createConfiguration();
 
     /**
-     * Saves the project description.
+     * Saves the project description, unless it has the same content as the one on disk.
+     *
+     * @return <tt>true</tt> if the description has been written.
      */
-    protected abstract void saveDescription();
+    protected abstract boolean saveDescription();
 
 }
@@ -0,0 +1,90 @@
+package net.flexmojos.m2e.project;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.google.inject.Key;
+import com.google.inject.Provider;
+
+/**
+ * Values of a single project configuration, held for the {@link ConfigurationScope}.
+ *
+ * A context is seeded with the values of the configuration request, then entered by the thread using the injector.
+ * The configurator keeps its context, and enters it again when it is prepared, resolved or applied from a job, so the
+ * lazy providers of the Maven plug-in get the same scoped objects on any thread.
+ *
+ * @author Sylvain Lecoy (sylvain.lecoy@gmail.com)
+ */
+public class ConfigurationContext
+{
+    private static final ThreadLocal<ConfigurationContext> current = new ThreadLocal<ConfigurationContext>();
+
+    private final Map<Key<?>, Object> values = new HashMap<Key<?>, Object>();
+
+    public ConfigurationContext()
+    {
+        seed( ConfigurationContext.class, this );
+    }
+
+    /**
+     * Seeds a value of the configuration request.
+     *
+     * @param type
+     * @param value
+     * @return the context.
+     */
+    public synchronized <T> ConfigurationContext seed( final Class<T> type, final T value )
+    {
+        values.put( Key.get( type ), value );
+        return this;
+    }
+
+    /**
+     * Makes the context the current one of the calling thread.
+     *
+     * @return the previous context of the thread, restored by {@link #exit(ConfigurationContext)}.
+     */
+    public ConfigurationContext enter()
+    {
+        final ConfigurationContext previous = current.get();
+        current.set( this );
+        return previous;
+    }
+
+    /**
+     * Restores the context of the calling thread.
+     *
+     * @param previous the context returned by {@link #enter()}.
+     */
+    public static void exit( final ConfigurationContext previous )
+    {
+        if ( previous == null )
+            current.remove();
+        else
+            current.set( previous );
+    }
+
+    static ConfigurationContext getCurrent()
+    {
+        return current.get();
+    }
+
+    @SuppressWarnings( "unchecked" )
+    synchronized <T> T get( final Key<T> key, final Provider<T> unscoped )
+    {
+        if ( values.containsKey( key ) )
+            return (T) values.get( key );
+
+        final T value = unscoped.get();
+        values.put( key, value );
+        return value;
+    }
+
+    /**
+     * Releases the values of the context, so the objects of a configuration are not kept in memory once it is over.
+     */
+    public synchronized void release()
+    {
+        values.clear();
+    }
+}
@@ -0,0 +1,253 @@
+package net.flexmojos.m2e.project;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.google.inject.Singleton;
+
+/**
+ * Registry of the configuration metrics, shared by every project of the workspace.
+ *
+ * Each project records the latency of the phases of its configuration in histograms, and the size of its inputs
+ * (artifacts, library entries, evaluated parameters) in counters holding the last recorded value. When the
+ * <code>net.flexmojos.m2e/debug/metrics</code> tracing option is enabled, each recorded value is also traced to the
+ * trace set by the bundle activator.
+ *
+ * @author Sylvain Lecoy (sylvain.lecoy@gmail.com)
+ */
+@Singleton
+public class ConfigurationMetrics
+{
+    /**
+     * Tracing option of the metrics, relative to the bundle.
+     */
+    public static final String TRACE_OPTION = "/debug/metrics";
+
+    private final Map<String, Map<String, Histogram>> histograms = new LinkedHashMap<String, Map<String, Histogram>>();
+
+    private final Map<String, Map<String, Long>> counters = new LinkedHashMap<String, Map<String, Long>>();
+
+    private volatile Trace trace;
+
+    /**
+     * Sets the trace of the recorded values, or <tt>null</tt> to disable tracing.
+     *
+     * @param trace
+     */
+    public void setTrace( final Trace trace )
+    {
+        this.trace = trace;
+    }
+
+    /**
+     * Records the latency of a phase.
+     *
+     * @param project
+     * @param phase
+     * @param nanos
+     */
+    public void record( final String project, final String phase, final long nanos )
+    {
+        Histogram histogram;
+        synchronized ( histograms )
+        {
+            Map<String, Histogram> phases = histograms.get( project );
+            if ( phases == null )
+            {
+                phases = new LinkedHashMap<String, Histogram>();
+                histograms.put( project, phases );
+            }
+            histogram = phases.get( phase );
+            if ( histogram == null )
+            {
+                histogram = new Histogram();
+                phases.put( phase, histogram );
+            }
+        }
+        histogram.record( nanos );
+
+        trace( project, phase, TimeUnit.NANOSECONDS.toMicros( nanos ) + "us" );
+    }
+
+    /**
+     * Records the value of a counter.
+     *
+     * @param project
+     * @param counter
+     * @param value
+     */
+    public void count( final String project, final String counter, final long value )
+    {
+        synchronized ( counters )
+        {
+            Map<String, Long> values = counters.get( project );
+            if ( values == null )
+            {
+                values = new LinkedHashMap<String, Long>();
+                counters.put( project, values );
+            }
+            values.put( counter, Long.valueOf( value ) );
+        }
+
+        trace( project, counter, Long.toString( value ) );
+    }
+
+    /**
+     * Gets the projects having recorded a metric.
+     */
+    public List<String> getProjects()
+    {
+        final List<String> projects = new ArrayList<String>();
+        synchronized ( histograms )
+        {
+            projects.addAll( histograms.keySet() );
+        }
+        synchronized ( counters )
+        {
+            for ( final String project : counters.keySet() )
+            {
+                if ( !projects.contains( project ) )
+                    projects.add( project );
+            }
+        }
+        return projects;
+    }
+
+    /**
+     * Gets the latency histograms of a project, keyed by phase in recording order.
+     */
+    public Map<String, Histogram> getHistograms( final String project )
+    {
+        synchronized ( histograms )
+        {
+            final Map<String, Histogram> phases = histograms.get( project );
+            return phases == null ? Collections.<String, Histogram> emptyMap()
+                            : new LinkedHashMap<String, Histogram>( phases );
+        }
+    }
+
+    /**
+     * Gets the counters of a project.
+     */
+    public Map<String, Long> getCounters( final String project )
+    {
+        synchronized ( counters )
+        {
+            final Map<String, Long> values = counters.get( project );
+            return values == null ? Collections.<String, Long> emptyMap() : new LinkedHashMap<String, Long>( values );
+        }
+    }
+
+    /**
+     * Forgets every recorded metric.
+     */
+    public void clear()
+    {
+        synchronized ( histograms )
+        {
+            histograms.clear();
+        }
+        synchronized ( counters )
+        {
+            counters.clear();
+        }
+    }
+
+    private void trace( final String project, final String name, final String value )
+    {
+        final Trace current = trace;
+        if ( current != null )
+        {
+            current.trace( TRACE_OPTION, project + " " + name + " " + value );
+        }
+    }
+
+    /**
+     * Receiver of the recorded values, such as the debug trace of the bundle.
+     */
+    public interface Trace
+    {
+        void trace( String option, String message );
+    }
+
+    /**
+     * Latency histogram with power of two buckets, from 1 microsecond up to about 35 minutes.
+     */
+    public static class Histogram
+    {
+        private static final int BUCKETS = 32;
+
+        private final long[] buckets = new long[BUCKETS];
+
+        private long count;
+
+        private long total;
+
+        private long max;
+
+        synchronized void record( final long nanos )
+        {
+            final long micros = Math.max( 0, TimeUnit.NANOSECONDS.toMicros( nanos ) );
+            final int bucket = Math.min( BUCKETS - 1, 64 - Long.numberOfLeadingZeros( micros ) );
+            buckets[bucket]++;
+            count++;
+            total += nanos;
+            max = Math.max( max, nanos );
+        }
+
+        /**
+         * Gets the number of recorded values.
+         */
+        public synchronized long getCount()
+        {
+            return count;
+        }
+
+        /**
+         * Gets the total of the recorded values, in nanoseconds.
+         */
+        public synchronized long getTotal()
+        {
+            return total;
+        }
+
+        /**
+         * Gets the highest recorded value, in nanoseconds.
+         */
+        public synchronized long getMax()
+        {
+            return max;
+        }
+
+        /**
+         * Gets the upper bound of the bucket holding a percentile, in nanoseconds.
+         *
+         * @param percentile between 0 and 100.
+         */
+        public synchronized long getPercentile( final double percentile )
+        {
+            final long rank = (long) Math.ceil( count * percentile / 100 );
+            long seen = 0;
+            for ( int i = 0; i < BUCKETS; i++ )
+            {
+                seen += buckets[i];
+                if ( seen >= rank && seen > 0 )
+                {
+                    return Math.min( max, TimeUnit.MICROSECONDS.toNanos( 1L << i ) );
+                }
+            }
+            return max;
+        }
+
+        @Override
+        public synchronized String toString()
+        {
+            return "count=" + count + ", mean=" + ( count == 0 ? 0 : total / count ) + "ns, p90=" + getPercentile( 90 )
+                + "ns, max=" + max + "ns";
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package net.flexmojos.m2e.project;
+
+import com.google.inject.Key;
+import com.google.inject.OutOfScopeException;
+import com.google.inject.Provider;
+import com.google.inject.Scope;
+
+/**
+ * Scope of the objects of a single project configuration.
+ *
+ * The bindings of the configuration graph live in a long-lived injector. The values of a configuration request (the
+ * project, its facade, the Maven session, ...) are seeded in a {@link ConfigurationContext}, and the objects scoped
+ * with {@link ConfigurationScoped} are created once per context, from the context current on the calling thread.
+ *
+ * @author Sylvain Lecoy (sylvain.lecoy@gmail.com)
+ */
+public class ConfigurationScope
+    implements Scope
+{
+
+    @Override
+    public <T> Provider<T> scope( final Key<T> key, final Provider<T> unscoped )
+    {
+        return new Provider<T>()
+        {
+            @Override
+            public T get()
+            {
+                final ConfigurationContext context = ConfigurationContext.getCurrent();
+                if ( context == null )
+                    throw new OutOfScopeException( "Cannot access " + key + " outside of a project configuration." );
+
+                return context.get( key, unscoped );
+            }
+
+            @Override
+            public String toString()
+            {
+                return unscoped + "[ConfigurationScoped]";
+            }
+        };
+    }
+
+    /**
+     * Gets the provider of a value seeded in the context. It is only called when the value has not been seeded.
+     *
+     * @param type
+     * @return
+     */
+    public static <T> Provider<T> seeded( final Class<T> type )
+    {
+        return new Provider<T>()
+        {
+            @Override
+            public T get()
+            {
+                throw new OutOfScopeException( type.getName() + " is not seeded in the configuration context." );
+            }
+        };
+    }
+
+    @Override
+    public String toString()
+    {
+        return "ConfigurationScope";
+    }
+}
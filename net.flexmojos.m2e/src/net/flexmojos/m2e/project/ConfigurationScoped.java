@@ -0,0 +1,21 @@
+package net.flexmojos.m2e.project;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import com.google.inject.ScopeAnnotation;
+
+/**
+ * Scopes a binding to a single project configuration, see {@link ConfigurationScope}.
+ *
+ * @author Sylvain Lecoy (sylvain.lecoy@gmail.com)
+ */
+@ScopeAnnotation @Target({ TYPE, METHOD }) @Retention(RUNTIME)
+public @interface ConfigurationScoped
+{
+
+}
@@ -1,6 +1,6 @@
 package net.flexmojos.m2e.project.internal.fb47;
 
-import net.flexmojos.m2e.flex.FlexFrameworkHelper;
+import net.flexmojos.m2e.flex.FlexSDKRegistry;
 import net.flexmojos.m2e.maven.IMavenFlexPlugin;
 
 import org.eclipse.core.resources.IProject;
@@ -11,6 +11,7 @@ import com.google.inject.Inject;
 public abstract class AbstractFlexProjectConfigurator
     extends ActionScriptProjectConfigurator
 {
+    @Inject private FlexSDKRegistry sdks;
 
     @Inject AbstractFlexProjectConfigurator( final IMavenFlexPlugin plugin,
                                              final IProject project,
@@ -19,14 +20,21 @@ public abstract class AbstractFlexProjectConfigurator
         super( plugin, project, monitor );
     }
 
+    @Override
+    protected String getFingerprint()
+    {
+        // The SDK is resolved from the IDE, installing another one can change it.
+        return super.getFingerprint() + ':' + sdks.getFlexSDKName( plugin.getFlexFramework().getVersion() );
+    }
+
     /**
-     * Configures the Flex SDK name and adds it to the library path of the project. Must be called before configuring
-     * the library path.
+     * Configures the Flex SDK name, the installed SDK matching the framework version or the nearest one, and adds it to
+     * the library path of the project. Must be called before configuring the library path.
      */
     protected void configureFlexSDKName()
     {
         final String flexVersion = plugin.getFlexFramework().getVersion();
-        final String flexSDKName = FlexFrameworkHelper.getFlexSDKName( flexVersion );
+        final String flexSDKName = sdks.getFlexSDKName( flexVersion );
         settings.setFlexSDKName( flexSDKName );
     }
 }
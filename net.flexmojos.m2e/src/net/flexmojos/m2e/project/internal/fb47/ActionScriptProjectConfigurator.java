@@ -1,24 +1,38 @@
 package net.flexmojos.m2e.project.internal.fb47;
 
+import static net.flexmojos.oss.plugin.common.FlexExtension.SWC;
+import static net.flexmojos.oss.plugin.common.FlexScopes.TEST;
+
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.LinkedHashMap;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 
+import net.flexmojos.m2e.flex.CompilerOptions;
 import net.flexmojos.m2e.flex.FlexCompilerArguments;
+import net.flexmojos.m2e.flex.FlexLinkage;
+import net.flexmojos.m2e.flex.SwcCatalogIndex;
 import net.flexmojos.m2e.maven.IMavenFlexPlugin;
+import net.flexmojos.m2e.maven.internal.Fingerprint;
 import net.flexmojos.m2e.project.AbstractConfigurator;
 
 import org.apache.maven.artifact.Artifact;
 import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.QualifiedName;
+import org.eclipse.m2e.core.MavenPlugin;
+import org.eclipse.m2e.core.project.IMavenProjectFacade;
 
 import com.adobe.flexbuilder.project.ClassPathEntryFactory;
+import com.adobe.flexbuilder.project.FlexProjectManager;
 import com.adobe.flexbuilder.project.IClassPathEntry;
+import com.adobe.flexbuilder.project.IFlexLibraryProject;
+import com.adobe.flexbuilder.project.IFlexProject;
 import com.adobe.flexbuilder.project.actionscript.ActionScriptCore;
 import com.adobe.flexbuilder.project.actionscript.IMutableActionScriptProjectSettings;
 import com.adobe.flexbuilder.project.common.CrossDomainRslEntry;
@@ -27,10 +41,33 @@ import com.google.inject.Inject;
 
 public class ActionScriptProjectConfigurator extends AbstractConfigurator
 {
+    private static final QualifiedName FINGERPRINT = new QualifiedName( "net.flexmojos.m2e", "fingerprint" );
+
+    private static final CrossDomainRslEntry[] NO_RSLS = new CrossDomainRslEntry[0];
+
     protected IProject project;
     protected IProgressMonitor monitor;
     protected IMutableActionScriptProjectSettings settings;
 
+    /**
+     * Description of the settings as loaded from disk, or <tt>null</tt> if the project description is created.
+     */
+    private String persisted;
+
+    @Inject private SwcCatalogIndex catalogs;
+
+    /**
+     * Whether or not the project builds a SWC, a Flex or an ActionScript library.
+     */
+    private boolean library;
+
+    private FlexLinkage linkage;
+
+    /**
+     * Outputs of the library projects of the dependencies by artifact id, resolved with the fingerprint.
+     */
+    private Map<String, IPath> libraryOutputs;
+
     @Inject ActionScriptProjectConfigurator( final IMavenFlexPlugin plugin,
                                              final IProject project,
                                              final IProgressMonitor monitor )
@@ -40,6 +77,12 @@ public class ActionScriptProjectConfigurator extends AbstractConfigurator
         this.monitor = monitor;
     }
 
+    @Inject
+    void setPackaging( final IMavenProjectFacade facade )
+    {
+        this.library = SWC.equals( facade.getPackaging() );
+    }
+
     @Override
     protected void createConfiguration()
     {
@@ -50,8 +93,132 @@ public class ActionScriptProjectConfigurator extends AbstractConfigurator
     }
 
     @Override
-    protected void saveDescription()
+    protected boolean saveDescription()
+    {
+        return false;
+    }
+
+    /**
+     * Keeps the description of the settings loaded from disk, before any of them is configured. Must be called by
+     * {@link #createConfiguration()} when the settings are read from an existing project.
+     */
+    protected void loadDescription()
+    {
+        persisted = describe();
+    }
+
+    /**
+     * Whether or not the configured settings differ from the ones loaded from disk, in which case the project
+     * description has to be written.
+     */
+    protected boolean isDescriptionModified()
+    {
+        return persisted == null || !persisted.equals( describe() );
+    }
+
+    /**
+     * Serializes in memory every setting handled by the configurator. Composite values, such as the cross-domain RSLs
+     * of the library entries, are serialized field by field so two equal values always have the same description.
+     */
+    protected String describe()
+    {
+        final StringBuilder description = new StringBuilder();
+        description.append( settings.getMainSourceFolder() ).append( '\n' );
+        describe( description, settings.getSourcePath() );
+        describe( description, settings.getLibraryPath() );
+        description.append( settings.getOutputFolder() ).append( '\n' );
+        description.append( settings.getFlexSDKName() ).append( '\n' );
+        description.append( settings.getDefaultLinkType() ).append( '\n' );
+        description.append( settings.getHTMLExpressInstall() ).append( '\n' );
+        description.append( settings.getHTMLPlayerVersionCheck() ).append( '\n' );
+        description.append( settings.getGenerateHTMLWrappers() ).append( '\n' );
+        description.append( settings.getEnableHistoryManagement() ).append( '\n' );
+        description.append( settings.getTargetPlayerVersion() ).append( '\n' );
+        description.append( settings.getMainApplicationPath() ).append( '\n' );
+        description.append( Arrays.toString( settings.getApplicationPaths() ) ).append( '\n' );
+        description.append( settings.getAdditionalCompilerArgs() ).append( '\n' );
+        return description.toString();
+    }
+
+    private static void describe( final StringBuilder description, final IClassPathEntry[] entries )
+    {
+        for ( final IClassPathEntry entry : entries )
+        {
+            description.append( entry.getKind() ).append( ',' ).append( entry.getValue() ).append( ',' );
+            description.append( entry.getLinkType() ).append( ',' );
+            final CrossDomainRslEntry[] rsls = entry.getCrossDomainRsls();
+            for ( final CrossDomainRslEntry rsl : rsls == null ? NO_RSLS : rsls )
+            {
+                description.append( '[' ).append( rsl.getRslUrl() ).append( ',' ).append( rsl.getPolicyFileUrl() );
+                description.append( ',' ).append( rsl.isAutoExtract() ).append( ']' );
+            }
+            description.append( ';' );
+        }
+        description.append( '\n' );
+    }
+
+    @Override
+    protected void release()
+    {
+        // The settings are a clone owned by the configurator, Flash Builder keeps its own copy.
+        settings = null;
+        persisted = null;
+        libraryOutputs = null;
+        super.release();
+    }
+
+    @Override
+    protected String getProjectName()
+    {
+        return project.getName();
+    }
+
+    @Override
+    protected String getFingerprint()
     {
+        // The HTML template folder and the library projects are read from the workspace rather than from Maven.
+        final Fingerprint fingerprint = new Fingerprint().add( super.getFingerprint() );
+        fingerprint.add( project.getFolder( "html-template" ).exists() );
+        libraryOutputs = new HashMap<String, IPath>();
+        for ( final Artifact artifact : plugin.getDependencies().values() )
+        {
+            final IPath output = getLibraryProjectOutput( artifact );
+            libraryOutputs.put( artifact.getId(), output );
+            fingerprint.add( output );
+        }
+        return fingerprint.toString();
+    }
+
+    @Override
+    protected String loadFingerprint()
+    {
+        // A missing description has to be created again whatever the fingerprint.
+        if ( !project.getFile( ".actionScriptProperties" ).exists() )
+        {
+            return null;
+        }
+
+        try
+        {
+            return project.getPersistentProperty( FINGERPRINT );
+        }
+        catch ( final CoreException e )
+        {
+            return null;
+        }
+    }
+
+    @Override
+    protected void storeFingerprint( final String fingerprint )
+    {
+        try
+        {
+            project.setPersistentProperty( FINGERPRINT, fingerprint );
+        }
+        catch ( final CoreException e )
+        {
+            // The next configuration will simply not be skipped.
+        }
     }
 
     @Override
@@ -106,60 +273,179 @@ public class ActionScriptProjectConfigurator extends AbstractConfigurator
     @Override
     protected void configureMainApplicationPath()
     {
-        final IPath mainApplicationPath = plugin.getMainApplicationPath();
-        if ( mainApplicationPath != null )
+        final IPath[] applicationPaths = plugin.getApplicationPaths();
+        if ( applicationPaths.length > 0 )
         {
-            settings.setApplicationPaths( new IPath[] { mainApplicationPath } );
-            settings.setMainApplicationPath( mainApplicationPath );
+            // The main application comes first, the others are built in the same compilation context.
+            settings.setApplicationPaths( applicationPaths );
+            settings.setMainApplicationPath( applicationPaths[0] );
         }
     }
 
+    /**
+     * Configures the library path from a structural diff against the current one: entries are added, removed, or
+     * updated when their link type or cross-domain RSLs changed. Unchanged entries are kept as the same instances, and
+     * the library path is not set at all when the diff is empty, so Flash Builder keeps its compilation state.
+     */
     @Override
     protected void configureLibraryPath()
     {
         final Map<String, Artifact> dependencies = plugin.getDependencies();
-        final Map<String, IClassPathEntry> classPath = new LinkedHashMap<String, IClassPathEntry>();
+        final IClassPathEntry[] libraryPath = settings.getLibraryPath();
 
-        for ( final IClassPathEntry entry : settings.getLibraryPath() )
+        final Map<String, IClassPathEntry> previous = new HashMap<String, IClassPathEntry>();
+        final List<IClassPathEntry> classPath = new ArrayList<IClassPathEntry>( dependencies.size() + 1 );
+        for ( final IClassPathEntry entry : libraryPath )
         {
-            // Copy previous library path that exists in project's dependencies.
-            if ( dependencies.containsKey( entry.getValue() ) )
-                classPath.put( entry.getValue(), entry );
-
-            // Copy Flex dependency.
-            else if ( entry instanceof ClassPathEntryFactory.FlexSDKClasspathEntry )
-                classPath.put( "flex-framework", entry );
+            // Keeps the Flex dependency.
+            if ( entry instanceof ClassPathEntryFactory.FlexSDKClasspathEntry )
+                classPath.add( entry );
+            else if ( entry.getKind() == IClassPathEntry.KIND_LIBRARY_FILE )
+                previous.put( entry.getValue(), entry );
         }
 
+        // Reads every candidate RSL at once, in parallel.
+        getLinkage().load( dependencies.values() );
+
+        int added = 0;
+        int changed = 0;
         for ( final Artifact artifact : dependencies.values() )
         {
-            // Copy dependencies to new class path.
-            String path = artifact.getFile().getAbsolutePath();
-            if ( !path.contains( ".swc" ) && !path.contains( ".swf" ) )
+            if ( TEST.equals( artifact.getScope() ) )
+                continue;
+
+            final String path = getLibraryPath( artifact );
+            final int linkType = getLinkage().getLinkType( artifact );
+            final CrossDomainRslEntry[] rsls = getCrossDomainRsls( artifact, linkType );
+
+            IClassPathEntry entry = previous.remove( path );
+            if ( entry == null )
             {
-                path = artifact.getFile() + "/" + artifact.getArtifactId() + "." + artifact.getType();
+                entry = ClassPathEntryFactory.newEntry( IClassPathEntry.KIND_LIBRARY_FILE, path, settings );
+                added++;
             }
-            final String scope = artifact.getScope();
-            final IClassPathEntry entry =
-                            ClassPathEntryFactory.newEntry( IClassPathEntry.KIND_LIBRARY_FILE, path, settings );
-
-            if ( scope.equals( "rsl" ) && ( project instanceof FlexProjectConfigurator ) )
+            else if ( entry.getLinkType() != linkType || !equals( rsls, entry.getCrossDomainRsls() ) )
             {
-                entry.setLinkType( IClassPathEntry.LINK_TYPE_CROSS_DOMAIN_RSL );
-                entry.setCrossDomainRsls( new CrossDomainRslEntry[] { new CrossDomainRslEntry( artifact.getArtifactId()
-                                                                                               + ".swf", "", true ) } );
+                changed++;
             }
-            else if (scope.equals( "internal" ))
+            else
             {
-                entry.setLinkType( IClassPathEntry.LINK_TYPE_INTERNAL );
+                // Untouched entry.
+                classPath.add( entry );
+                continue;
             }
 
-            if ( !scope.equals( "test" ) )
-                // Adds entry to class path.
-                classPath.put( path, entry );
+            // An entry leaving the cross-domain RSL link type has its RSLs cleared.
+            entry.setLinkType( linkType );
+            entry.setCrossDomainRsls( rsls );
+            classPath.add( entry );
         }
 
-        settings.setLibraryPath( classPath.values().toArray( new IClassPathEntry[classPath.size()] ) );
+        count( "libraryEntries", classPath.size() );
+
+        // The remaining previous entries are the removed ones, an empty diff still has to check the order.
+        if ( added == 0 && changed == 0 && previous.isEmpty() && Arrays.asList( libraryPath ).equals( classPath ) )
+            return;
+
+        settings.setLibraryPath( classPath.toArray( new IClassPathEntry[classPath.size()] ) );
+    }
+
+    /**
+     * Whether or not two lists of cross-domain RSLs have the same URLs, policy file URLs and extraction flags, in the
+     * same order. A missing list is an empty one.
+     */
+    private static boolean equals( final CrossDomainRslEntry[] rsls, final CrossDomainRslEntry[] others )
+    {
+        final CrossDomainRslEntry[] left = rsls == null ? NO_RSLS : rsls;
+        final CrossDomainRslEntry[] right = others == null ? NO_RSLS : others;
+        if ( left.length != right.length )
+            return false;
+
+        for ( int i = 0; i < left.length; i++ )
+        {
+            if ( !String.valueOf( left[i].getRslUrl() ).equals( String.valueOf( right[i].getRslUrl() ) )
+                || !String.valueOf( left[i].getPolicyFileUrl() ).equals( String.valueOf( right[i].getPolicyFileUrl() ) )
+                || left[i].isAutoExtract() != right[i].isAutoExtract() )
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Gets the path of the library file of an artifact: the SWC built by the Flex library project of the artifact when
+     * it is open in the workspace, so Flash Builder compiles across projects incrementally, or the file resolved by
+     * Maven otherwise.
+     */
+    protected String getLibraryPath( final Artifact artifact )
+    {
+        final IPath output = libraryOutputs != null && libraryOutputs.containsKey( artifact.getId() )
+            ? libraryOutputs.get( artifact.getId() ) : getLibraryProjectOutput( artifact );
+        if ( output != null )
+        {
+            return output.toString();
+        }
+
+        return FlexLinkage.getLibraryFile( artifact );
+    }
+
+    /**
+     * Gets the workspace path of the SWC built by the Flex library project of an artifact. The settings of the library
+     * are cloned, so it is only called once per artifact, when the fingerprint is computed.
+     *
+     * @return the path, or <tt>null</tt> if the artifact is not built by an open Flex library project.
+     */
+    protected IPath getLibraryProjectOutput( final Artifact artifact )
+    {
+        final IMavenProjectFacade facade = MavenPlugin.getMavenProjectRegistry()
+                                                      .getMavenProject( artifact.getGroupId(),
+                                                                        artifact.getArtifactId(),
+                                                                        artifact.getBaseVersion() );
+        if ( facade == null || !facade.getProject().isOpen() )
+            return null;
+
+        final IProject library = facade.getProject();
+        final IFlexProject flexProject = FlexProjectManager.getFlexProject( library );
+        if ( !( flexProject instanceof IFlexLibraryProject ) )
+            return null;
+
+        // Flash Builder names the SWC after the project, in the output folder of the library.
+        final IPath outputFolder =
+            ( (IFlexLibraryProject) flexProject ).getFlexLibraryProjectSettingsClone().getOutputFolder();
+        if ( outputFolder == null || outputFolder.isAbsolute() )
+            return null;
+
+        return library.getFullPath().append( outputFolder ).append( library.getName() + ".swc" );
+    }
+
+    /**
+     * Gets the cross-domain RSLs of an artifact linked with a given link type, none if it is not a cross-domain RSL.
+     */
+    private CrossDomainRslEntry[] getCrossDomainRsls( final Artifact artifact, final int linkType )
+    {
+        final List<String[]> urls =
+            getLinkage().getCrossDomainRsls( artifact, linkType, plugin.getRslUrls(), plugin.getPolicyFileUrls(),
+                                             plugin.getContextRoot() );
+        if ( urls.isEmpty() )
+            return NO_RSLS;
+
+        final CrossDomainRslEntry[] rsls = new CrossDomainRslEntry[urls.size()];
+        for ( int i = 0; i < rsls.length; i++ )
+        {
+            final String[] url = urls.get( i );
+            rsls[i] = new CrossDomainRslEntry( url[0], url[1], FlexLinkage.isAutoExtract( url[0] ) );
+        }
+        return rsls;
+    }
+
+    /**
+     * Gets the linkage of the dependencies, shared with the headless configurator. Only a Flex application for the
+     * browser loads RSLs.
+     */
+    protected FlexLinkage getLinkage()
+    {
+        if ( linkage == null )
+            linkage = new FlexLinkage( library, this instanceof FlexProjectConfigurator, catalogs );
+        return linkage;
     }
 
     @Override
@@ -181,6 +467,10 @@ public class ActionScriptProjectConfigurator extends AbstractConfigurator
         locales.addAll( Arrays.asList( plugin.getLocalesCompiled() ) );
         arguments.setLocalesCompiled( locales );
 
+        // Sets the speed related options, from the pom or from the "fast dev" profile.
+        final CompilerOptions options = plugin.getCompilerOptions();
+        arguments.setCompilerOptions( plugin.isFastDev() ? options.toFastDev() : options );
+
         settings.setAdditionalCompilerArgs( arguments.toString() );
     }
 
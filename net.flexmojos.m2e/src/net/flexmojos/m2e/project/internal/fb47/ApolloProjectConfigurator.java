@@ -1,5 +1,7 @@
 package net.flexmojos.m2e.project.internal.fb47;
 
+import java.util.Arrays;
+
 import net.flexmojos.m2e.maven.IMavenFlexPlugin;
 
 import org.eclipse.core.resources.IProject;
@@ -34,6 +36,7 @@ public class ApolloProjectConfigurator
         if ( apolloProject != null )
         {
             settings = apolloProject.getFlexProjectSettingsClone();
+            loadDescription();
         }
         else
         {
@@ -46,10 +49,42 @@ public class ApolloProjectConfigurator
     }
 
     @Override
-    protected void saveDescription()
+    protected boolean saveDescription()
     {
+        if ( !isDescriptionModified() )
+            return false;
+
         final ApolloProjectSettings apolloProjectSettings = (ApolloProjectSettings) settings;
         apolloProjectSettings.saveDescription( project, monitor );
+        return true;
+    }
+
+    @Override
+    protected String describe()
+    {
+        final StringBuilder description = new StringBuilder( super.describe() );
+        final ApolloBuildTargetSettings buildTargetSettings =
+            ( (ApolloProjectSettings) settings ).getBuildTargetSettings( ApolloBuildTargetSettings.DEFAULT_PLATFORM_ID,
+                                                                         ApolloBuildTargetSettings.DEFAULT_BUILD_TARGET_NAME );
+        if ( buildTargetSettings == null )
+            return description.append( "null\n" ).toString();
+
+        // Every field set by configureBuildTarget(), the constant ones included: an edit in Flash Builder is reverted.
+        description.append( buildTargetSettings.getCertificatePath() ).append( '\n' );
+        description.append( Arrays.toString( buildTargetSettings.getAirExcludePaths() ) ).append( '\n' );
+        description.append( Arrays.toString( buildTargetSettings.getANEPaths() ) ).append( '\n' );
+        description.append( buildTargetSettings.getTimestamp() ).append( '\n' );
+        for ( final ParameterType type : new ParameterType[] { ParameterType.LAUNCHING, ParameterType.PACKAGING } )
+        {
+            description.append( length( buildTargetSettings.getAddedParameters( type ) ) ).append( ',' );
+            description.append( length( buildTargetSettings.getModifiedParameters( type ) ) ).append( '\n' );
+        }
+        return description.toString();
+    }
+
+    private static int length( final ILaunchParameter[] parameters )
+    {
+        return parameters == null ? 0 : parameters.length;
     }
 
     @Override
@@ -81,16 +116,25 @@ public class ApolloProjectConfigurator
     }
 
     @Override
-    public void configure()
+    protected void configureSettings()
     {
         configureMainSourceFolder();
+        lap( "configureMainSourceFolder" );
         configureSourcePath();
+        lap( "configureSourcePath" );
         configureOutputFolderPath();
+        lap( "configureOutputFolderPath" );
         configureBuildTarget();
+        lap( "configureBuildTarget" );
         configureLibraryPath();
+        lap( "configureLibraryPath" );
         configureHTMLTemplate();
+        lap( "configureHTMLTemplate" );
         configureTargetPlayerVersion();
+        lap( "configureTargetPlayerVersion" );
         configureMainApplicationPath();
+        lap( "configureMainApplicationPath" );
         configureAdditionalCompilerArgs();
+        lap( "configureAdditionalCompilerArgs" );
     }
 }
@@ -1,20 +1,12 @@
 package net.flexmojos.m2e.project.internal.fb47;
 
 import net.flexmojos.m2e.FlashBuilderAbstractModule;
+import net.flexmojos.m2e.flex.FlexSDKRegistry;
 import net.flexmojos.m2e.project.AbstractConfigurator;
 
-import org.eclipse.core.runtime.IProgressMonitor;
-import org.eclipse.m2e.core.project.configurator.ProjectConfigurationRequest;
-
 public class FlashBuilder47Module extends FlashBuilderAbstractModule
 {
 
-    public FlashBuilder47Module( final ProjectConfigurationRequest request,
-                                 final IProgressMonitor monitor )
-    {
-        super( request, monitor );
-    }
-
     @Override
     protected Class<? extends AbstractConfigurator> getActionScriptProjectConfiguratorClass()
     {
@@ -45,4 +37,10 @@ public class FlashBuilder47Module extends FlashBuilderAbstractModule
         return FlexProjectConfigurator.class;
     }
 
+    @Override
+    protected Class<? extends FlexSDKRegistry> getFlexSDKRegistryClass()
+    {
+        return FlashBuilderSDKRegistry.class;
+    }
+
 }
@@ -0,0 +1,75 @@
+package net.flexmojos.m2e.project.internal.fb47;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import net.flexmojos.m2e.Activator;
+import net.flexmojos.m2e.flex.FlexSDKRegistry;
+
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.osgi.service.datalocation.Location;
+
+import com.adobe.flexbuilder.project.FlexProjectManager;
+import com.adobe.flexbuilder.project.sdks.IFlexSDK;
+import com.google.inject.Singleton;
+
+/**
+ * Registry of the Flex SDKs configured in the preferences of Flash Builder 4.7.
+ *
+ * The SDKs are listed by Flash Builder, under the names it gives them, and their versions are read from their
+ * flex-sdk-description.xml. When the preferences can not be read, the SDKs are discovered from the installation
+ * folder of Flash Builder, with a warning.
+ *
+ * @author Sylvain Lecoy (sylvain.lecoy@gmail.com)
+ */
+@Singleton
+public class FlashBuilderSDKRegistry extends FlexSDKRegistry
+{
+    @Override
+    protected List<FlexSDK> discover()
+    {
+        final IFlexSDK[] items;
+        try
+        {
+            items = FlexProjectManager.getFlexSDKPreferences().getItems();
+        }
+        catch ( final RuntimeException e )
+        {
+            Activator.warn( "Could not read the Flex SDKs of Flash Builder, discovering them from the installation.",
+                            e );
+            return super.discover();
+        }
+
+        final List<FlexSDK> sdks = new ArrayList<FlexSDK>();
+        for ( final IFlexSDK item : items )
+        {
+            final FlexSDK sdk = item.getLocation() == null ? null : read( item.getLocation().toFile() );
+            if ( sdk != null )
+                sdks.add( new FlexSDK( item.getName(), sdk.getVersion(), sdk.getLocation() ) );
+        }
+
+        if ( sdks.isEmpty() )
+        {
+            Activator.warn( "No Flex SDK configured in Flash Builder, discovering them from the installation.", null );
+            return super.discover();
+        }
+        return sdks;
+    }
+
+    /**
+     * Looks into the "sdks" folder of the installation first.
+     */
+    @Override
+    protected List<File> getSDKDirectories()
+    {
+        final List<File> directories = new ArrayList<File>();
+        final Location location = Platform.getInstallLocation();
+        if ( location != null && location.getURL() != null )
+        {
+            directories.add( new File( location.getURL().getFile(), "sdks" ) );
+        }
+        directories.addAll( super.getSDKDirectories() );
+        return directories;
+    }
+}
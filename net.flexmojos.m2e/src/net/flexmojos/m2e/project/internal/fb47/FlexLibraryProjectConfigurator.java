@@ -1,10 +1,20 @@
 package net.flexmojos.m2e.project.internal.fb47;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Arrays;
 import java.util.Map;
 
 import net.flexmojos.m2e.maven.IMavenFlexPlugin;
 
+import org.codehaus.plexus.util.IOUtil;
+import org.eclipse.core.resources.IContainer;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
 
@@ -34,6 +44,7 @@ extends AbstractFlexProjectConfigurator
         {
             // If it does, reuse the settings.
             settings = flexProject.getFlexLibraryProjectSettingsClone();
+            loadDescription();
         }
         else
         {
@@ -46,10 +57,25 @@ extends AbstractFlexProjectConfigurator
     }
 
     @Override
-    protected void saveDescription()
+    protected boolean saveDescription()
     {
+        if ( !isDescriptionModified() )
+            return false;
+
         final FlexLibraryProjectSettings flexProjectSettings = (FlexLibraryProjectSettings) settings;
         flexProjectSettings.saveDescription( project, monitor );
+        return true;
+    }
+
+    @Override
+    protected String describe()
+    {
+        final StringBuilder description = new StringBuilder( super.describe() );
+        for ( final XMLNamespaceManifestPath path : ( (FlexLibraryProjectSettings) settings ).getManifestPaths() )
+        {
+            description.append( path.getNamespace() ).append( ',' ).append( path.getPath() ).append( ';' );
+        }
+        return description.toString();
     }
 
     @Override
@@ -61,6 +87,11 @@ extends AbstractFlexProjectConfigurator
 
     protected void configureManifest()
     {
+        for ( final Map.Entry<IPath, String> manifest : plugin.getGeneratedManifests().entrySet() )
+        {
+            writeManifest( manifest.getKey(), manifest.getValue() );
+        }
+
         final Map<String, IPath> namespaces = plugin.getXMLNamespaceManifestPath();
         final XMLNamespaceManifestPath[] paths = new XMLNamespaceManifestPath[namespaces.size()];
         int iterator = 0;
@@ -74,20 +105,69 @@ extends AbstractFlexProjectConfigurator
         ((FlexLibraryProjectSettings) settings).setManifestPaths( paths );
     }
 
-    @Override
     /**
-     * Configures the project.
+     * Writes a generated manifest in the workspace, only when its content changed. The manifest is derived from the
+     * dependencies, so it is marked as such.
+     *
+     * @param path full path of the manifest.
+     * @param content
      */
-    public void configure()
+    private void writeManifest( final IPath path, final String content )
+    {
+        final IFile file = ResourcesPlugin.getWorkspace().getRoot().getFile( path );
+        try
+        {
+            final byte[] bytes = content.getBytes( "UTF-8" );
+            if ( file.exists() )
+            {
+                if ( !Arrays.equals( bytes, IOUtil.toByteArray( file.getContents( true ) ) ) )
+                    file.setContents( new ByteArrayInputStream( bytes ), IResource.FORCE, monitor );
+            }
+            else
+            {
+                createFolder( file.getParent() );
+                file.create( new ByteArrayInputStream( bytes ), IResource.FORCE | IResource.DERIVED, monitor );
+            }
+        }
+        catch ( final CoreException e )
+        {
+            throw new RuntimeException( e );
+        }
+        catch ( final IOException e )
+        {
+            throw new RuntimeException( e );
+        }
+    }
+
+    private void createFolder( final IContainer container )
+        throws CoreException
+    {
+        if ( container.exists() || !( container instanceof IFolder ) )
+            return;
+
+        createFolder( container.getParent() );
+        ( (IFolder) container ).create( IResource.FORCE | IResource.DERIVED, true, monitor );
+    }
+
+    @Override
+    protected void configureSettings()
     {
         configureMainSourceFolder();
+        lap( "configureMainSourceFolder" );
         configureSourcePath();
+        lap( "configureSourcePath" );
         configureLibraryPath();
+        lap( "configureLibraryPath" );
         configureOutputFolderPath();
+        lap( "configureOutputFolderPath" );
         configureManifest();
+        lap( "configureManifest" );
         configureTargetPlayerVersion();
+        lap( "configureTargetPlayerVersion" );
         configureMainApplicationPath();
+        lap( "configureMainApplicationPath" );
         configureAdditionalCompilerArgs();
+        lap( "configureAdditionalCompilerArgs" );
     }
 
 }
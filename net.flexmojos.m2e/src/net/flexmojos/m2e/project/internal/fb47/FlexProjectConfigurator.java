@@ -7,7 +7,6 @@ import org.eclipse.core.runtime.IProgressMonitor;
 
 import com.adobe.flexbuilder.project.FlexProjectManager;
 import com.adobe.flexbuilder.project.FlexServerType;
-import com.adobe.flexbuilder.project.IClassPathEntry;
 import com.adobe.flexbuilder.project.IFlexProject;
 import com.adobe.flexbuilder.project.internal.FlexProjectSettings;
 import com.google.inject.Inject;
@@ -32,6 +31,7 @@ public class FlexProjectConfigurator
         {
             // If it does, reuse the settings.
             settings = flexProject.getFlexProjectSettingsClone();
+            loadDescription();
         }
         else
         {
@@ -45,17 +45,22 @@ public class FlexProjectConfigurator
     }
 
     @Override
-    protected void saveDescription()
+    protected boolean saveDescription()
     {
+        if ( !isDescriptionModified() )
+            return false;
+
         final FlexProjectSettings flexProjectSettings = (FlexProjectSettings) settings;
         flexProjectSettings.saveDescription( project, monitor );
+        return true;
     }
 
     @Override
     protected void configureLibraryPath()
     {
         super.configureFlexSDKName();
-        settings.setDefaultLinkType( IClassPathEntry.LINK_TYPE_RSL );
+        // Only applies to the Flex SDK, the dependencies have an explicit link type.
+        settings.setDefaultLinkType( getLinkage().getDefaultLinkType() );
         super.configureLibraryPath();
     }
 